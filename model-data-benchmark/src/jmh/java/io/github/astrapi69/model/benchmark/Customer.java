@@ -0,0 +1,99 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The root bean of the benchmarks with a simple, a nested, a map, a list and an array property and
+ * fields without accessor methods
+ */
+public class Customer
+{
+
+	String code = "C-1";
+
+	int visits = 3;
+
+	private Address address = new Address();
+
+	private Map<String, String> attributes = new HashMap<>();
+
+	private String name = "Anna";
+
+	private List<String> orders = new ArrayList<>(List.of("first", "second"));
+
+	private String[] tags = { "new", "premium" };
+
+	public Customer()
+	{
+		address.setStreet("Main Street");
+		attributes.put("segment", "retail");
+	}
+
+	public Address getAddress()
+	{
+		return address;
+	}
+
+	public Map<String, String> getAttributes()
+	{
+		return attributes;
+	}
+
+	public String getName()
+	{
+		return name;
+	}
+
+	public List<String> getOrders()
+	{
+		return orders;
+	}
+
+	public String[] getTags()
+	{
+		return tags;
+	}
+
+	public void setAddress(final Address address)
+	{
+		this.address = address;
+	}
+
+	public void setAttributes(final Map<String, String> attributes)
+	{
+		this.attributes = attributes;
+	}
+
+	public void setName(final String name)
+	{
+		this.name = name;
+	}
+
+	public void setOrders(final List<String> orders)
+	{
+		this.orders = orders;
+	}
+
+	public void setTags(final String[] tags)
+	{
+		this.tags = tags;
+	}
+}
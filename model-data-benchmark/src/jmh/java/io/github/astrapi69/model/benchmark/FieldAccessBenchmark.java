@@ -0,0 +1,132 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.benchmark;
+
+import java.lang.reflect.Field;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import io.github.astrapi69.model.property.FieldGetAndSetter;
+import io.github.astrapi69.model.property.VarHandleFieldGetAndSetter;
+
+/**
+ * Measures the field accessors of a reference and an <code>int</code> field over a
+ * {@link VarHandleFieldGetAndSetter} against the reflective {@link FieldGetAndSetter}, a plain
+ * {@link Field} and the direct field access.
+ */
+@State(Scope.Thread)
+public class FieldAccessBenchmark
+{
+
+	private Customer customer;
+
+	private Field codeField;
+
+	private Field visitsField;
+
+	private FieldGetAndSetter codeReflection;
+
+	private FieldGetAndSetter visitsReflection;
+
+	private VarHandleFieldGetAndSetter codeVarHandle;
+
+	private VarHandleFieldGetAndSetter visitsVarHandle;
+
+	private int visits;
+
+	@Setup
+	public void setUp() throws ReflectiveOperationException
+	{
+		customer = new Customer();
+		codeField = Customer.class.getDeclaredField("code");
+		visitsField = Customer.class.getDeclaredField("visits");
+		codeField.setAccessible(true);
+		visitsField.setAccessible(true);
+		codeReflection = new FieldGetAndSetter(codeField);
+		visitsReflection = new FieldGetAndSetter(visitsField);
+		codeVarHandle = new VarHandleFieldGetAndSetter(codeField);
+		visitsVarHandle = new VarHandleFieldGetAndSetter(visitsField);
+	}
+
+	@Benchmark
+	public Object getField() throws IllegalAccessException
+	{
+		return codeField.get(customer);
+	}
+
+	@Benchmark
+	public Object getReflection()
+	{
+		return codeReflection.getValue(customer);
+	}
+
+	@Benchmark
+	public Object getVarHandle()
+	{
+		return codeVarHandle.getValue(customer);
+	}
+
+	@Benchmark
+	public String getBaseline()
+	{
+		return customer.code;
+	}
+
+	@Benchmark
+	public int getIntField() throws IllegalAccessException
+	{
+		return visitsField.getInt(customer);
+	}
+
+	@Benchmark
+	public int getIntReflection()
+	{
+		return visitsReflection.getInt(customer);
+	}
+
+	@Benchmark
+	public int getIntVarHandle()
+	{
+		return visitsVarHandle.getInt(customer);
+	}
+
+	@Benchmark
+	public int getIntBaseline()
+	{
+		return customer.visits;
+	}
+
+	@Benchmark
+	public void setIntReflection()
+	{
+		visitsReflection.setInt(customer, ++visits);
+	}
+
+	@Benchmark
+	public void setIntVarHandle()
+	{
+		visitsVarHandle.setInt(customer, ++visits);
+	}
+
+	@Benchmark
+	public void setIntBaseline()
+	{
+		customer.visits = ++visits;
+	}
+}
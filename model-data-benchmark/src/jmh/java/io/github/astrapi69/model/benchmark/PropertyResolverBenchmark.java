@@ -0,0 +1,251 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.benchmark;
+
+import java.lang.reflect.Method;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import io.github.astrapi69.model.property.PropertyPathTrie;
+import io.github.astrapi69.model.property.PropertyResolver;
+
+/**
+ * Measures the warm read and write paths of the {@link PropertyResolver} against the direct calls
+ * of the same properties. The read benchmarks return their value, so the values are consumed by
+ * JMH.
+ */
+@State(Scope.Thread)
+public class PropertyResolverBenchmark
+{
+
+	/** The expressions of a table row. */
+	private static final String[] ROW = { "name", "address.street", "attributes.segment",
+			"orders[1]", "tags[1]" };
+
+	private Customer customer;
+
+	private Method nameGetter;
+
+	private PropertyPathTrie row;
+
+	@Setup
+	public void setUp() throws NoSuchMethodException
+	{
+		customer = new Customer();
+		nameGetter = Customer.class.getMethod("getName");
+		row = PropertyResolver.compileAll(ROW);
+		// resolve every expression once, so only the warm paths are measured
+		getSimple();
+		getNested();
+		getField();
+		getMapKey();
+		getListIndex();
+		getArrayIndex();
+		getPropertyClass();
+	}
+
+	@Benchmark
+	public String getSimple()
+	{
+		return (String)PropertyResolver.getValue("name", customer);
+	}
+
+	@Benchmark
+	public String getSimpleBaseline()
+	{
+		return customer.getName();
+	}
+
+	@Benchmark
+	public String getNested()
+	{
+		return (String)PropertyResolver.getValue("address.street", customer);
+	}
+
+	@Benchmark
+	public String getNestedBaseline()
+	{
+		return customer.getAddress().getStreet();
+	}
+
+	@Benchmark
+	public String getField()
+	{
+		return (String)PropertyResolver.getValue("code", customer);
+	}
+
+	@Benchmark
+	public String getFieldBaseline()
+	{
+		return customer.code;
+	}
+
+	@Benchmark
+	public String getMapKey()
+	{
+		return (String)PropertyResolver.getValue("attributes.segment", customer);
+	}
+
+	@Benchmark
+	public String getMapKeyBaseline()
+	{
+		return customer.getAttributes().get("segment");
+	}
+
+	@Benchmark
+	public String getListIndex()
+	{
+		return (String)PropertyResolver.getValue("orders[1]", customer);
+	}
+
+	@Benchmark
+	public String getListIndexBaseline()
+	{
+		return customer.getOrders().get(1);
+	}
+
+	@Benchmark
+	public String getArrayIndex()
+	{
+		return (String)PropertyResolver.getValue("tags[1]", customer);
+	}
+
+	@Benchmark
+	public String getArrayIndexBaseline()
+	{
+		return customer.getTags()[1];
+	}
+
+	@Benchmark
+	public void setSimple()
+	{
+		PropertyResolver.setValue("name", customer, "Anna");
+	}
+
+	@Benchmark
+	public void setSimpleBaseline()
+	{
+		customer.setName("Anna");
+	}
+
+	@Benchmark
+	public void setNested()
+	{
+		PropertyResolver.setValue("address.street", customer, "Main Street");
+	}
+
+	@Benchmark
+	public void setNestedBaseline()
+	{
+		customer.getAddress().setStreet("Main Street");
+	}
+
+	@Benchmark
+	public void setField()
+	{
+		PropertyResolver.setValue("code", customer, "C-1");
+	}
+
+	@Benchmark
+	public void setFieldBaseline()
+	{
+		customer.code = "C-1";
+	}
+
+	@Benchmark
+	public void setMapKey()
+	{
+		PropertyResolver.setValue("attributes.segment", customer, "retail");
+	}
+
+	@Benchmark
+	public void setMapKeyBaseline()
+	{
+		customer.getAttributes().put("segment", "retail");
+	}
+
+	@Benchmark
+	public void setListIndex()
+	{
+		PropertyResolver.setValue("orders[1]", customer, "second");
+	}
+
+	@Benchmark
+	public void setListIndexBaseline()
+	{
+		customer.getOrders().set(1, "second");
+	}
+
+	@Benchmark
+	public void setArrayIndex()
+	{
+		PropertyResolver.setValue("tags[1]", customer, "premium");
+	}
+
+	@Benchmark
+	public void setArrayIndexBaseline()
+	{
+		customer.getTags()[1] = "premium";
+	}
+
+	@Benchmark
+	public Class<?> getPropertyClass()
+	{
+		return PropertyResolver.getPropertyClass("address.street", Customer.class);
+	}
+
+	@Benchmark
+	public Class<?> getPropertyClassBaseline()
+	{
+		return nameGetter.getReturnType();
+	}
+
+	@Benchmark
+	public Object[] getValues()
+	{
+		return PropertyResolver.getValues(customer, ROW);
+	}
+
+	/**
+	 * Compiles the row and builds its trie on every call, which is what getValues costs without
+	 * its cache of tries. Compare the allocation rate of the GC profiler with {@link #getValues()}.
+	 */
+	@Benchmark
+	public Object[] getValuesNewTrie()
+	{
+		return PropertyResolver.compileAll(ROW).getValues(customer);
+	}
+
+	@Benchmark
+	public Object[] getValuesCompiled()
+	{
+		return row.getValues(customer);
+	}
+
+	@Benchmark
+	public Object[] getValuesSeparately()
+	{
+		final Object[] values = new Object[ROW.length];
+		for (int i = 0; i < ROW.length; i++)
+		{
+			values[i] = PropertyResolver.getValue(ROW[i], customer);
+		}
+		return values;
+	}
+}
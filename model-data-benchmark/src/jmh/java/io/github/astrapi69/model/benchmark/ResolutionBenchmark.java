@@ -0,0 +1,91 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import io.github.astrapi69.model.property.ClassValueClassCache;
+import io.github.astrapi69.model.property.PropertyResolver;
+
+/**
+ * Measures the cold resolution of an expression, with an empty class cache before every
+ * invocation, against the warm resolution and the direct call. The benchmarks measure the average
+ * time, because the cold invocations are too slow for the setup of every invocation to distort
+ * them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ResolutionBenchmark
+{
+
+	private Customer customer;
+
+	@Setup
+	public void setUp()
+	{
+		customer = new Customer();
+		PropertyResolver.getValue("address.street", customer);
+	}
+
+	/**
+	 * The state of the cold benchmarks, which empties the class cache before every invocation. The
+	 * property classes that are resolved with the class cache are dropped with it.
+	 */
+	@State(Scope.Thread)
+	public static class Cold
+	{
+
+		@Setup(Level.Invocation)
+		public void clearClassCache()
+		{
+			PropertyResolver.setClassCache(null, new ClassValueClassCache());
+		}
+	}
+
+	@Benchmark
+	public Object cold(final Cold state)
+	{
+		return PropertyResolver.getValue("address.street", customer);
+	}
+
+	@Benchmark
+	public Object coldPropertyClass(final Cold state)
+	{
+		return PropertyResolver.getPropertyClass("address.street", Customer.class);
+	}
+
+	@Benchmark
+	public Object warm()
+	{
+		return PropertyResolver.getValue("address.street", customer);
+	}
+
+	@Benchmark
+	public Object baseline()
+	{
+		return customer.getAddress().getStreet();
+	}
+}
@@ -0,0 +1,161 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.benchmark;
+
+import java.lang.reflect.Constructor;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import io.github.astrapi69.model.api.ClassCache;
+import io.github.astrapi69.model.property.PropertyResolver;
+
+/**
+ * Measures the throughput of the shared caches of the {@link PropertyResolver} when many threads
+ * resolve expressions at once. Run it with an increasing number of threads, for instance with the
+ * {@link ScalabilityRunner}, to get the scaling curve. <br>
+ * The {@link ClassCache} under test is given by its class name, followed by the int arguments of
+ * its public constructor separated by colons, like
+ * {@code io.github.astrapi69.model.property.BoundedClassCache:64:4096}. So any implementation with
+ * a public default constructor or a public constructor of int parameters can be measured against
+ * the default.
+ */
+@State(Scope.Benchmark)
+public class ScalabilityBenchmark
+{
+
+	/** The expressions that are evaluated on a {@link Customer}. */
+	private static final String[] EXPRESSIONS = { "name", "address.street", "code",
+			"attributes.segment", "orders[1]", "tags[1]" };
+
+	/** The classes that hold the last segments of the {@link #EXPRESSIONS}. */
+	private static final Class<?>[] OWNERS = { Customer.class, Address.class, Customer.class,
+			Customer.class, Customer.class, Customer.class };
+
+	/** The last segments of the {@link #EXPRESSIONS} that are cached. */
+	private static final String[] SEGMENTS = { "name", "street", "code", "attributes", "orders",
+			"tags" };
+
+	@Param({ "io.github.astrapi69.model.property.ClassValueClassCache",
+			"io.github.astrapi69.model.property.BoundedClassCache:64:4096" })
+	public String classCache;
+
+	/** The percentage of the operations of the mixed benchmark that resolve an expression cold. */
+	@Param({ "10" })
+	public int coldPercent;
+
+	/** The number of operations of a thread between two clears of the class cache. */
+	@Param({ "1000" })
+	public int clearInterval;
+
+	private volatile ClassCache cache;
+
+	/** The constructor of the class cache under test. */
+	private Constructor<? extends ClassCache> constructor;
+
+	/** The arguments of the {@link #constructor}. */
+	private Object[] arguments;
+
+	private Customer customer;
+
+	@Setup
+	public void setUp() throws ReflectiveOperationException
+	{
+		customer = new Customer();
+		final String[] parts = classCache.split(":");
+		final Class<?>[] parameterTypes = new Class<?>[parts.length - 1];
+		arguments = new Object[parts.length - 1];
+		for (int i = 1; i < parts.length; i++)
+		{
+			parameterTypes[i - 1] = int.class;
+			arguments[i - 1] = Integer.parseInt(parts[i].trim());
+		}
+		constructor = Class.forName(parts[0].trim()).asSubclass(ClassCache.class)
+			.getConstructor(parameterTypes);
+		cache = newClassCache();
+		PropertyResolver.setClassCache(null, cache);
+		for (final String expression : EXPRESSIONS)
+		{
+			PropertyResolver.getValue(expression, customer);
+		}
+	}
+
+	private ClassCache newClassCache() throws ReflectiveOperationException
+	{
+		return constructor.newInstance(arguments);
+	}
+
+	/**
+	 * The state of a thread.
+	 */
+	@State(Scope.Thread)
+	public static class Worker
+	{
+
+		int next;
+
+		int operations;
+
+		int nextExpression()
+		{
+			next = next + 1 == EXPRESSIONS.length ? 0 : next + 1;
+			return next;
+		}
+	}
+
+	/**
+	 * Reads the expressions, which are all in the cache.
+	 */
+	@Benchmark
+	public Object warmRead(final Worker worker)
+	{
+		return PropertyResolver.getValue(EXPRESSIONS[worker.nextExpression()], customer);
+	}
+
+	/**
+	 * Reads the expressions, where the given percentage of the reads removes the expression from
+	 * the cache first, so it is resolved again while the other threads read it.
+	 */
+	@Benchmark
+	public Object mixedResolution(final Worker worker)
+	{
+		final int index = worker.nextExpression();
+		if (ThreadLocalRandom.current().nextInt(100) < coldPercent)
+		{
+			cache.getOrCreate(OWNERS[index]).remove(SEGMENTS[index]);
+		}
+		return PropertyResolver.getValue(EXPRESSIONS[index], customer);
+	}
+
+	/**
+	 * Reads the expressions, where every thread replaces the class cache with an empty one after
+	 * the given number of reads.
+	 */
+	@Benchmark
+	public Object clearStorm(final Worker worker) throws ReflectiveOperationException
+	{
+		if (++worker.operations == clearInterval)
+		{
+			worker.operations = 0;
+			PropertyResolver.setClassCache(null, newClassCache());
+		}
+		return PropertyResolver.getValue(EXPRESSIONS[worker.nextExpression()], customer);
+	}
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the {@link ScalabilityBenchmark} with 1, 2, 4 ... N threads, where N is the number of
+ * available processors or the first argument, and prints the throughput and the speedup over one
+ * thread of every benchmark. The optional second argument is the class name of the
+ * {@link io.github.astrapi69.model.api.ClassCache} under test, optionally followed by the int
+ * arguments of its constructor separated by colons, see {@link ScalabilityBenchmark}.
+ */
+public final class ScalabilityRunner
+{
+
+	private ScalabilityRunner()
+	{
+	}
+
+	/**
+	 * Runs the benchmarks and prints the scaling curve.
+	 *
+	 * @param args
+	 *            the optional maximum number of threads and the optional class name and
+	 *            constructor arguments of the class cache
+	 * @throws RunnerException
+	 *             if a benchmark fails
+	 */
+	public static void main(final String[] args) throws RunnerException
+	{
+		final int maxThreads = args.length > 0
+			? Integer.parseInt(args[0])
+			: Runtime.getRuntime().availableProcessors();
+		final Map<String, Map<Integer, Double>> curves = new LinkedHashMap<>();
+		String unit = "";
+		for (final int threads : threadCounts(maxThreads))
+		{
+			final ChainedOptionsBuilder builder = new OptionsBuilder()
+				.include(ScalabilityBenchmark.class.getSimpleName()).threads(threads).forks(1)
+				.warmupIterations(3).measurementIterations(5);
+			if (args.length > 1)
+			{
+				builder.param("classCache", args[1]);
+			}
+			final Options options = builder.build();
+			final Collection<RunResult> results = new Runner(options).run();
+			for (final RunResult result : results)
+			{
+				unit = result.getPrimaryResult().getScoreUnit();
+				curves.computeIfAbsent(label(result), key -> new TreeMap<>()).put(threads,
+					result.getPrimaryResult().getScore());
+			}
+		}
+		System.out.println();
+		System.out.printf("%-60s %8s %16s %8s%n", "Benchmark", "Threads", unit, "Speedup");
+		curves.forEach((benchmark, curve) -> {
+			final double single = curve.getOrDefault(1, Double.NaN);
+			curve.forEach((threads, score) -> System.out.printf("%-60s %8d %16.3f %8.2f%n",
+				benchmark, threads, score, score / single));
+		});
+	}
+
+	private static String label(final RunResult result)
+	{
+		final StringBuilder label = new StringBuilder(result.getParams().getBenchmark());
+		for (final String key : result.getParams().getParamsKeys())
+		{
+			label.append(' ').append(key).append('=').append(result.getParams().getParam(key));
+		}
+		return label.toString();
+	}
+
+	private static List<Integer> threadCounts(final int maxThreads)
+	{
+		final List<Integer> counts = new ArrayList<>();
+		for (int threads = 1; threads < maxThreads; threads *= 2)
+		{
+			counts.add(threads);
+		}
+		counts.add(maxThreads);
+		return counts;
+	}
+}
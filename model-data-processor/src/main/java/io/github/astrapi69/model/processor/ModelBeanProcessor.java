@@ -0,0 +1,428 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * The class {@link ModelBeanProcessor} generates a GetAndSetProvider for every class that is
+ * annotated with ModelBean. The provider holds a GetAndSet for every readable property that calls
+ * the getter and the setter directly, and all providers are registered in
+ * META-INF/services/io.github.astrapi69.model.api.GetAndSetProvider, so the property resolver
+ * finds them with the ServiceLoader.
+ */
+@SupportedAnnotationTypes(ModelBeanProcessor.MODEL_BEAN)
+public class ModelBeanProcessor extends AbstractProcessor
+{
+
+	/** The name of the annotation that marks the processed classes. */
+	static final String MODEL_BEAN = "io.github.astrapi69.model.api.ModelBean";
+
+	/** The name of the service interface of the generated providers. */
+	static final String PROVIDER = "io.github.astrapi69.model.api.GetAndSetProvider";
+
+	private static final String GET_AND_SET = "io.github.astrapi69.model.api.GetAndSet";
+
+	private static final String GENERATED_GET_AND_SET = "io.github.astrapi69.model.property.GeneratedGetAndSet";
+
+	/** The names of the providers that are generated in this compilation. */
+	private final Set<String> providers = new HashSet<>();
+
+	/** The classes of the generated providers, the originating elements of the service file. */
+	private final List<Element> originatingElements = new ArrayList<>();
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public SourceVersion getSupportedSourceVersion()
+	{
+		return SourceVersion.latestSupported();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean process(final Set<? extends TypeElement> annotations,
+		final RoundEnvironment roundEnv)
+	{
+		for (final TypeElement annotation : annotations)
+		{
+			for (final Element element : roundEnv.getElementsAnnotatedWith(annotation))
+			{
+				if (isProcessable(element))
+				{
+					generate((TypeElement)element);
+				}
+			}
+		}
+		if (roundEnv.processingOver() && !providers.isEmpty())
+		{
+			writeServiceFile();
+		}
+		return false;
+	}
+
+	private boolean isProcessable(final Element element)
+	{
+		if (element.getKind() != ElementKind.CLASS)
+		{
+			error(element, "@ModelBean is only supported on classes");
+			return false;
+		}
+		if (element.getModifiers().contains(Modifier.PRIVATE))
+		{
+			error(element, "@ModelBean classes must not be private");
+			return false;
+		}
+		final TypeElement type = (TypeElement)element;
+		if (type.getNestingKind() == NestingKind.MEMBER
+			&& !type.getModifiers().contains(Modifier.STATIC))
+		{
+			error(element, "@ModelBean member classes must be static");
+			return false;
+		}
+		if (type.getNestingKind() == NestingKind.LOCAL
+			|| type.getNestingKind() == NestingKind.ANONYMOUS)
+		{
+			error(element, "@ModelBean is not supported on local classes");
+			return false;
+		}
+		return true;
+	}
+
+	private void generate(final TypeElement type)
+	{
+		final String packageName = getPackage(type).getQualifiedName().toString();
+		final String providerName = getFlatName(type) + "GetAndSetProvider";
+		final String qualifiedProviderName = packageName.isEmpty()
+			? providerName
+			: packageName + "." + providerName;
+		final String source = new ProviderSource(type, packageName, providerName,
+			getProperties(type)).toString();
+		try
+		{
+			final FileObject file = processingEnv.getFiler().createSourceFile(qualifiedProviderName,
+				type);
+			try (Writer writer = file.openWriter())
+			{
+				writer.write(source);
+			}
+			providers.add(qualifiedProviderName);
+			originatingElements.add(type);
+		}
+		catch (final IOException e)
+		{
+			error(type, "Cannot write " + qualifiedProviderName + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Collects the readable properties of the given class with their setters.
+	 */
+	private Map<String, Property> getProperties(final TypeElement type)
+	{
+		final Map<String, Property> properties = new LinkedHashMap<>();
+		final List<ExecutableElement> methods = new ArrayList<>();
+		for (final Element member : processingEnv.getElementUtils().getAllMembers(type))
+		{
+			if (member.getKind() == ElementKind.METHOD && isAccessible(type, member)
+				&& !member.getModifiers().contains(Modifier.STATIC))
+			{
+				methods.add((ExecutableElement)member);
+			}
+		}
+		for (final ExecutableElement method : methods)
+		{
+			final String suffix = getPropertySuffix(method);
+			if (suffix != null && (!properties.containsKey(suffix)
+				|| method.getSimpleName().toString().startsWith("get")))
+			{
+				properties.put(suffix, new Property(suffix, method, findSetter(suffix, method,
+					methods)));
+			}
+		}
+		return properties;
+	}
+
+	/**
+	 * Gets the capitalized property name of a getter or null if the method is not a getter.
+	 */
+	private static String getPropertySuffix(final ExecutableElement method)
+	{
+		if (!method.getParameters().isEmpty() || method.getReturnType().getKind() == TypeKind.VOID)
+		{
+			return null;
+		}
+		final String name = method.getSimpleName().toString();
+		if (name.startsWith("get") && name.length() > 3 && !name.equals("getClass"))
+		{
+			return name.substring(3);
+		}
+		if (name.startsWith("is") && name.length() > 2
+			&& method.getReturnType().getKind() == TypeKind.BOOLEAN)
+		{
+			return name.substring(2);
+		}
+		return null;
+	}
+
+	/**
+	 * Finds the setter of a property like the property resolver does, a setter with the type of
+	 * the getter or otherwise a setter with a parameter that the getter type is assignable to.
+	 */
+	private ExecutableElement findSetter(final String suffix, final ExecutableElement getter,
+		final List<ExecutableElement> methods)
+	{
+		final TypeMirror propertyType = getter.getReturnType();
+		ExecutableElement candidate = null;
+		for (final ExecutableElement method : methods)
+		{
+			if (method.getSimpleName().contentEquals("set" + suffix)
+				&& method.getParameters().size() == 1)
+			{
+				final TypeMirror parameterType = method.getParameters().get(0).asType();
+				if (processingEnv.getTypeUtils().isSameType(erasure(parameterType),
+					erasure(propertyType)))
+				{
+					return method;
+				}
+				if (candidate == null && processingEnv.getTypeUtils()
+					.isAssignable(erasure(propertyType), erasure(parameterType)))
+				{
+					candidate = method;
+				}
+			}
+		}
+		return candidate;
+	}
+
+	/**
+	 * Checks if the given member can be called from the generated provider in the package of the
+	 * given class.
+	 */
+	private static boolean isAccessible(final TypeElement type, final Element member)
+	{
+		final Set<Modifier> modifiers = member.getModifiers();
+		if (modifiers.contains(Modifier.PUBLIC))
+		{
+			return true;
+		}
+		return !modifiers.contains(Modifier.PRIVATE)
+			&& getPackage(member).equals(getPackage(type));
+	}
+
+	private TypeMirror erasure(final TypeMirror type)
+	{
+		return processingEnv.getTypeUtils().erasure(type);
+	}
+
+	private static PackageElement getPackage(Element element)
+	{
+		while (element.getKind() != ElementKind.PACKAGE)
+		{
+			element = element.getEnclosingElement();
+		}
+		return (PackageElement)element;
+	}
+
+	/**
+	 * Gets the simple names of the given class and its enclosing classes joined with underscores.
+	 */
+	private static String getFlatName(final TypeElement type)
+	{
+		final Element enclosing = type.getEnclosingElement();
+		if (enclosing instanceof TypeElement)
+		{
+			return getFlatName((TypeElement)enclosing) + "_" + type.getSimpleName();
+		}
+		return type.getSimpleName().toString();
+	}
+
+	private void writeServiceFile()
+	{
+		try
+		{
+			final FileObject file = processingEnv.getFiler().createResource(
+				StandardLocation.CLASS_OUTPUT, "", "META-INF/services/" + PROVIDER,
+				originatingElements.toArray(new Element[0]));
+			try (Writer writer = file.openWriter())
+			{
+				for (final String provider : providers)
+				{
+					writer.write(provider);
+					writer.write('\n');
+				}
+			}
+		}
+		catch (final IOException e)
+		{
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+				"Cannot write the service file of " + PROVIDER + ": " + e.getMessage());
+		}
+	}
+
+	private void error(final Element element, final String message)
+	{
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+	}
+
+	/**
+	 * A readable property with its getter and the setter or null.
+	 */
+	private static final class Property
+	{
+		final String suffix;
+
+		final ExecutableElement getter;
+
+		final ExecutableElement setter;
+
+		Property(final String suffix, final ExecutableElement getter,
+			final ExecutableElement setter)
+		{
+			this.suffix = suffix;
+			this.getter = getter;
+			this.setter = setter;
+		}
+	}
+
+	/**
+	 * The source of a generated provider.
+	 */
+	private final class ProviderSource
+	{
+		private final StringBuilder source = new StringBuilder();
+
+		ProviderSource(final TypeElement type, final String packageName,
+			final String providerName, final Map<String, Property> properties)
+		{
+			final String beanName = type.getQualifiedName().toString();
+			if (!packageName.isEmpty())
+			{
+				source.append("package ").append(packageName).append(";\n\n");
+			}
+			source.append("/**\n * The accessors of the properties of {@link ").append(beanName)
+				.append("}, generated by ").append(ModelBeanProcessor.class.getName())
+				.append(".\n */\n");
+			source.append("@SuppressWarnings({ \"rawtypes\", \"unchecked\" })\n");
+			source.append("public final class ").append(providerName).append(" implements ")
+				.append(PROVIDER).append("\n{\n");
+			final Set<String> constants = new HashSet<>();
+			final Map<String, Property> constantsToProperties = new LinkedHashMap<>();
+			for (final Property property : properties.values())
+			{
+				String constant = property.suffix.toUpperCase();
+				for (int i = 1; !constants.add(constant); i++)
+				{
+					constant = property.suffix.toUpperCase() + "_" + i;
+				}
+				constantsToProperties.put(constant, property);
+				appendGetAndSet(beanName, constant, property);
+			}
+			source.append("\t@Override\n\tpublic Class<?> getType()\n\t{\n\t\treturn ")
+				.append(beanName).append(".class;\n\t}\n\n");
+			source.append("\t@Override\n\tpublic ").append(GET_AND_SET)
+				.append(" getGetAndSet(final String property)\n\t{\n");
+			source.append("\t\tswitch (property)\n\t\t{\n");
+			for (final Map.Entry<String, Property> entry : constantsToProperties.entrySet())
+			{
+				final String suffix = entry.getValue().suffix;
+				source.append("\t\t\tcase \"").append(suffix).append("\" :\n");
+				final String decapitalized = Character.toLowerCase(suffix.charAt(0))
+					+ suffix.substring(1);
+				if (!decapitalized.equals(suffix))
+				{
+					source.append("\t\t\tcase \"").append(decapitalized).append("\" :\n");
+				}
+				source.append("\t\t\t\treturn ").append(entry.getKey()).append(";\n");
+			}
+			source.append("\t\t\tdefault :\n\t\t\t\treturn null;\n\t\t}\n\t}\n}\n");
+		}
+
+		private void appendGetAndSet(final String beanName, final String constant,
+			final Property property)
+		{
+			final TypeMirror propertyType = erasure(property.getter.getReturnType());
+			final String decapitalized = Character.toLowerCase(property.suffix.charAt(0))
+				+ property.suffix.substring(1);
+			source.append("\tprivate static final ").append(GET_AND_SET).append(' ')
+				.append(constant).append(" = new ").append(GENERATED_GET_AND_SET).append('(')
+				.append(beanName).append(".class, \"").append(decapitalized).append("\", ")
+				.append(propertyType).append(".class)\n\t{\n");
+			source.append("\t\t@Override\n\t\tpublic Object getValue(final Object object)\n\t\t{\n")
+				.append("\t\t\treturn ((").append(beanName).append(")object).")
+				.append(property.getter.getSimpleName()).append("();\n\t\t}\n\n");
+			source.append("\t\t@Override\n\t\tpublic void setValue(final Object object, ")
+				.append("final Object value)\n\t\t{\n");
+			if (property.setter != null)
+			{
+				final TypeMirror parameterType = erasure(
+					property.setter.getParameters().get(0).asType());
+				final String castType = parameterType.getKind().isPrimitive()
+					? processingEnv.getTypeUtils()
+						.boxedClass(processingEnv.getTypeUtils().getPrimitiveType(
+							parameterType.getKind()))
+						.getQualifiedName().toString()
+					: parameterType.toString();
+				if (parameterType.getKind().isPrimitive())
+				{
+					source.append("\t\t\tif (value == null)\n\t\t\t{\n")
+						.append("\t\t\t\tthrow nullValue(object);\n\t\t\t}\n");
+				}
+				source.append("\t\t\t((").append(beanName).append(")object).")
+					.append(property.setter.getSimpleName()).append("((").append(castType)
+					.append(")convert(value, ").append(parameterType).append(".class));\n");
+			}
+			else
+			{
+				source.append("\t\t\tsetField(object, value);\n");
+			}
+			source.append("\t\t}\n\t};\n\n");
+		}
+
+		@Override
+		public String toString()
+		{
+			return source.toString();
+		}
+	}
+}
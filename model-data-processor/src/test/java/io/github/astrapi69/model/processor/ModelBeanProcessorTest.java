@@ -0,0 +1,147 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.processor;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import org.testng.annotations.Test;
+
+import io.github.astrapi69.model.api.AccessStrategy;
+import io.github.astrapi69.model.api.GetAndSet;
+import io.github.astrapi69.model.property.ClassValueClassCache;
+import io.github.astrapi69.model.property.PropertyResolver;
+
+/**
+ * The unit test class for the class {@link ModelBeanProcessor}
+ */
+public class ModelBeanProcessorTest
+{
+
+	private static final String BEAN = "package demo;\n" //
+		+ "@io.github.astrapi69.model.api.ModelBean\n" //
+		+ "public class Order {\n" //
+		+ "  private String customer;\n" //
+		+ "  private boolean paid;\n" //
+		+ "  private Order parent;\n" //
+		+ "  public String getCustomer() { return customer; }\n" //
+		+ "  public void setCustomer(String customer) { this.customer = customer; }\n" //
+		+ "  public boolean isPaid() { return paid; }\n" //
+		+ "  public void setPaid(boolean paid) { this.paid = paid; }\n" //
+		+ "  public Order getParent() { return parent; }\n" //
+		+ "  public void setParent(Order parent) { this.parent = parent; }\n" //
+		+ "}\n";
+
+	private static JavaCompiler.CompilationTask newTask(final String className,
+		final String source, final Path output,
+		final DiagnosticCollector<JavaFileObject> diagnostics)
+	{
+		final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		final JavaFileObject file = new SimpleJavaFileObject(
+			URI.create("string:///" + className.replace('.', '/') + ".java"),
+			JavaFileObject.Kind.SOURCE)
+		{
+			@Override
+			public CharSequence getCharContent(final boolean ignoreEncodingErrors)
+			{
+				return source;
+			}
+		};
+		final JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics,
+			List.of("-d", output.toString(), "-classpath", System.getProperty("java.class.path")),
+			null, List.of(file));
+		task.setProcessors(List.of(new ModelBeanProcessor()));
+		return task;
+	}
+
+	private static Path compile(final String className, final String source) throws IOException
+	{
+		final Path output = Files.createTempDirectory("model-bean");
+		final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		assertTrue(diagnostics.getDiagnostics().toString(),
+			newTask(className, source, output, diagnostics).call());
+		return output;
+	}
+
+	@Test
+	public void testProviderIsGeneratedAndRegistered() throws Exception
+	{
+		final Path output = compile("demo.Order", BEAN);
+		assertTrue(Files.exists(output.resolve("demo/OrderGetAndSetProvider.class")));
+		final Path serviceFile = output
+			.resolve("META-INF/services/" + ModelBeanProcessor.PROVIDER);
+		assertEquals(List.of("demo.OrderGetAndSetProvider"), Files.readAllLines(serviceFile));
+
+		final ClassValueClassCache cache = new ClassValueClassCache();
+		PropertyResolver.setClassCache(null, cache);
+		try (URLClassLoader classLoader = new URLClassLoader(
+			new URL[] { output.toUri().toURL() }, getClass().getClassLoader()))
+		{
+			final Class<?> beanClass = classLoader.loadClass("demo.Order");
+			final Object order = beanClass.getDeclaredConstructor().newInstance();
+			PropertyResolver.setValue("parent.customer", order, "Anna");
+			PropertyResolver.setValue("paid", order, true);
+			assertEquals("Anna", PropertyResolver.getValue("parent.customer", order));
+			assertEquals(Boolean.TRUE, PropertyResolver.getValue("paid", order));
+			final GetAndSet getAndSet = cache.get(beanClass).get("paid");
+			assertEquals(AccessStrategy.DIRECT, getAndSet.getAccessStrategy());
+			assertEquals(boolean.class, getAndSet.getTargetClass());
+			try
+			{
+				PropertyResolver.setValue("paid", order, null);
+				fail("null cannot be set on a primitive property");
+			}
+			catch (final RuntimeException e)
+			{
+				// the same exception the property resolver throws for a setter
+				assertTrue(e.getMessage().startsWith("Error calling method: "));
+				assertTrue(e.getCause() instanceof IllegalArgumentException);
+			}
+		}
+		finally
+		{
+			PropertyResolver.setClassCache(null, new ClassValueClassCache());
+		}
+	}
+
+	@Test
+	public void testPrivateMemberClassIsRejected() throws Exception
+	{
+		final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		final String source = "package demo;\npublic class Outer {\n"
+			+ "  @io.github.astrapi69.model.api.ModelBean\n"
+			+ "  private static class Hidden { public String getName() { return null; } }\n}\n";
+		assertFalse(newTask("demo.Outer", source, Files.createTempDirectory("model-bean"),
+			diagnostics).call());
+		assertTrue(diagnostics.getDiagnostics().toString().contains("must not be private"));
+	}
+}
@@ -15,17 +15,19 @@
  */
 package io.github.astrapi69.model;
 
-import java.beans.IntrospectionException;
-import java.beans.PropertyDescriptor;
 import java.io.Serial;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.Objects;
 
 import org.apache.commons.lang3.StringUtils;
 
 import io.github.astrapi69.model.api.IModel;
 import io.github.astrapi69.model.api.IObjectClassAwareModel;
 import io.github.astrapi69.model.api.IPropertyReflectionAwareModel;
+import io.github.astrapi69.model.jfr.ModelEvents;
+import io.github.astrapi69.model.property.CompiledPropertyAccessor;
+import io.github.astrapi69.model.property.PropertyPath;
 import io.github.astrapi69.model.property.PropertyResolver;
 
 /**
@@ -46,6 +48,12 @@ public abstract class AbstractPropertyModel<T> extends ChainingModel<T>
 	@Serial
 	private static final long serialVersionUID = 1L;
 
+	/** The compiled property expression of the default {@link #propertyPath()}. */
+	private transient PropertyPath compiledPath;
+
+	/** The accessor of the last target class, rebuilt on demand after deserialization. */
+	private transient InlineCache inlineCache;
+
 	/**
 	 * Constructor
 	 *
@@ -82,13 +90,13 @@ public abstract class AbstractPropertyModel<T> extends ChainingModel<T>
 	@SuppressWarnings("unchecked")
 	public T getObject()
 	{
-		final String expression = propertyExpression();
-		if (StringUtils.isEmpty(expression))
+		final PropertyPath path = propertyPath();
+		if (path.isEmpty())
 		{
 			// Return a meaningful value for an empty property expression
 			return (T)getInnermostModelOrObject();
 		}
-		else if (expression.startsWith("."))
+		else if (path.getExpression().startsWith("."))
 		{
 			throw new IllegalArgumentException(
 				"Property expressions cannot start with a '.' character");
@@ -97,7 +105,13 @@ public abstract class AbstractPropertyModel<T> extends ChainingModel<T>
 		final Object target = getInnermostModelOrObject();
 		if (target != null)
 		{
-			return getProperty(expression, target);
+			final Object event = ModelEvents.beginEvaluation();
+			final CompiledPropertyAccessor accessor = accessor(path, target.getClass());
+			final Object value = accessor != null
+				? accessor.getValue(target)
+				: path.getValue(target);
+			ModelEvents.commitEvaluation(event, target, path.getExpression());
+			return (T)value;
 		}
 		return null;
 	}
@@ -112,8 +126,8 @@ public abstract class AbstractPropertyModel<T> extends ChainingModel<T>
 	@SuppressWarnings("unchecked")
 	public void setObject(final T object)
 	{
-		final String expression = propertyExpression();
-		if (StringUtils.isEmpty(expression))
+		final PropertyPath path = propertyPath();
+		if (path.isEmpty())
 		{
 			final Object target = getTarget();
 			if (target instanceof IModel)
@@ -127,8 +141,36 @@ public abstract class AbstractPropertyModel<T> extends ChainingModel<T>
 		}
 		else
 		{
-			PropertyResolver.setValue(expression, getInnermostModelOrObject(), object);
+			final Object target = getInnermostModelOrObject();
+			final CompiledPropertyAccessor accessor = target != null
+				? accessor(path, target.getClass())
+				: null;
+			if (accessor == null || !accessor.setValue(target, object))
+			{
+				path.setValue(target, object);
+			}
+		}
+	}
+
+	/**
+	 * Gets the accessor of the given compiled property expression for the given target class. The
+	 * accessor is resolved again only if the target class or the expression changes.
+	 *
+	 * @param path
+	 *            the compiled property expression
+	 * @param targetClass
+	 *            the class of the target
+	 * @return the accessor or null if the expression has to be evaluated by the path
+	 */
+	private CompiledPropertyAccessor accessor(final PropertyPath path, final Class<?> targetClass)
+	{
+		InlineCache cache = inlineCache;
+		if (cache == null || cache.targetClass != targetClass || cache.path != path)
+		{
+			inlineCache = cache = new InlineCache(path, targetClass,
+				path.getAccessor(targetClass));
 		}
+		return cache.accessor;
 	}
 
 	/**
@@ -167,12 +209,10 @@ public abstract class AbstractPropertyModel<T> extends ChainingModel<T>
 					.getObjectClass();
 				if (targetClass != null)
 				{
-					final PropertyDescriptor propertyDescriptor = new PropertyDescriptor(expression,
-						targetClass);
-					return (Class<T>)propertyDescriptor.getPropertyType();
+					return PropertyResolver.getPropertyClass(expression, targetClass);
 				}
 			}
-			catch (final IntrospectionException e)
+			catch (final Exception e)
 			{
 				// ignore.
 			}
@@ -181,14 +221,6 @@ public abstract class AbstractPropertyModel<T> extends ChainingModel<T>
 		return null;
 	}
 
-	@SuppressWarnings("unchecked")
-	private T getProperty(final String expression, final Object target)
-	{
-		T property;
-		property = (T)PropertyResolver.getValue(expression, target);
-		return property;
-	}
-
 	/**
 	 * Gets the property expression for this model
 	 *
@@ -210,9 +242,9 @@ public abstract class AbstractPropertyModel<T> extends ChainingModel<T>
 			{
 				try
 				{
-					return target.getClass().getDeclaredField(expression);
+					return PropertyResolver.getPropertyField(expression, target);
 				}
-				catch (final Exception ignore)
+				catch (final RuntimeException e)
 				{
 					// ignore.
 				}
@@ -235,13 +267,11 @@ public abstract class AbstractPropertyModel<T> extends ChainingModel<T>
 			{
 				try
 				{
-					final Class<?> targetClass = target.getClass();
-					final PropertyDescriptor propertyDescriptor = new PropertyDescriptor(expression,
-						targetClass);
-					return propertyDescriptor.getReadMethod();
+					return PropertyResolver.getPropertyGetter(expression, target);
 				}
-				catch (final Exception ignore)
+				catch (final RuntimeException e)
 				{
+					// ignore.
 				}
 			}
 		}
@@ -262,14 +292,11 @@ public abstract class AbstractPropertyModel<T> extends ChainingModel<T>
 			{
 				try
 				{
-
-					final Class<?> targetClass = target.getClass();
-					final PropertyDescriptor propertyDescriptor = new PropertyDescriptor(expression,
-						targetClass);
-					return propertyDescriptor.getWriteMethod();
+					return PropertyResolver.getPropertySetter(expression, target);
 				}
-				catch (final Exception ignore)
+				catch (final RuntimeException e)
 				{
+					// ignore.
 				}
 			}
 		}
@@ -280,4 +307,43 @@ public abstract class AbstractPropertyModel<T> extends ChainingModel<T>
 	 * @return The property expression for the component
 	 */
 	protected abstract String propertyExpression();
+
+	/**
+	 * Gets the compiled property expression that is used to get and set the model object. The
+	 * default implementation compiles the {@link #propertyExpression()} and keeps it as long as the
+	 * expression does not change, subclasses that hold a {@link PropertyPath} should override this
+	 * method and return it.
+	 *
+	 * @return The compiled property expression for the component
+	 */
+	protected PropertyPath propertyPath()
+	{
+		final String expression = propertyExpression();
+		PropertyPath path = compiledPath;
+		if (path == null || !Objects.equals(path.getExpression(), expression))
+		{
+			compiledPath = path = PropertyResolver.compile(expression);
+		}
+		return path;
+	}
+
+	/**
+	 * The accessor of a compiled property expression for a target class.
+	 */
+	private static final class InlineCache
+	{
+		final PropertyPath path;
+
+		final Class<?> targetClass;
+
+		final CompiledPropertyAccessor accessor;
+
+		InlineCache(final PropertyPath path, final Class<?> targetClass,
+			final CompiledPropertyAccessor accessor)
+		{
+			this.path = path;
+			this.targetClass = targetClass;
+			this.accessor = accessor;
+		}
+	}
 }
@@ -16,6 +16,7 @@
 package io.github.astrapi69.model;
 
 import io.github.astrapi69.model.api.IModel;
+import io.github.astrapi69.model.jfr.ModelEvents;
 import lombok.NoArgsConstructor;
 
 /**
@@ -110,7 +111,9 @@ public abstract class LoadableDetachableModel<T> implements IModel<T>
 		if (!attached)
 		{
 			attached = true;
+			final Object event = ModelEvents.beginLoad();
 			transientModelObject = load();
+			ModelEvents.commitLoad(event, this, transientModelObject);
 			onAttach();
 		}
 		return transientModelObject;
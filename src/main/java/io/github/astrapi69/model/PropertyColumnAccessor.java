@@ -0,0 +1,301 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+import io.github.astrapi69.model.api.IDetachable;
+import io.github.astrapi69.model.api.IModel;
+import io.github.astrapi69.model.api.IObjectClassAwareModel;
+import io.github.astrapi69.model.property.CompiledPropertyAccessor;
+import io.github.astrapi69.model.property.PropertyPath;
+import io.github.astrapi69.model.property.PropertyResolver;
+
+/**
+ * The class {@link PropertyColumnAccessor} evaluates one property expression on many row objects,
+ * for instance the cells of a column in a table. The expression is compiled and the accessor is
+ * resolved once per column and row class, the models of the cells that are created with
+ * {@link #bind(Object)} only keep the row and a reference to the shared column accessor. The
+ * accessors of up to {@value #MAX_ROW_CLASSES} row classes are kept, so rows of alternating
+ * subclasses do not resolve their accessors again.
+ *
+ * <pre>
+ * PropertyColumnAccessor&lt;String&gt; street;
+ * street = PropertyColumnAccessor.of(&quot;address.street&quot;);
+ * for (Person person : persons)
+ * {
+ * 	add(new Label(&quot;street&quot;, street.bind(person)));
+ * }
+ * </pre>
+ *
+ * @param <T>
+ *            the type of the column values
+ */
+public final class PropertyColumnAccessor<T> implements Serializable
+{
+
+	/** The Constant serialVersionUID. */
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/** The compiled property expression of the column. */
+	private final PropertyPath path;
+
+	/** The maximum number of row classes whose accessors are kept. */
+	private static final int MAX_ROW_CLASSES = 8;
+
+	/**
+	 * The accessors of the last row classes, the last one first, rebuilt on demand after
+	 * deserialization.
+	 */
+	private transient volatile InlineCache[] inlineCaches;
+
+	/**
+	 * Instantiates a new {@link PropertyColumnAccessor}
+	 *
+	 * @param path
+	 *            the compiled property expression of the column
+	 */
+	private PropertyColumnAccessor(final PropertyPath path)
+	{
+		this.path = path;
+	}
+
+	/**
+	 * Factory method for a column of the given property expression
+	 *
+	 * @param <T>
+	 *            the type of the column values
+	 * @param expression
+	 *            the property expression
+	 * @return the new {@link PropertyColumnAccessor}
+	 */
+	public static <T> PropertyColumnAccessor<T> of(final String expression)
+	{
+		return new PropertyColumnAccessor<>(PropertyResolver.compile(expression));
+	}
+
+	/**
+	 * Factory method for a column of the given compiled property expression
+	 *
+	 * @param <T>
+	 *            the type of the column values
+	 * @param path
+	 *            the compiled property expression
+	 * @return the new {@link PropertyColumnAccessor}
+	 */
+	public static <T> PropertyColumnAccessor<T> ofPath(final PropertyPath path)
+	{
+		return new PropertyColumnAccessor<>(path);
+	}
+
+	/**
+	 * Gets the property expression of this column
+	 *
+	 * @return the property expression
+	 */
+	public String getExpression()
+	{
+		return path.getExpression();
+	}
+
+	/**
+	 * Gets the value of this column from the given row
+	 *
+	 * @param row
+	 *            the row object
+	 * @return the value or null if the row or an intermediate property is null
+	 */
+	@SuppressWarnings("unchecked")
+	public T getValue(final Object row)
+	{
+		if (row == null || path.isEmpty())
+		{
+			return (T)row;
+		}
+		final CompiledPropertyAccessor accessor = accessor(row.getClass());
+		return (T)(accessor != null ? accessor.getValue(row) : path.getValue(row));
+	}
+
+	/**
+	 * Sets the value of this column on the given row
+	 *
+	 * @param row
+	 *            the row object
+	 * @param value
+	 *            the value to set
+	 */
+	public void setValue(final Object row, final T value)
+	{
+		final CompiledPropertyAccessor accessor = row != null && !path.isEmpty()
+			? accessor(row.getClass())
+			: null;
+		if (accessor == null || !accessor.setValue(row, value))
+		{
+			path.setValue(row, value);
+		}
+	}
+
+	/**
+	 * Gets the class of the values of this column for rows of the given class
+	 *
+	 * @param rowClass
+	 *            the class of the rows
+	 * @return the class of the values
+	 */
+	public Class<T> getObjectClass(final Class<?> rowClass)
+	{
+		return PropertyResolver.getPropertyClass(path.getExpression(), rowClass);
+	}
+
+	/**
+	 * Creates a model of the cell of this column in the given row. The row can be a model, for
+	 * instance a {@link LoadableDetachableModel}, that is detached with the cell.
+	 *
+	 * @param row
+	 *            the row object or the model of the row object
+	 * @return the model of the cell
+	 */
+	public IModel<T> bind(final Object row)
+	{
+		return new CellModel<>(this, row);
+	}
+
+	/**
+	 * Gets the accessor of the given row class, resolved only if it is not one of the last
+	 * {@value #MAX_ROW_CLASSES} row classes.
+	 *
+	 * @param rowClass
+	 *            the class of the row
+	 * @return the accessor or null if the expression has to be evaluated by the path
+	 */
+	private CompiledPropertyAccessor accessor(final Class<?> rowClass)
+	{
+		final InlineCache[] caches = inlineCaches;
+		if (caches != null)
+		{
+			for (final InlineCache cache : caches)
+			{
+				if (cache.rowClass == rowClass)
+				{
+					return cache.accessor;
+				}
+			}
+		}
+		final InlineCache cache = new InlineCache(rowClass, path.getAccessor(rowClass));
+		// a concurrent update may be lost, the accessor is then resolved once more
+		final int length = caches != null ? Math.min(caches.length + 1, MAX_ROW_CLASSES) : 1;
+		final InlineCache[] updated = new InlineCache[length];
+		updated[0] = cache;
+		if (caches != null)
+		{
+			System.arraycopy(caches, 0, updated, 1, length - 1);
+		}
+		inlineCaches = updated;
+		return cache.accessor;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString()
+	{
+		return "PropertyColumnAccessor:expression=[" + path.getExpression() + "]";
+	}
+
+	/**
+	 * The accessor of the compiled property expression for a row class.
+	 */
+	private static final class InlineCache
+	{
+		final Class<?> rowClass;
+
+		final CompiledPropertyAccessor accessor;
+
+		InlineCache(final Class<?> rowClass, final CompiledPropertyAccessor accessor)
+		{
+			this.rowClass = rowClass;
+			this.accessor = accessor;
+		}
+	}
+
+	/**
+	 * The model of one cell that keeps only the row and the shared column accessor.
+	 *
+	 * @param <T>
+	 *            the type of the cell value
+	 */
+	private static final class CellModel<T> implements IModel<T>, IObjectClassAwareModel<T>
+	{
+
+		/** The Constant serialVersionUID. */
+		@Serial
+		private static final long serialVersionUID = 1L;
+
+		/** The shared column accessor. */
+		private final PropertyColumnAccessor<T> column;
+
+		/** The row object or the model of the row object. */
+		private final Object row;
+
+		CellModel(final PropertyColumnAccessor<T> column, final Object row)
+		{
+			this.column = column;
+			this.row = row;
+		}
+
+		private Object target()
+		{
+			return row instanceof IModel ? ((IModel<?>)row).getObject() : row;
+		}
+
+		@Override
+		public T getObject()
+		{
+			return column.getValue(target());
+		}
+
+		@Override
+		public void setObject(final T object)
+		{
+			column.setValue(target(), object);
+		}
+
+		@Override
+		public Class<T> getObjectClass()
+		{
+			final Object target = target();
+			return target != null ? column.getObjectClass(target.getClass()) : null;
+		}
+
+		@Override
+		public void detach()
+		{
+			if (row instanceof IDetachable)
+			{
+				((IDetachable)row).detach();
+			}
+		}
+
+		@Override
+		public String toString()
+		{
+			return "CellModel:" + column + ":row=[" + row + "]";
+		}
+	}
+}
@@ -15,6 +15,9 @@
  */
 package io.github.astrapi69.model;
 
+import io.github.astrapi69.model.property.PropertyPath;
+import io.github.astrapi69.model.property.PropertyResolver;
+
 /**
  * A PropertyModel is used to dynamically access a model using a "property expression". <div> For
  * example, take the following bean:
@@ -75,6 +78,9 @@ public class PropertyModel<T> extends AbstractPropertyModel<T>
 	/** Property expression for property access. */
 	private final String expression;
 
+	/** The compiled property expression, compiled again on demand after deserialization. */
+	private transient PropertyPath path;
+
 	/**
 	 * Construct with a wrapped (IModel) or unwrapped (non-IModel) object and a property expression
 	 * that works on the given model.
@@ -90,6 +96,22 @@ public class PropertyModel<T> extends AbstractPropertyModel<T>
 		this.expression = expression;
 	}
 
+	/**
+	 * Construct with a wrapped (IModel) or unwrapped (non-IModel) object and a compiled property
+	 * expression that works on the given model.
+	 *
+	 * @param modelObject
+	 *            The model object, which may or may not implement IModel
+	 * @param path
+	 *            Compiled property expression for property access
+	 */
+	private PropertyModel(final Object modelObject, final PropertyPath path)
+	{
+		super(modelObject);
+		this.expression = path.getExpression();
+		this.path = path;
+	}
+
 	/**
 	 * Type-infering factory method.
 	 *
@@ -106,6 +128,23 @@ public class PropertyModel<T> extends AbstractPropertyModel<T>
 		return new PropertyModel<>(parent, property);
 	}
 
+	/**
+	 * Type-infering factory method for a compiled property expression. The compiled property
+	 * expression can be shared between several models.
+	 *
+	 * @param <Z>
+	 *            the generic type
+	 * @param parent
+	 *            object that contains the property
+	 * @param path
+	 *            compiled property path
+	 * @return {@link PropertyModel} instance
+	 */
+	public static <Z> PropertyModel<Z> ofPath(final Object parent, final PropertyPath path)
+	{
+		return new PropertyModel<>(parent, path);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -115,6 +154,19 @@ public class PropertyModel<T> extends AbstractPropertyModel<T>
 		return expression;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected PropertyPath propertyPath()
+	{
+		if (path == null)
+		{
+			path = PropertyResolver.compile(expression);
+		}
+		return path;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
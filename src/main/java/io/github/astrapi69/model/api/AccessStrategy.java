@@ -0,0 +1,39 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.api;
+
+/**
+ * The enum {@link AccessStrategy} describes how a {@link GetAndSet} accesses the property of an
+ * object.
+ */
+public enum AccessStrategy
+{
+
+	/**
+	 * The property is accessed through core reflection with {@link java.lang.reflect.Method} or
+	 * {@link java.lang.reflect.Field}.
+	 */
+	REFLECTION,
+
+	/** The property is accessed through {@link java.lang.invoke.MethodHandle}s. */
+	METHOD_HANDLE,
+
+	/** The property is accessed through a {@link java.lang.invoke.VarHandle} of its field. */
+	VAR_HANDLE,
+
+	/** The property is accessed with direct calls, for instance on a map, a list or an array. */
+	DIRECT
+}
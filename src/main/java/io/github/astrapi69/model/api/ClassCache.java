@@ -15,7 +15,9 @@
  */
 package io.github.astrapi69.model.api;
 
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The interface {@link ClassCache} provides methods for a class cache. This inteface was previously
@@ -42,4 +44,48 @@ public interface ClassCache
 	 *            the values
 	 */
 	void put(Class<?> clz, Map<String, GetAndSet> values);
+
+	/**
+	 * Returns the class map from the cache and creates an empty one if the class is not cached yet.
+	 *
+	 * @param clz
+	 *            the class
+	 * @return the map of the given class
+	 */
+	default Map<String, GetAndSet> getOrCreate(Class<?> clz)
+	{
+		Map<String, GetAndSet> values = get(clz);
+		if (values == null)
+		{
+			values = new ConcurrentHashMap<>(8);
+			put(clz, values);
+		}
+		return values;
+	}
+
+	/**
+	 * Returns the number of cached entries of every class with entries by class name, for instance
+	 * to monitor the footprint of the cache. Classes that were unloaded are not included.
+	 *
+	 * @return the number of entries by class name, empty if the cache does not count its entries
+	 */
+	default Map<String, Integer> getSizes()
+	{
+		return Collections.emptyMap();
+	}
+
+	/**
+	 * Returns the number of cached entries of all classes.
+	 *
+	 * @return the number of entries
+	 */
+	default int size()
+	{
+		int size = 0;
+		for (final int classSize : getSizes().values())
+		{
+			size += classSize;
+		}
+		return size;
+	}
 }
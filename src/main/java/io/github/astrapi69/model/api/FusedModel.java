@@ -0,0 +1,211 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.api;
+
+import java.io.Serial;
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.danekja.java.util.function.serializable.SerializableFunction;
+import org.danekja.java.util.function.serializable.SerializablePredicate;
+import org.danekja.java.util.function.serializable.SerializableSupplier;
+
+/**
+ * The class {@link FusedModel} is the result of the stateless combinators of {@link IModel}. A
+ * chain like {@code model.map(a).filter(b).map(c).orElse(d)} is fused into one model that holds
+ * the source model and the stages of the chain, so the object is computed in one loop and the
+ * chain is detached with one call instead of one nested model per stage.
+ *
+ * @param <T>
+ *            the type of the computed object
+ */
+final class FusedModel<T> implements IModel<T>
+{
+
+	/** The Constant serialVersionUID. */
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/** Stage that applies a {@link SerializableFunction} to a non-null object. */
+	static final byte MAP = 0;
+
+	/** Stage that tests a non-null object with a {@link SerializablePredicate}. */
+	static final byte FILTER = 1;
+
+	/** Stage that replaces a null object with a default value. */
+	static final byte OR_ELSE = 2;
+
+	/** Stage that replaces a null object with the value of a {@link SerializableSupplier}. */
+	static final byte OR_ELSE_GET = 3;
+
+	/** Stage that replaces the object with whether it is non-null. */
+	static final byte IS_PRESENT = 4;
+
+	/** The model that provides the input of the first stage. */
+	private final IModel<?> source;
+
+	/** The kind of every stage. */
+	private final byte[] kinds;
+
+	/** The function, predicate, default value or supplier of every stage. */
+	private final Object[] operations;
+
+	/**
+	 * Instantiates a new {@link FusedModel} with one stage
+	 *
+	 * @param source
+	 *            the model that provides the input of the stage
+	 * @param kind
+	 *            the kind of the stage
+	 * @param operation
+	 *            the operation of the stage
+	 */
+	FusedModel(final IModel<?> source, final byte kind, final Object operation)
+	{
+		this(source, new byte[] { kind }, new Object[] { operation });
+	}
+
+	private FusedModel(final IModel<?> source, final byte[] kinds, final Object[] operations)
+	{
+		this.source = source;
+		this.kinds = kinds;
+		this.operations = operations;
+	}
+
+	/**
+	 * Creates a new {@link FusedModel} with the stages of this model and the given stage
+	 *
+	 * @param <R>
+	 *            the type of the computed object
+	 * @param kind
+	 *            the kind of the stage
+	 * @param operation
+	 *            the operation of the stage
+	 * @return the new {@link FusedModel}
+	 */
+	private <R> FusedModel<R> then(final byte kind, final Object operation)
+	{
+		final int length = kinds.length;
+		final byte[] nextKinds = Arrays.copyOf(kinds, length + 1);
+		final Object[] nextOperations = Arrays.copyOf(operations, length + 1);
+		nextKinds[length] = kind;
+		nextOperations[length] = operation;
+		return new FusedModel<>(source, nextKinds, nextOperations);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public T getObject()
+	{
+		Object object = source.getObject();
+		for (int i = 0; i < kinds.length; i++)
+		{
+			switch (kinds[i])
+			{
+				case MAP :
+					if (object != null)
+					{
+						object = ((SerializableFunction<Object, Object>)operations[i])
+							.apply(object);
+					}
+					break;
+				case FILTER :
+					if (object != null
+						&& !((SerializablePredicate<Object>)operations[i]).test(object))
+					{
+						object = null;
+					}
+					break;
+				case OR_ELSE :
+					if (object == null)
+					{
+						object = operations[i];
+					}
+					break;
+				case OR_ELSE_GET :
+					if (object == null)
+					{
+						object = ((SerializableSupplier<?>)operations[i]).get();
+					}
+					break;
+				case IS_PRESENT :
+					object = object != null;
+					break;
+			}
+		}
+		return (T)object;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void detach()
+	{
+		source.detach();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IModel<T> filter(final SerializablePredicate<? super T> predicate)
+	{
+		Objects.nonNull(predicate);
+		return then(FILTER, predicate);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public <R> IModel<R> map(final SerializableFunction<? super T, R> mapper)
+	{
+		Objects.nonNull(mapper);
+		return then(MAP, mapper);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IModel<T> orElse(final T other)
+	{
+		return then(OR_ELSE, other);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IModel<T> orElseGet(final SerializableSupplier<? extends T> other)
+	{
+		Objects.nonNull(other);
+		return then(OR_ELSE_GET, other);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IModel<Boolean> isPresent()
+	{
+		return then(IS_PRESENT, null);
+	}
+}
@@ -40,6 +40,16 @@ public interface GetAndSet
 	 */
 	public Method getSetter();
 
+	/**
+	 * Gets the strategy this {@link GetAndSet} uses to access the property.
+	 *
+	 * @return the access strategy
+	 */
+	default AccessStrategy getAccessStrategy()
+	{
+		return AccessStrategy.REFLECTION;
+	}
+
 	/**
 	 * @return The target class of the object that as to be set.
 	 */
@@ -0,0 +1,43 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.api;
+
+/**
+ * The interface {@link GetAndSetProvider} provides the {@link GetAndSet} objects of the properties
+ * of a class that is annotated with {@link ModelBean}. Implementations are generated by the
+ * annotation processor of the module model-data-processor and registered for the
+ * {@link java.util.ServiceLoader}. The property resolver asks the provider of an annotated class
+ * before it falls back to reflection.
+ */
+public interface GetAndSetProvider
+{
+
+	/**
+	 * Gets the class whose properties are provided
+	 *
+	 * @return the class
+	 */
+	Class<?> getType();
+
+	/**
+	 * Gets the {@link GetAndSet} of the given property
+	 *
+	 * @param property
+	 *            the name of the property
+	 * @return the {@link GetAndSet} or null if the property is not provided
+	 */
+	GetAndSet getGetAndSet(String property);
+}
@@ -24,6 +24,7 @@ import org.danekja.java.util.function.serializable.SerializablePredicate;
 import org.danekja.java.util.function.serializable.SerializableSupplier;
 
 import io.github.astrapi69.model.LambdaModel;
+import io.github.astrapi69.model.LoadableDetachableModel;
 
 /**
  * A {@link IModel} decorates the actual model object that can be used by any other UI-Component.
@@ -85,28 +86,7 @@ public interface IModel<T> extends Attachable, IDetachable
 	default IModel<T> filter(SerializablePredicate<? super T> predicate)
 	{
 		Objects.nonNull(predicate);
-		return new IModel<T>()
-		{
-			@Override
-			public T getObject()
-			{
-				T object = IModel.this.getObject();
-				if (object != null && predicate.test(object))
-				{
-					return object;
-				}
-				else
-				{
-					return null;
-				}
-			}
-
-			@Override
-			public void detach()
-			{
-				IModel.this.detach();
-			}
-		};
+		return new FusedModel<>(this, FusedModel.FILTER, predicate);
 	}
 
 	/**
@@ -122,28 +102,7 @@ public interface IModel<T> extends Attachable, IDetachable
 	default <R> IModel<R> map(SerializableFunction<? super T, R> mapper)
 	{
 		Objects.nonNull(mapper);
-		return new IModel<R>()
-		{
-			@Override
-			public R getObject()
-			{
-				T object = IModel.this.getObject();
-				if (object == null)
-				{
-					return null;
-				}
-				else
-				{
-					return mapper.apply(object);
-				}
-			}
-
-			@Override
-			public void detach()
-			{
-				IModel.this.detach();
-			}
-		};
+		return new FusedModel<>(this, FusedModel.MAP, mapper);
 	}
 
 	/**
@@ -284,28 +243,7 @@ public interface IModel<T> extends Attachable, IDetachable
 	 */
 	default IModel<T> orElse(T other)
 	{
-		return new IModel<T>()
-		{
-			@Override
-			public T getObject()
-			{
-				T object = IModel.this.getObject();
-				if (object == null)
-				{
-					return other;
-				}
-				else
-				{
-					return object;
-				}
-			}
-
-			@Override
-			public void detach()
-			{
-				IModel.this.detach();
-			}
-		};
+		return new FusedModel<>(this, FusedModel.OR_ELSE, other);
 	}
 
 	/**
@@ -319,28 +257,7 @@ public interface IModel<T> extends Attachable, IDetachable
 	default IModel<T> orElseGet(SerializableSupplier<? extends T> other)
 	{
 		Objects.nonNull(other);
-		return new IModel<T>()
-		{
-			@Override
-			public T getObject()
-			{
-				T object = IModel.this.getObject();
-				if (object == null)
-				{
-					return other.get();
-				}
-				else
-				{
-					return object;
-				}
-			}
-
-			@Override
-			public void detach()
-			{
-				IModel.this.detach();
-			}
-		};
+		return new FusedModel<>(this, FusedModel.OR_ELSE_GET, other);
 	}
 
 	/**
@@ -350,17 +267,40 @@ public interface IModel<T> extends Attachable, IDetachable
 	 */
 	default IModel<Boolean> isPresent()
 	{
-		return new IModel<Boolean>()
+		return new FusedModel<>(this, FusedModel.IS_PRESENT, null);
+	}
+
+	/**
+	 * Returns a IModel that evaluates this model only once and keeps the contained object until it
+	 * is detached. Detaching the returned IModel detaches this model too, so a chain of derived
+	 * models like {@code model.map(a).filter(b).memoize()} is evaluated once per attach cycle no
+	 * matter how often the object is requested.
+	 *
+	 * @return a new IModel
+	 */
+	default IModel<T> memoize()
+	{
+		return new LoadableDetachableModel<T>()
 		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected T load()
+			{
+				return IModel.this.getObject();
+			}
+
 			@Override
-			public Boolean getObject()
+			public void setObject(T object)
 			{
-				return IModel.this.getObject() != null;
+				IModel.this.setObject(object);
+				super.detach();
 			}
 
 			@Override
 			public void detach()
 			{
+				super.detach();
 				IModel.this.detach();
 			}
 		};
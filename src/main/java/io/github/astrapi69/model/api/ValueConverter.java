@@ -0,0 +1,40 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.api;
+
+/**
+ * The interface {@link ValueConverter} converts a value that is written to a property into the
+ * type of the property, for instance a String from a form into a LocalDate. Converters are
+ * registered in the class {@code io.github.astrapi69.model.property.ValueConverters}.
+ *
+ * @param <S>
+ *            the type of the values to convert
+ * @param <T>
+ *            the type of the property
+ */
+@FunctionalInterface
+public interface ValueConverter<S, T>
+{
+
+	/**
+	 * Converts the given value
+	 *
+	 * @param value
+	 *            the value, never null
+	 * @return the converted value
+	 */
+	T convert(S value);
+}
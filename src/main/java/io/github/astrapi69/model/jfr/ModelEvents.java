@@ -0,0 +1,195 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.jfr;
+
+import jdk.jfr.EventType;
+
+/**
+ * The class {@link ModelEvents} emits the flight recorder events of the models and the property
+ * resolver. The events are disabled by default and are enabled in the settings of a recording, for
+ * instance <code>io.github.astrapi69.model.PropertyModelEvaluation#enabled=true</code>, where the
+ * <code>threshold</code> setting configures the minimum duration of a recorded event. <br>
+ * The callers hold the events as {@link Object}, so nothing is allocated and the module jdk.jfr is
+ * not needed if no recording of the events is running.
+ */
+public final class ModelEvents
+{
+
+	/** The category of the events. */
+	static final String CATEGORY = "model-data";
+
+	/** The prefix of the event names. */
+	static final String PREFIX = "io.github.astrapi69.model.";
+
+	/** Flag that indicates if the flight recorder is available. */
+	private static final boolean AVAILABLE = isAvailable();
+
+	private ModelEvents()
+	{
+	}
+
+	private static boolean isAvailable()
+	{
+		try
+		{
+			Class.forName("jdk.jfr.Event", false, ModelEvents.class.getClassLoader());
+			return true;
+		}
+		catch (final ClassNotFoundException | LinkageError e)
+		{
+			return false;
+		}
+	}
+
+	/**
+	 * Begins the event of an introspected expression segment.
+	 *
+	 * @return the event or null if the event is not recorded
+	 */
+	public static Object beginResolution()
+	{
+		if (AVAILABLE && Types.RESOLUTION.isEnabled())
+		{
+			final PropertyResolutionEvent event = new PropertyResolutionEvent();
+			event.begin();
+			return event;
+		}
+		return null;
+	}
+
+	/**
+	 * Commits the event of an introspected expression segment.
+	 *
+	 * @param event
+	 *            the event from {@link #beginResolution()} or null
+	 * @param type
+	 *            the class
+	 * @param expression
+	 *            the expression segment
+	 */
+	public static void commitResolution(final Object event, final Class<?> type,
+		final String expression)
+	{
+		if (event != null)
+		{
+			final PropertyResolutionEvent resolution = (PropertyResolutionEvent)event;
+			resolution.end();
+			if (resolution.shouldCommit())
+			{
+				resolution.type = type;
+				resolution.expression = expression;
+				resolution.commit();
+			}
+		}
+	}
+
+	/**
+	 * Begins the event of a loading model.
+	 *
+	 * @return the event or null if the event is not recorded
+	 */
+	public static Object beginLoad()
+	{
+		if (AVAILABLE && Types.LOAD.isEnabled())
+		{
+			final ModelLoadEvent event = new ModelLoadEvent();
+			event.begin();
+			return event;
+		}
+		return null;
+	}
+
+	/**
+	 * Commits the event of a loading model.
+	 *
+	 * @param event
+	 *            the event from {@link #beginLoad()} or null
+	 * @param model
+	 *            the model
+	 * @param object
+	 *            the loaded object or null
+	 */
+	public static void commitLoad(final Object event, final Object model, final Object object)
+	{
+		if (event != null)
+		{
+			final ModelLoadEvent load = (ModelLoadEvent)event;
+			load.end();
+			if (load.shouldCommit())
+			{
+				load.modelClass = model.getClass();
+				load.type = object != null ? object.getClass() : null;
+				load.commit();
+			}
+		}
+	}
+
+	/**
+	 * Begins the event of a property model that gets its object.
+	 *
+	 * @return the event or null if the event is not recorded
+	 */
+	public static Object beginEvaluation()
+	{
+		if (AVAILABLE && Types.EVALUATION.isEnabled())
+		{
+			final PropertyModelEvaluationEvent event = new PropertyModelEvaluationEvent();
+			event.begin();
+			return event;
+		}
+		return null;
+	}
+
+	/**
+	 * Commits the event of a property model that gets its object, if it took longer than the
+	 * threshold of the event.
+	 *
+	 * @param event
+	 *            the event from {@link #beginEvaluation()} or null
+	 * @param target
+	 *            the target object the expression is evaluated on
+	 * @param expression
+	 *            the expression
+	 */
+	public static void commitEvaluation(final Object event, final Object target,
+		final String expression)
+	{
+		if (event != null)
+		{
+			final PropertyModelEvaluationEvent evaluation = (PropertyModelEvaluationEvent)event;
+			evaluation.end();
+			if (evaluation.shouldCommit())
+			{
+				evaluation.type = target != null ? target.getClass() : null;
+				evaluation.expression = expression;
+				evaluation.commit();
+			}
+		}
+	}
+
+	/**
+	 * The types of the events, only loaded if the flight recorder is available.
+	 */
+	private static final class Types
+	{
+		static final EventType RESOLUTION = EventType.getEventType(PropertyResolutionEvent.class);
+
+		static final EventType LOAD = EventType.getEventType(ModelLoadEvent.class);
+
+		static final EventType EVALUATION = EventType
+			.getEventType(PropertyModelEvaluationEvent.class);
+	}
+}
@@ -0,0 +1,44 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * The flight recorder event of a property model that gets its object, only recorded above the
+ * threshold of the event, 1 ms by default.
+ */
+@Name(ModelEvents.PREFIX + "PropertyModelEvaluation")
+@Label("Property Model Evaluation")
+@Description("A property model evaluates its expression on the target")
+@Category(ModelEvents.CATEGORY)
+@Enabled(false)
+@StackTrace(false)
+@Threshold("1 ms")
+final class PropertyModelEvaluationEvent extends jdk.jfr.Event
+{
+	@Label("Class")
+	Class<?> type;
+
+	@Label("Expression")
+	String expression;
+}
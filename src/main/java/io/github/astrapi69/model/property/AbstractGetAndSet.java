@@ -15,10 +15,17 @@
  */
 package io.github.astrapi69.model.property;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 
 import io.github.astrapi69.model.api.GetAndSet;
+import io.github.astrapi69.model.api.ValueConverter;
+import io.github.astrapi69.model.reflect.ClassLocal;
 
 public abstract class AbstractGetAndSet implements GetAndSet
 {
@@ -26,6 +33,139 @@ public abstract class AbstractGetAndSet implements GetAndSet
 	protected static final String IS = "is";
 	protected static final String SET = "set";
 
+	/** The type of the adapted constructor handles. */
+	private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+	/** The handle that is used for classes without a public default constructor. */
+	private static final MethodHandle INSTANTIATION_FAILED;
+
+	/** The cached default constructor handles of the classes that are created in newValue. */
+	private static final ClassLocal<MethodHandle> CONSTRUCTORS = new ClassLocal<>()
+	{
+		@Override
+		protected MethodHandle computeValue(final Class<?> type)
+		{
+			try
+			{
+				final Constructor<?> constructor = type.getDeclaredConstructor();
+				if (!Modifier.isAbstract(type.getModifiers())
+					&& Modifier.isPublic(constructor.getModifiers())
+					&& constructor.trySetAccessible())
+				{
+					return MethodHandles.lookup().unreflectConstructor(constructor)
+						.asType(CONSTRUCTOR_TYPE);
+				}
+			}
+			catch (final NoSuchMethodException | IllegalAccessException e)
+			{
+				// no usable default constructor, creating an instance will fail
+			}
+			return MethodHandles.insertArguments(INSTANTIATION_FAILED, 0, type);
+		}
+	};
+
+	static
+	{
+		try
+		{
+			INSTANTIATION_FAILED = MethodHandles.lookup().findStatic(AbstractGetAndSet.class,
+				"instantiationFailed", MethodType.methodType(Object.class, Class.class));
+		}
+		catch (final NoSuchMethodException | IllegalAccessException e)
+		{
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	/** The maximum number of value classes with a conversion, see {@link #convert}. */
+	private static final int MAX_CONVERSIONS = 4;
+
+	private static final Conversion[] NO_CONVERSIONS = new Conversion[0];
+
+	/**
+	 * The conversions of the classes of the last written values, the most recent first. The array
+	 * is only replaced as a whole.
+	 */
+	private volatile Conversion[] conversions = NO_CONVERSIONS;
+
+	/**
+	 * Converts the given value into the given type of the property with the converter of the
+	 * {@link ValueConverters}. The converter is chosen once for the class of the value and cached
+	 * for a few value classes, so writing values of these classes again does not dispatch on the
+	 * types.
+	 *
+	 * @param value
+	 *            the value to write
+	 * @param targetClass
+	 *            the type of the property or null if it is not known
+	 * @return the converted value
+	 * @throws RuntimeException
+	 *             is thrown if the value cannot be converted
+	 */
+	protected final Object convert(final Object value, final Class<?> targetClass)
+	{
+		if (value == null || targetClass == null)
+		{
+			return value;
+		}
+		final Conversion current = conversion(value.getClass(), targetClass);
+		if (current.converter == null)
+		{
+			return value;
+		}
+		try
+		{
+			return current.converter.convert(value);
+		}
+		catch (final RuntimeException e)
+		{
+			throw new RuntimeException(
+				"Cannot convert value: " + value + " to " + targetClass.getName(), e);
+		}
+	}
+
+	private Conversion conversion(final Class<?> valueClass, final Class<?> targetClass)
+	{
+		final int version = ValueConverters.version();
+		final Conversion[] current = conversions;
+		for (final Conversion conversion : current)
+		{
+			if (conversion.valueClass == valueClass && conversion.version == version)
+			{
+				return conversion;
+			}
+		}
+		final Conversion conversion = new Conversion(valueClass,
+			ValueConverters.plan(valueClass, targetClass), version);
+		final int kept = Math.min(current.length, MAX_CONVERSIONS - 1);
+		final Conversion[] updated = new Conversion[kept + 1];
+		updated[0] = conversion;
+		System.arraycopy(current, 0, updated, 1, kept);
+		conversions = updated;
+		return conversion;
+	}
+
+	/**
+	 * Creates a new instance of the given class with its public default constructor. The
+	 * constructor handle is looked up only once for every class.
+	 *
+	 * @param clz
+	 *            the class to instantiate
+	 * @return the new instance
+	 * @throws Throwable
+	 *             is thrown if the class has no public default constructor or the constructor
+	 *             fails
+	 */
+	protected static Object newInstance(final Class<?> clz) throws Throwable
+	{
+		return (Object)CONSTRUCTORS.get(clz).invokeExact();
+	}
+
+	private static Object instantiationFailed(final Class<?> clz) throws InstantiationException
+	{
+		throw new InstantiationException(clz.getName());
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -61,4 +201,24 @@ public abstract class AbstractGetAndSet implements GetAndSet
 	{
 		return null;
 	}
+
+	/**
+	 * The converter for the values of a class.
+	 */
+	private static final class Conversion
+	{
+		final Class<?> valueClass;
+
+		final ValueConverter<Object, Object> converter;
+
+		final int version;
+
+		Conversion(final Class<?> valueClass, final ValueConverter<Object, Object> converter,
+			final int version)
+		{
+			this.valueClass = valueClass;
+			this.converter = converter;
+			this.version = version;
+		}
+	}
 }
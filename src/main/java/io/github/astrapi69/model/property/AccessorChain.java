@@ -0,0 +1,78 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import io.github.astrapi69.model.api.GetAndSet;
+
+/**
+ * The class {@link AccessorChain} evaluates a property expression with the {@link GetAndSet} of
+ * every segment resolved once for a root class, so an evaluation does not look up any segment.
+ */
+final class AccessorChain implements CompiledPropertyAccessor
+{
+
+	/** The {@link GetAndSet} of every segment. */
+	private final GetAndSet[] chain;
+
+	/**
+	 * Instantiates a new {@link AccessorChain}.
+	 *
+	 * @param chain
+	 *            the {@link GetAndSet} of every segment
+	 */
+	AccessorChain(final GetAndSet[] chain)
+	{
+		this.chain = chain;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object getValue(final Object object)
+	{
+		Object value = object;
+		for (int i = 0; i < chain.length && value != null; i++)
+		{
+			value = chain[i].getValue(value);
+		}
+		return value;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * An intermediate value that is null is created with {@link GetAndSet#newValue(Object)} of its
+	 * segment, so the getters are not called again by the {@link PropertyResolver}.
+	 */
+	@Override
+	public boolean setValue(final Object object, final Object value)
+	{
+		Object receiver = object;
+		final int last = chain.length - 1;
+		for (int i = 0; i < last; i++)
+		{
+			final Object next = chain[i].getValue(receiver);
+			receiver = next != null ? next : chain[i].newValue(receiver);
+			if (receiver == null)
+			{
+				return false;
+			}
+		}
+		chain[last].setValue(receiver, value);
+		return true;
+	}
+}
@@ -0,0 +1,732 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.github.astrapi69.model.api.GetAndSet;
+
+/**
+ * The class {@link AccessorClassWriter} writes the class file of a {@link CompiledPropertyAccessor}
+ * for a chain of resolved getters and setters. The class file is written with the version of Java
+ * 17 and a stack map frame at every jump target, so it is verified by type checking. <br>
+ * The generated class is meant to be defined as a hidden class in the package of the root class,
+ * so it can only call members that are accessible from the root class.
+ */
+final class AccessorClassWriter
+{
+
+	/** The class file version of Java 17. */
+	private static final int CLASS_FILE_VERSION = 61;
+
+	private static final int ACC_PUBLIC = 0x0001;
+	private static final int ACC_FINAL = 0x0010;
+	private static final int ACC_SUPER = 0x0020;
+
+	private static final int ICONST_0 = 0x03;
+	private static final int ICONST_1 = 0x04;
+	private static final int ALOAD = 0x19;
+	private static final int ALOAD_0 = 0x2a;
+	private static final int ALOAD_1 = 0x2b;
+	private static final int ALOAD_2 = 0x2c;
+	private static final int ALOAD_3 = 0x2d;
+	private static final int ASTORE = 0x3a;
+	private static final int ASTORE_3 = 0x4e;
+	private static final int POP = 0x57;
+	private static final int POP2 = 0x58;
+	private static final int DUP = 0x59;
+	private static final int IFEQ = 0x99;
+	private static final int GOTO = 0xa7;
+	private static final int IFNULL = 0xc6;
+	private static final int IFNONNULL = 0xc7;
+	private static final int IRETURN = 0xac;
+	private static final int ARETURN = 0xb0;
+	private static final int RETURN = 0xb1;
+	private static final int INVOKEVIRTUAL = 0xb6;
+	private static final int INVOKESPECIAL = 0xb7;
+	private static final int INVOKESTATIC = 0xb8;
+	private static final int INVOKEINTERFACE = 0xb9;
+	private static final int NEW = 0xbb;
+	private static final int CHECKCAST = 0xc0;
+	private static final int INSTANCEOF = 0xc1;
+
+	private static final int CONSTANT_UTF8 = 1;
+	private static final int CONSTANT_CLASS = 7;
+	private static final int CONSTANT_METHODREF = 10;
+	private static final int CONSTANT_INTERFACE_METHODREF = 11;
+	private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+	private static final int ITEM_OBJECT = 7;
+	private static final int FULL_FRAME = 255;
+
+	/** The local variable of the current receiver in setValue. */
+	private static final int CURRENT = 3;
+
+	/** The local variable of the next receiver in setValue. */
+	private static final int NEXT = 4;
+
+
+	private final Class<?> host;
+
+	private final GetAndSet[] chain;
+
+	/** The receiver types, the root class followed by the return types of the getters. */
+	private final Class<?>[] types;
+
+	private final Bytes pool = new Bytes();
+
+	private final Map<String, Integer> constants = new HashMap<>();
+
+	private int constantCount = 1;
+
+	/**
+	 * Instantiates a new {@link AccessorClassWriter}
+	 *
+	 * @param host
+	 *            the root class, the generated class is defined in its package
+	 * @param chain
+	 *            the resolved {@link GetAndSet} objects of the segments, all with a getter
+	 */
+	AccessorClassWriter(final Class<?> host, final GetAndSet[] chain)
+	{
+		this.host = host;
+		this.chain = chain;
+		this.types = new Class<?>[chain.length + 1];
+		types[0] = host;
+		for (int i = 0; i < chain.length; i++)
+		{
+			types[i + 1] = chain[i].getGetter().getReturnType();
+		}
+	}
+
+	/**
+	 * Checks if the generated class can read the whole chain of getters.
+	 *
+	 * @return true, if the getters and their receiver types are accessible from the root class
+	 */
+	boolean isReadable()
+	{
+		for (int i = 0; i < chain.length; i++)
+		{
+			if (!isAccessible(types[i]) || !isAccessible(chain[i].getGetter())
+				|| types[i + 1] == void.class)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Writes the class file of the accessor.
+	 *
+	 * @param className
+	 *            the binary name of the generated class, in the package of the root class
+	 * @return the class file
+	 */
+	byte[] toByteArray(final String className)
+	{
+		final List<byte[]> methods = new ArrayList<>();
+		methods.add(method(ACC_PUBLIC, "<init>", "()V", constructorCode()));
+		methods.add(method(ACC_PUBLIC, "getValue", "(Ljava/lang/Object;)Ljava/lang/Object;",
+			getValueCode()));
+		methods.add(method(ACC_PUBLIC, "setValue", "(Ljava/lang/Object;Ljava/lang/Object;)Z",
+			setValueCode()));
+		return classFile(className, internalName(CompiledPropertyAccessor.class), methods);
+	}
+
+	private byte[] classFile(final String className, final String interfaceName,
+		final List<byte[]> methods)
+	{
+		final int thisClass = classConstant(className.replace('.', '/'));
+		final int superClass = classConstant("java/lang/Object");
+		final int interfaceClass = classConstant(interfaceName);
+
+		final Bytes out = new Bytes();
+		out.u4(0xCAFEBABE);
+		out.u2(0);
+		out.u2(CLASS_FILE_VERSION);
+		out.u2(constantCount);
+		out.bytes(pool.toByteArray());
+		out.u2(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+		out.u2(thisClass);
+		out.u2(superClass);
+		out.u2(1);
+		out.u2(interfaceClass);
+		out.u2(0);
+		out.u2(methods.size());
+		for (final byte[] method : methods)
+		{
+			out.bytes(method);
+		}
+		out.u2(0);
+		return out.toByteArray();
+	}
+
+	private Code constructorCode()
+	{
+		final Code code = new Code(1, 1);
+		code.u1(ALOAD_0);
+		code.u1(INVOKESPECIAL);
+		code.u2(methodConstant(CONSTANT_METHODREF, "java/lang/Object", "<init>", "()V"));
+		code.u1(RETURN);
+		return code;
+	}
+
+	/**
+	 * Writes getValue, which calls the getters one after the other and returns null as soon as a
+	 * getter returns null.
+	 */
+	private Code getValueCode()
+	{
+		final Code code = new Code(4, 2);
+		code.u1(ALOAD_1);
+		checkcast(code, host);
+		for (int i = 0; i < chain.length; i++)
+		{
+			invoke(code, types[i], chain[i].getGetter());
+			if (i + 1 < chain.length)
+			{
+				final Label next = new Label(new Class<?>[] { Object.class, Object.class },
+					types[i + 1]);
+				code.u1(DUP);
+				code.jump(IFNONNULL, next);
+				code.u1(ARETURN);
+				code.mark(next);
+			}
+		}
+		box(code, types[chain.length]);
+		code.u1(ARETURN);
+		return code;
+	}
+
+	/**
+	 * Writes setValue, which creates the intermediate values that are null and calls the setter of
+	 * the last segment if the value has the type of its parameter. In every other case it returns
+	 * false before anything is changed, or once the intermediate values are created.
+	 */
+	private Code setValueCode()
+	{
+		final Code code = new Code(4, 5);
+		final Method setter = chain[chain.length - 1].getSetter();
+		if (!isSettable(setter, types[chain.length - 1]))
+		{
+			code.u1(ICONST_0);
+			code.u1(IRETURN);
+			return code;
+		}
+		final Label fail = new Label(arguments());
+		code.u1(ALOAD_1);
+		checkcast(code, host);
+		code.u1(ASTORE_3);
+		for (int i = 0; i + 1 < chain.length; i++)
+		{
+			final Label next = new Label(arguments(types[i], types[i + 1]));
+			code.u1(ALOAD_3);
+			invoke(code, types[i], chain[i].getGetter());
+			code.u1(ASTORE);
+			code.u1(NEXT);
+			code.u1(ALOAD);
+			code.u1(NEXT);
+			code.jump(IFNONNULL, next);
+			final Class<?> type = types[i + 1];
+			final Method intermediateSetter = chain[i].getSetter();
+			if (isSettable(intermediateSetter, types[i]) && isCreatable(type)
+				&& intermediateSetter.getParameterTypes()[0].isAssignableFrom(type))
+			{
+				code.u1(NEW);
+				code.u2(classConstant(internalName(type)));
+				code.u1(DUP);
+				code.u1(INVOKESPECIAL);
+				code.u2(methodConstant(CONSTANT_METHODREF, internalName(type), "<init>", "()V"));
+				code.u1(ASTORE);
+				code.u1(NEXT);
+				code.u1(ALOAD_3);
+				code.u1(ALOAD);
+				code.u1(NEXT);
+				invoke(code, types[i], intermediateSetter);
+				discard(code, intermediateSetter.getReturnType());
+			}
+			else
+			{
+				code.jump(GOTO, fail);
+			}
+			code.mark(next);
+			code.u1(ALOAD);
+			code.u1(NEXT);
+			code.u1(ASTORE_3);
+		}
+		final Class<?> parameterType = setter.getParameterTypes()[0];
+		if (parameterType.isPrimitive())
+		{
+			final Class<?> boxType = MethodType.methodType(parameterType).wrap().returnType();
+			code.u1(ALOAD_2);
+			code.u1(INSTANCEOF);
+			code.u2(classConstant(internalName(boxType)));
+			code.jump(IFEQ, fail);
+			code.u1(ALOAD_3);
+			code.u1(ALOAD_2);
+			checkcast(code, boxType);
+			code.u1(INVOKEVIRTUAL);
+			code.u2(methodConstant(CONSTANT_METHODREF, internalName(boxType),
+				parameterType.getName() + "Value",
+				MethodType.methodType(parameterType).toMethodDescriptorString()));
+		}
+		else
+		{
+			final Label set = new Label(arguments(types[chain.length - 1]));
+			code.u1(ALOAD_2);
+			code.jump(IFNULL, set);
+			code.u1(ALOAD_2);
+			code.u1(INSTANCEOF);
+			code.u2(classConstant(internalName(parameterType)));
+			code.jump(IFEQ, fail);
+			code.mark(set);
+			code.u1(ALOAD_3);
+			code.u1(ALOAD_2);
+			checkcast(code, parameterType);
+		}
+		invoke(code, types[chain.length - 1], setter);
+		discard(code, setter.getReturnType());
+		code.u1(ICONST_1);
+		code.u1(IRETURN);
+		code.mark(fail);
+		code.u1(ICONST_0);
+		code.u1(IRETURN);
+		return code;
+	}
+
+	/**
+	 * Gets the types of the local variables of setValue, this, object and value followed by the
+	 * given receivers.
+	 */
+	private static Class<?>[] arguments(final Class<?>... receivers)
+	{
+		final Class<?>[] locals = new Class<?>[3 + receivers.length];
+		Arrays.fill(locals, 0, 3, Object.class);
+		System.arraycopy(receivers, 0, locals, 3, receivers.length);
+		return locals;
+	}
+
+	private boolean isSettable(final Method setter, final Class<?> receiverType)
+	{
+		return setter != null && setter.getParameterCount() == 1
+			&& !Modifier.isStatic(setter.getModifiers()) && isAccessible(setter)
+			&& isAccessible(setter.getParameterTypes()[0])
+			&& setter.getDeclaringClass().isAssignableFrom(receiverType);
+	}
+
+	private boolean isCreatable(final Class<?> type)
+	{
+		if (type.isPrimitive() || type.isArray() || type.isInterface()
+			|| Modifier.isAbstract(type.getModifiers()) || !isAccessible(type))
+		{
+			return false;
+		}
+		try
+		{
+			final Constructor<?> constructor = type.getDeclaredConstructor();
+			return Modifier.isPublic(constructor.getModifiers());
+		}
+		catch (final NoSuchMethodException e)
+		{
+			return false;
+		}
+	}
+
+	/**
+	 * Checks if the given member can be called from a class in the package of the root class.
+	 */
+	private boolean isAccessible(final Member member)
+	{
+		final int modifiers = member.getModifiers();
+		if (Modifier.isPublic(modifiers))
+		{
+			return true;
+		}
+		return !Modifier.isPrivate(modifiers) && isSamePackage(member.getDeclaringClass());
+	}
+
+	/**
+	 * Checks if the given type can be resolved and accessed from a class in the package of the root
+	 * class.
+	 */
+	private boolean isAccessible(final Class<?> type)
+	{
+		if (type.isPrimitive())
+		{
+			return true;
+		}
+		if (type.isArray())
+		{
+			return isAccessible(type.getComponentType());
+		}
+		if (type.isHidden())
+		{
+			return false;
+		}
+		try
+		{
+			if (Class.forName(type.getName(), false, host.getClassLoader()) != type)
+			{
+				return false;
+			}
+		}
+		catch (final ClassNotFoundException | LinkageError e)
+		{
+			return false;
+		}
+		if (isSamePackage(type))
+		{
+			return true;
+		}
+		return Modifier.isPublic(type.getModifiers())
+			&& type.getModule().isExported(type.getPackageName(), host.getModule());
+	}
+
+	private boolean isSamePackage(final Class<?> type)
+	{
+		return type.getClassLoader() == host.getClassLoader()
+			&& type.getPackageName().equals(host.getPackageName());
+	}
+
+	private void invoke(final Code code, final Class<?> receiverType, final Method method)
+	{
+		final String descriptor = MethodType
+			.methodType(method.getReturnType(), method.getParameterTypes())
+			.toMethodDescriptorString();
+		if (receiverType.isInterface())
+		{
+			code.u1(INVOKEINTERFACE);
+			code.u2(methodConstant(CONSTANT_INTERFACE_METHODREF, internalName(receiverType),
+				method.getName(), descriptor));
+			code.u1(1 + method.getParameterCount());
+			code.u1(0);
+		}
+		else
+		{
+			code.u1(INVOKEVIRTUAL);
+			code.u2(methodConstant(CONSTANT_METHODREF, internalName(receiverType),
+				method.getName(), descriptor));
+		}
+	}
+
+	private void checkcast(final Code code, final Class<?> type)
+	{
+		code.u1(CHECKCAST);
+		code.u2(classConstant(internalName(type)));
+	}
+
+	private void box(final Code code, final Class<?> type)
+	{
+		if (type.isPrimitive())
+		{
+			final Class<?> boxType = MethodType.methodType(type).wrap().returnType();
+			code.u1(INVOKESTATIC);
+			code.u2(methodConstant(CONSTANT_METHODREF, internalName(boxType), "valueOf",
+				MethodType.methodType(boxType, type).toMethodDescriptorString()));
+		}
+	}
+
+	private static void discard(final Code code, final Class<?> type)
+	{
+		if (type == long.class || type == double.class)
+		{
+			code.u1(POP2);
+		}
+		else if (type != void.class)
+		{
+			code.u1(POP);
+		}
+	}
+
+	private static String internalName(final Class<?> type)
+	{
+		return type.getName().replace('.', '/');
+	}
+
+	private byte[] method(final int access, final String name, final String descriptor,
+		final Code code)
+	{
+		final byte[] bytecode = code.toByteArray();
+		final byte[] frames = code.frames.isEmpty() ? null : stackMapTable(code);
+		final Bytes out = new Bytes();
+		out.u2(access);
+		out.u2(utf8Constant(name));
+		out.u2(utf8Constant(descriptor));
+		out.u2(1);
+		out.u2(utf8Constant("Code"));
+		out.u4(12 + bytecode.length + (frames != null ? 6 + frames.length : 0));
+		out.u2(code.maxStack);
+		out.u2(code.maxLocals);
+		out.u4(bytecode.length);
+		out.bytes(bytecode);
+		out.u2(0);
+		if (frames != null)
+		{
+			out.u2(1);
+			out.u2(utf8Constant("StackMapTable"));
+			out.u4(frames.length);
+			out.bytes(frames);
+		}
+		else
+		{
+			out.u2(0);
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * Writes a full frame for every jump target of the given code, in the order of the positions.
+	 */
+	private byte[] stackMapTable(final Code code)
+	{
+		final Bytes out = new Bytes();
+		out.u2(code.frames.size());
+		int previous = -1;
+		for (final Label frame : code.frames)
+		{
+			out.u1(FULL_FRAME);
+			out.u2(frame.position - previous - 1);
+			previous = frame.position;
+			verificationTypes(out, frame.locals);
+			verificationTypes(out, frame.stack);
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * Writes the given reference types as verification types.
+	 */
+	private void verificationTypes(final Bytes out, final Class<?>[] types)
+	{
+		out.u2(types.length);
+		for (final Class<?> type : types)
+		{
+			out.u1(ITEM_OBJECT);
+			out.u2(classConstant(internalName(type)));
+		}
+	}
+
+	private int utf8Constant(final String value)
+	{
+		final Integer index = constants.get("U" + value);
+		if (index != null)
+		{
+			return index;
+		}
+		pool.u1(CONSTANT_UTF8);
+		pool.utf8(value);
+		return newConstant("U" + value);
+	}
+
+	private int classConstant(final String internalName)
+	{
+		final Integer index = constants.get("C" + internalName);
+		if (index != null)
+		{
+			return index;
+		}
+		final int name = utf8Constant(internalName);
+		pool.u1(CONSTANT_CLASS);
+		pool.u2(name);
+		return newConstant("C" + internalName);
+	}
+
+	private int methodConstant(final int tag, final String owner, final String name,
+		final String descriptor)
+	{
+		final String key = "M" + tag + owner + "." + name + descriptor;
+		final Integer index = constants.get(key);
+		if (index != null)
+		{
+			return index;
+		}
+		final int ownerIndex = classConstant(owner);
+		final int nameIndex = utf8Constant(name);
+		final int descriptorIndex = utf8Constant(descriptor);
+		Integer nameAndType = constants.get("N" + name + descriptor);
+		if (nameAndType == null)
+		{
+			pool.u1(CONSTANT_NAME_AND_TYPE);
+			pool.u2(nameIndex);
+			pool.u2(descriptorIndex);
+			nameAndType = newConstant("N" + name + descriptor);
+		}
+		pool.u1(tag);
+		pool.u2(ownerIndex);
+		pool.u2(nameAndType);
+		return newConstant(key);
+	}
+
+	private int newConstant(final String key)
+	{
+		final int index = constantCount++;
+		constants.put(key, index);
+		return index;
+	}
+
+	/**
+	 * A growable byte array that writes big endian values.
+	 */
+	private static class Bytes
+	{
+		byte[] data = new byte[256];
+
+		int length;
+
+		void u1(final int value)
+		{
+			if (length == data.length)
+			{
+				final byte[] grown = new byte[data.length * 2];
+				System.arraycopy(data, 0, grown, 0, length);
+				data = grown;
+			}
+			data[length++] = (byte)value;
+		}
+
+		void u2(final int value)
+		{
+			u1(value >>> 8);
+			u1(value);
+		}
+
+		void u4(final int value)
+		{
+			u2(value >>> 16);
+			u2(value);
+		}
+
+		void bytes(final byte[] values)
+		{
+			for (final byte value : values)
+			{
+				u1(value);
+			}
+		}
+
+		void utf8(final String value)
+		{
+			final Bytes encoded = new Bytes();
+			for (int i = 0; i < value.length(); i++)
+			{
+				final char c = value.charAt(i);
+				if (c != 0 && c < 0x80)
+				{
+					encoded.u1(c);
+				}
+				else if (c < 0x800)
+				{
+					encoded.u1(0xc0 | c >> 6 & 0x1f);
+					encoded.u1(0x80 | c & 0x3f);
+				}
+				else
+				{
+					encoded.u1(0xe0 | c >> 12 & 0x0f);
+					encoded.u1(0x80 | c >> 6 & 0x3f);
+					encoded.u1(0x80 | c & 0x3f);
+				}
+			}
+			u2(encoded.length);
+			bytes(encoded.toByteArray());
+		}
+
+		byte[] toByteArray()
+		{
+			final byte[] bytes = new byte[length];
+			System.arraycopy(data, 0, bytes, 0, length);
+			return bytes;
+		}
+	}
+
+	/**
+	 * The bytecode of a method with forward jumps to labels, which are the frames of the method.
+	 */
+	private static final class Code extends Bytes
+	{
+		final int maxStack;
+
+		final int maxLocals;
+
+		final List<Label> jumps = new ArrayList<>();
+
+		final List<Integer> jumpPositions = new ArrayList<>();
+
+		/** The marked labels in the order of their positions. */
+		final List<Label> frames = new ArrayList<>();
+
+		Code(final int maxStack, final int maxLocals)
+		{
+			this.maxStack = maxStack;
+			this.maxLocals = maxLocals;
+		}
+
+		void jump(final int opcode, final Label label)
+		{
+			jumps.add(label);
+			jumpPositions.add(length);
+			u1(opcode);
+			u2(0);
+		}
+
+		void mark(final Label label)
+		{
+			label.position = length;
+			frames.add(label);
+		}
+
+		@Override
+		byte[] toByteArray()
+		{
+			for (int i = 0; i < jumps.size(); i++)
+			{
+				final int position = jumpPositions.get(i);
+				final int offset = jumps.get(i).position - position;
+				data[position + 1] = (byte)(offset >>> 8);
+				data[position + 2] = (byte)offset;
+			}
+			return super.toByteArray();
+		}
+	}
+
+	/**
+	 * The target of a jump with the types of the local variables and of the operand stack at it.
+	 */
+	private static final class Label
+	{
+		final Class<?>[] locals;
+
+		final Class<?>[] stack;
+
+		int position;
+
+		Label(final Class<?>[] locals, final Class<?>... stack)
+		{
+			this.locals = locals;
+			this.stack = stack;
+		}
+	}
+}
@@ -0,0 +1,340 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+
+import lombok.extern.java.Log;
+
+/**
+ * The class {@link AccessorManifest} holds pairs of class names and expressions that are resolved
+ * by the {@link PropertyResolver}. A manifest is recorded during a run with
+ * {@link PropertyResolver#setAccessorManifest(AccessorManifest)}, written to a text file that can
+ * ship with the application and replayed at the next start before the first evaluation. <br>
+ * The file has one pair per line, the class name and the expression separated by a tab. Tabs, line
+ * breaks and backslashes in them are escaped with a backslash, like in Java string literals, and
+ * all other characters are written unchanged. Blank lines and lines that start with # are ignored.
+ * Only class names are held, so a manifest does not keep any class reachable.
+ */
+@Log
+public final class AccessorManifest
+{
+
+	/** The first line of a written manifest. */
+	private static final String HEADER = "# model-data accessor manifest";
+
+	/** The separator of the class name and the expression. */
+	private static final char SEPARATOR = '\t';
+
+	/** The expressions grouped by their class names. */
+	private final Map<String, Set<String>> entries = new ConcurrentHashMap<>();
+
+	/**
+	 * Reads a manifest from the given file.
+	 *
+	 * @param file
+	 *            the file
+	 * @return the manifest
+	 * @throws IOException
+	 *             if the file cannot be read
+	 */
+	public static AccessorManifest read(final Path file) throws IOException
+	{
+		try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8))
+		{
+			return read(reader);
+		}
+	}
+
+	/**
+	 * Reads a manifest from the given reader.
+	 *
+	 * @param reader
+	 *            the reader, it is not closed
+	 * @return the manifest
+	 * @throws IOException
+	 *             if the reader cannot be read
+	 */
+	public static AccessorManifest read(final Reader reader) throws IOException
+	{
+		final AccessorManifest manifest = new AccessorManifest();
+		final BufferedReader lines = reader instanceof BufferedReader
+			? (BufferedReader)reader
+			: new BufferedReader(reader);
+		String line;
+		while ((line = lines.readLine()) != null)
+		{
+			if (line.isBlank() || line.startsWith("#"))
+			{
+				continue;
+			}
+			final int separator = line.indexOf(SEPARATOR);
+			if (separator < 1 || separator == line.length() - 1)
+			{
+				log.log(Level.WARNING, "Skipping the malformed manifest line: " + line);
+				continue;
+			}
+			manifest.add(unescape(line.substring(0, separator)),
+				unescape(line.substring(separator + 1)));
+		}
+		return manifest;
+	}
+
+	/**
+	 * Adds the given expression of the given class.
+	 *
+	 * @param clz
+	 *            the class, hidden classes are not added as they cannot be loaded by name
+	 * @param expression
+	 *            the expression
+	 */
+	public void add(final Class<?> clz, final String expression)
+	{
+		if (!clz.isHidden())
+		{
+			add(clz.getName(), expression);
+		}
+	}
+
+	/**
+	 * Adds the given expression of the class with the given name.
+	 *
+	 * @param className
+	 *            the name of the class as returned by {@link Class#getName()}
+	 * @param expression
+	 *            the expression
+	 */
+	public void add(final String className, final String expression)
+	{
+		entries.computeIfAbsent(className, name -> ConcurrentHashMap.newKeySet()).add(expression);
+	}
+
+	/**
+	 * Gets the number of pairs of this manifest.
+	 *
+	 * @return the number of pairs
+	 */
+	public int size()
+	{
+		int size = 0;
+		for (final Set<String> expressions : entries.values())
+		{
+			size += expressions.size();
+		}
+		return size;
+	}
+
+	/**
+	 * Gets the expressions of the class with the given name.
+	 *
+	 * @param className
+	 *            the name of the class
+	 * @return the expressions, empty if the class is not in this manifest
+	 */
+	public Set<String> getExpressions(final String className)
+	{
+		final Set<String> expressions = entries.get(className);
+		return expressions != null ? Set.copyOf(expressions) : Set.of();
+	}
+
+	/**
+	 * Resolves all pairs of this manifest in the calling thread.
+	 *
+	 * @param classLoader
+	 *            the class loader that loads the classes
+	 * @return the number of resolved expressions
+	 */
+	public int replay(final ClassLoader classLoader)
+	{
+		int resolved = 0;
+		for (final Map.Entry<String, Set<String>> entry : entries.entrySet())
+		{
+			resolved += replay(classLoader, entry.getKey(), entry.getValue());
+		}
+		return resolved;
+	}
+
+	/**
+	 * Resolves all pairs of this manifest with the given executor, one task for every class. A
+	 * single thread executor replays the manifest in the background, a pool replays it in
+	 * parallel.
+	 *
+	 * @param classLoader
+	 *            the class loader that loads the classes
+	 * @param executor
+	 *            the executor of the tasks
+	 * @return the future of the number of resolved expressions
+	 */
+	public CompletableFuture<Integer> replay(final ClassLoader classLoader,
+		final Executor executor)
+	{
+		final List<CompletableFuture<Integer>> tasks = new ArrayList<>();
+		for (final Map.Entry<String, Set<String>> entry : entries.entrySet())
+		{
+			tasks.add(CompletableFuture.supplyAsync(
+				() -> replay(classLoader, entry.getKey(), entry.getValue()), executor));
+		}
+		return CompletableFuture.allOf(tasks.toArray(CompletableFuture<?>[]::new))
+			.thenApply(done -> {
+				int resolved = 0;
+				for (final CompletableFuture<Integer> task : tasks)
+				{
+					resolved += task.join();
+				}
+				return resolved;
+			});
+	}
+
+	private static int replay(final ClassLoader classLoader, final String className,
+		final Set<String> expressions)
+	{
+		final Class<?> clz;
+		try
+		{
+			clz = Class.forName(className, false, classLoader);
+		}
+		catch (final ClassNotFoundException | LinkageError e)
+		{
+			log.log(Level.FINE, "Skipping the class " + className + " of the manifest", e);
+			return 0;
+		}
+		return PropertyResolver.prewarm(clz, expressions.toArray(new String[0]));
+	}
+
+	/**
+	 * Writes this manifest to the given file, sorted by class name and expression.
+	 *
+	 * @param file
+	 *            the file
+	 * @throws IOException
+	 *             if the file cannot be written
+	 */
+	public void write(final Path file) throws IOException
+	{
+		try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8))
+		{
+			write(writer);
+		}
+	}
+
+	/**
+	 * Writes this manifest to the given writer, sorted by class name and expression.
+	 *
+	 * @param writer
+	 *            the writer, it is not closed
+	 * @throws IOException
+	 *             if the writer cannot be written
+	 */
+	public void write(final Writer writer) throws IOException
+	{
+		writer.write(HEADER);
+		writer.write('\n');
+		for (final Map.Entry<String, Set<String>> entry : new TreeMap<>(entries).entrySet())
+		{
+			for (final String expression : new TreeSet<>(entry.getValue()))
+			{
+				writer.write(escape(entry.getKey()));
+				writer.write(SEPARATOR);
+				writer.write(escape(expression));
+				writer.write('\n');
+			}
+		}
+		writer.flush();
+	}
+
+	/**
+	 * Escapes the tabs, line breaks and backslashes of the given value, so it can be written as a
+	 * part of a manifest line.
+	 */
+	private static String escape(final String value)
+	{
+		final StringBuilder escaped = new StringBuilder(value.length());
+		for (int i = 0; i < value.length(); i++)
+		{
+			final char c = value.charAt(i);
+			switch (c)
+			{
+				case '\\' :
+					escaped.append("\\\\");
+					break;
+				case '\t' :
+					escaped.append("\\t");
+					break;
+				case '\n' :
+					escaped.append("\\n");
+					break;
+				case '\r' :
+					escaped.append("\\r");
+					break;
+				default :
+					escaped.append(c);
+			}
+		}
+		return escaped.toString();
+	}
+
+	/**
+	 * Reverts {@link #escape(String)}, a backslash before any other character is dropped.
+	 */
+	private static String unescape(final String value)
+	{
+		if (value.indexOf('\\') < 0)
+		{
+			return value;
+		}
+		final StringBuilder unescaped = new StringBuilder(value.length());
+		for (int i = 0; i < value.length(); i++)
+		{
+			char c = value.charAt(i);
+			if (c == '\\' && i + 1 < value.length())
+			{
+				c = value.charAt(++i);
+				switch (c)
+				{
+					case 't' :
+						c = '\t';
+						break;
+					case 'n' :
+						c = '\n';
+						break;
+					case 'r' :
+						c = '\r';
+						break;
+					default :
+						break;
+				}
+			}
+			unescaped.append(c);
+		}
+		return unescaped.toString();
+	}
+}
@@ -18,6 +18,7 @@ package io.github.astrapi69.model.property;
 import java.lang.reflect.Array;
 import java.util.logging.Level;
 
+import io.github.astrapi69.model.api.AccessStrategy;
 import lombok.extern.java.Log;
 
 @Log
@@ -32,6 +33,15 @@ public final class ArrayGetSet extends AbstractGetAndSet
 		this.index = index;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public AccessStrategy getAccessStrategy()
+	{
+		return AccessStrategy.DIRECT;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -63,10 +73,10 @@ public final class ArrayGetSet extends AbstractGetAndSet
 		Object value = null;
 		try
 		{
-			value = clzComponentType.newInstance();
+			value = newInstance(clzComponentType);
 			Array.set(object, index, value);
 		}
-		catch (Exception e)
+		catch (Throwable e)
 		{
 			log.log(Level.WARNING, "Cannot set new value " + value + " at index " + index
 				+ " for array holding elements of class " + clzComponentType, e);
@@ -80,6 +90,6 @@ public final class ArrayGetSet extends AbstractGetAndSet
 	@Override
 	public void setValue(Object object, Object value)
 	{
-		Array.set(object, index, value);
+		Array.set(object, index, convert(value, clzComponentType));
 	}
 }
@@ -17,12 +17,23 @@ package io.github.astrapi69.model.property;
 
 import java.lang.reflect.Array;
 
+import io.github.astrapi69.model.api.AccessStrategy;
+
 public final class ArrayLengthGetSet extends AbstractGetAndSet
 {
 	ArrayLengthGetSet()
 	{
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public AccessStrategy getAccessStrategy()
+	{
+		return AccessStrategy.DIRECT;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -19,6 +19,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.logging.Level;
 
+import io.github.astrapi69.model.reflect.BeanIndex;
 import lombok.extern.java.Log;
 
 @Log
@@ -32,22 +33,20 @@ public final class ArrayPropertyGetSet extends AbstractGetAndSet
 	{
 		this.index = index;
 		getMethod = method;
-		getMethod.setAccessible(true);
+		getMethod.trySetAccessible();
 	}
 
-	private final static Method findSetter(final Method getMethod, final Class<?> clz)
+	static Method findSetter(final Method getMethod, final Class<?> clz)
 	{
 		String name = getMethod.getName();
 		name = SET + name.substring(3);
-		try
-		{
-			return clz.getMethod(name, new Class[] { int.class, getMethod.getReturnType() });
-		}
-		catch (Exception e)
+		final Method method = BeanIndex.of(clz).getMethod(name, int.class,
+			getMethod.getReturnType());
+		if (method == null)
 		{
 			log.log(Level.FINE, "Can't find setter method corresponding to " + getMethod);
 		}
-		return null;
+		return method;
 	}
 
 	/**
@@ -105,10 +104,10 @@ public final class ArrayPropertyGetSet extends AbstractGetAndSet
 		Object value = null;
 		try
 		{
-			value = clz.newInstance();
+			value = newInstance(clz);
 			setMethod.invoke(object, index, value);
 		}
-		catch (Exception e)
+		catch (Throwable e)
 		{
 			log.log(Level.WARNING, "Cannot set new value " + value + " at index " + index, e);
 		}
@@ -127,7 +126,7 @@ public final class ArrayPropertyGetSet extends AbstractGetAndSet
 		}
 		if (setMethod != null)
 		{
-			setMethod.setAccessible(true);
+			setMethod.trySetAccessible();
 			try
 			{
 				setMethod.invoke(object, index, value);
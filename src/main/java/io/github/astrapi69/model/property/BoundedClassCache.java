@@ -0,0 +1,535 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import java.lang.ref.WeakReference;
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.github.astrapi69.model.api.ClassCache;
+import io.github.astrapi69.model.api.GetAndSet;
+import io.github.astrapi69.model.reflect.ClassLocal;
+
+/**
+ * The class {@link BoundedClassCache} is a {@link ClassCache} with a maximum number of entries per
+ * class and over all classes. It can be set with
+ * {@link PropertyResolver#setClassCache(Object, ClassCache)}, for instance if map keys or list
+ * indexes of dynamic data would otherwise fill the cache forever. <br>
+ * A lookup does not take a lock: it reads a {@link ConcurrentHashMap} and marks the found entry as
+ * referenced and counts its use. If a bound is reached a clock hand passes over the entries of the
+ * class, or of the next class in turn for the global bound, and gives every referenced entry a
+ * second chance, so the first entry that was not used since the last pass is the eviction victim.
+ * A frequency sketch of the missed lookups decides if the new entry is admitted: it replaces the
+ * victim only if it is looked up at least as often, so a burst of one time keys does not evict the
+ * frequently used ones. A rejected entry is still returned by the {@link PropertyResolver}, it is
+ * just not cached. <br>
+ * Like the {@link ClassValueClassCache} the maps are attached to their classes with a
+ * {@link ClassLocal}, so the cache does not keep classes from being unloaded. A class map only
+ * references its cache weakly, so a replaced cache does not stay reachable from the classes it has
+ * cached.
+ */
+public class BoundedClassCache implements ClassCache
+{
+	/** The maximum use count of an entry. */
+	private static final int MAX_FREQUENCY = 15;
+
+	private final int maxEntries;
+
+	private final int maxEntriesPerClass;
+
+	private final LongAdder evictions = new LongAdder();
+
+	private final LongAdder rejections = new LongAdder();
+
+	private final FrequencySketch sketch;
+
+	/** The reference of the class maps to this cache. */
+	private final WeakReference<BoundedClassCache> self = new WeakReference<>(this);
+
+	/** The class maps in the order they are visited for a global eviction, guarded by this. */
+	private final ArrayDeque<ClassMapReference> classMaps = new ArrayDeque<>();
+
+	/** The number of entries in all class maps, guarded by this. */
+	private int size;
+
+	private final ClassLocal<BoundedMap> maps = new ClassLocal<>()
+	{
+		@Override
+		protected BoundedMap computeValue(final Class<?> type)
+		{
+			final BoundedMap map = new BoundedMap(self, type.getName());
+			synchronized (BoundedClassCache.this)
+			{
+				classMaps.add(map.reference);
+			}
+			return map;
+		}
+	};
+
+	/**
+	 * Instantiates a new {@link BoundedClassCache}
+	 *
+	 * @param maxEntriesPerClass
+	 *            the maximum number of entries of a single class
+	 * @param maxEntries
+	 *            the maximum number of entries of all classes
+	 */
+	public BoundedClassCache(final int maxEntriesPerClass, final int maxEntries)
+	{
+		if (maxEntriesPerClass < 1 || maxEntries < 1)
+		{
+			throw new IllegalArgumentException("The maximum number of entries must be positive");
+		}
+		this.maxEntriesPerClass = maxEntriesPerClass;
+		this.maxEntries = maxEntries;
+		this.sketch = new FrequencySketch(maxEntries);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Map<String, GetAndSet> get(final Class<?> clz)
+	{
+		return maps.get(clz);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Map<String, GetAndSet> getOrCreate(final Class<?> clz)
+	{
+		return maps.get(clz);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The given values are added to the map of the class within the bounds of this cache.
+	 */
+	@Override
+	public void put(final Class<?> clz, final Map<String, GetAndSet> values)
+	{
+		final BoundedMap map = maps.get(clz);
+		if (map != values)
+		{
+			values.forEach(map::put);
+		}
+	}
+
+	/**
+	 * Gets the number of entries that were evicted to keep the bounds
+	 *
+	 * @return the number of evicted entries
+	 */
+	public long getEvictionCount()
+	{
+		return evictions.sum();
+	}
+
+	/**
+	 * Gets the number of entries that were not admitted, because they were looked up less often
+	 * than the eviction victim
+	 *
+	 * @return the number of rejected entries
+	 */
+	public long getRejectionCount()
+	{
+		return rejections.sum();
+	}
+
+	/**
+	 * Gets the maximum number of entries of all classes
+	 *
+	 * @return the maximum number of entries
+	 */
+	public int getMaxEntries()
+	{
+		return maxEntries;
+	}
+
+	/**
+	 * Gets the maximum number of entries of a single class
+	 *
+	 * @return the maximum number of entries per class
+	 */
+	public int getMaxEntriesPerClass()
+	{
+		return maxEntriesPerClass;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized int size()
+	{
+		return size;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized Map<String, Integer> getSizes()
+	{
+		final Map<String, Integer> sizes = new HashMap<>();
+		for (final ClassMapReference reference : classMaps)
+		{
+			if (reference.size > 0 && reference.get() != null)
+			{
+				sizes.merge(reference.className, reference.size, Integer::sum);
+			}
+		}
+		return sizes;
+	}
+
+	/**
+	 * Adds the given entry to the given map if it is admitted
+	 */
+	private synchronized GetAndSet admit(final BoundedMap map, final String key,
+		final GetAndSet value)
+	{
+		final Node existing = map.entries.get(key);
+		if (existing != null)
+		{
+			final GetAndSet previous = existing.value;
+			existing.value = value;
+			return previous;
+		}
+		final int frequency = sketch.frequency(map.hash(key));
+		if (map.reference.size >= maxEntriesPerClass && !evict(map, frequency))
+		{
+			return null;
+		}
+		while (size >= maxEntries)
+		{
+			final BoundedMap victims = nextVictimMap();
+			if (victims == null)
+			{
+				break;
+			}
+			if (!evict(victims, frequency))
+			{
+				return null;
+			}
+		}
+		final Node node = new Node(key, value, Math.min(frequency, MAX_FREQUENCY));
+		map.entries.put(key, node);
+		map.clock.add(node);
+		map.reference.size++;
+		size++;
+		return null;
+	}
+
+	/**
+	 * Moves the clock hand of the given map to the first entry that was not used since the last
+	 * pass and evicts it if it is not looked up more often than the new entry.
+	 *
+	 * @return true if the entry was evicted, false if the new entry is rejected
+	 */
+	private boolean evict(final BoundedMap map, final int frequency)
+	{
+		Node victim = map.clock.poll();
+		while (victim.referenced)
+		{
+			victim.referenced = false;
+			map.clock.add(victim);
+			victim = map.clock.poll();
+		}
+		if (victim.frequency > frequency)
+		{
+			// the victim ages, so an entry that was only used in the past is evicted later
+			victim.frequency >>= 1;
+			map.clock.add(victim);
+			rejections.increment();
+			return false;
+		}
+		map.entries.remove(victim.key, victim);
+		map.reference.size--;
+		size--;
+		evictions.increment();
+		return true;
+	}
+
+	/**
+	 * Gets the next class map with entries in turn, the maps of unloaded classes are dropped
+	 */
+	private BoundedMap nextVictimMap()
+	{
+		for (int i = classMaps.size(); i > 0; i--)
+		{
+			final ClassMapReference reference = classMaps.poll();
+			final BoundedMap map = reference.get();
+			if (map == null)
+			{
+				size -= reference.size;
+				continue;
+			}
+			classMaps.add(reference);
+			if (reference.size > 0)
+			{
+				return map;
+			}
+		}
+		return null;
+	}
+
+	private synchronized GetAndSet removeEntry(final BoundedMap map, final Object key)
+	{
+		final Node removed = map.entries.remove(key);
+		if (removed == null)
+		{
+			return null;
+		}
+		map.clock.remove(removed);
+		map.reference.size--;
+		size--;
+		return removed.value;
+	}
+
+	private synchronized void clearEntries(final BoundedMap map)
+	{
+		size -= map.reference.size;
+		map.entries.clear();
+		map.clock.clear();
+		map.reference.size = 0;
+	}
+
+	/**
+	 * The weak reference to a class map that remembers its size, so the size of all entries can be
+	 * corrected after the class was unloaded.
+	 */
+	private static final class ClassMapReference extends WeakReference<BoundedMap>
+	{
+		/** The name of the class of the map. */
+		final String className;
+
+		/** The number of entries of the map, guarded by the cache. */
+		int size;
+
+		ClassMapReference(final BoundedMap map, final String className)
+		{
+			super(map);
+			this.className = className;
+		}
+	}
+
+	/**
+	 * An entry of a class map. The flag and the count of its use are written without
+	 * synchronization, a lost update only changes which entry is evicted.
+	 */
+	private static final class Node
+	{
+		final String key;
+
+		volatile GetAndSet value;
+
+		/** Flag that indicates if the entry was used since the clock hand passed it. */
+		boolean referenced;
+
+		/** The use count of the entry, at most {@link #MAX_FREQUENCY}. */
+		int frequency;
+
+		Node(final String key, final GetAndSet value, final int frequency)
+		{
+			this.key = key;
+			this.value = value;
+			this.frequency = frequency;
+		}
+	}
+
+	/**
+	 * The map of a single class. It only references its cache weakly, because it is attached to
+	 * the class and would otherwise keep every cache that was ever set reachable.
+	 */
+	private static final class BoundedMap extends AbstractMap<String, GetAndSet>
+	{
+		private final WeakReference<BoundedClassCache> cache;
+
+		private final ConcurrentHashMap<String, Node> entries = new ConcurrentHashMap<>(16);
+
+		/** The entries in the order of the clock hand, guarded by the cache. */
+		private final ArrayDeque<Node> clock = new ArrayDeque<>();
+
+		private final ClassMapReference reference;
+
+		BoundedMap(final WeakReference<BoundedClassCache> cache, final String className)
+		{
+			this.cache = cache;
+			this.reference = new ClassMapReference(this, className);
+		}
+
+		int hash(final Object key)
+		{
+			return System.identityHashCode(this) * 31 + key.hashCode();
+		}
+
+		@Override
+		public GetAndSet get(final Object key)
+		{
+			final Node node = entries.get(key);
+			if (node == null)
+			{
+				final BoundedClassCache owner = cache.get();
+				if (owner != null)
+				{
+					owner.sketch.increment(hash(key));
+				}
+				return null;
+			}
+			// only written if changed, so a frequently used entry is read without writes
+			if (!node.referenced)
+			{
+				node.referenced = true;
+			}
+			if (node.frequency < MAX_FREQUENCY)
+			{
+				node.frequency++;
+			}
+			return node.value;
+		}
+
+		@Override
+		public boolean containsKey(final Object key)
+		{
+			return entries.containsKey(key);
+		}
+
+		@Override
+		public GetAndSet put(final String key, final GetAndSet value)
+		{
+			final BoundedClassCache owner = cache.get();
+			return owner != null ? owner.admit(this, key, value) : null;
+		}
+
+		@Override
+		public GetAndSet remove(final Object key)
+		{
+			final BoundedClassCache owner = cache.get();
+			return owner != null ? owner.removeEntry(this, key) : null;
+		}
+
+		@Override
+		public void clear()
+		{
+			final BoundedClassCache owner = cache.get();
+			if (owner != null)
+			{
+				owner.clearEntries(this);
+			}
+		}
+
+		@Override
+		public int size()
+		{
+			return entries.size();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 *
+		 * The returned set is a snapshot of the entries.
+		 */
+		@Override
+		public Set<Map.Entry<String, GetAndSet>> entrySet()
+		{
+			final Map<String, GetAndSet> snapshot = new LinkedHashMap<>();
+			for (final Node node : entries.values())
+			{
+				snapshot.put(node.key, node.value);
+			}
+			return snapshot.entrySet();
+		}
+	}
+
+	/**
+	 * A count-min sketch with four counters of at most 15 per key that estimates how often a key
+	 * is looked up. All counters are halved periodically, so old lookups fade out. Lost updates of
+	 * concurrent lookups are accepted, the sketch is only an estimation.
+	 */
+	private static final class FrequencySketch
+	{
+		private static final int[] SEEDS = { 0x97cb3127, 0xb6a2c4f1, 0x8a3c6f2b, 0xc29e3d4b };
+
+		private final byte[] table;
+
+		private final int mask;
+
+		private final int sampleSize;
+
+		private int additions;
+
+		FrequencySketch(final int maxEntries)
+		{
+			// eight counters per entry keep the over estimation by collisions low
+			final int capacity = Integer.highestOneBit(
+				Math.max(16, Math.min(maxEntries, 1 << 20) - 1) << 1) << 3;
+			this.table = new byte[capacity];
+			this.mask = capacity - 1;
+			this.sampleSize = 10 * capacity;
+		}
+
+		private int index(final int hash, final int i)
+		{
+			int h = hash * SEEDS[i];
+			h ^= h >>> 16;
+			return h & mask;
+		}
+
+		void increment(final int hash)
+		{
+			for (int i = 0; i < SEEDS.length; i++)
+			{
+				final int index = index(hash, i);
+				if (table[index] < 15)
+				{
+					table[index]++;
+				}
+			}
+			if (++additions >= sampleSize)
+			{
+				reset();
+			}
+		}
+
+		int frequency(final int hash)
+		{
+			int frequency = Integer.MAX_VALUE;
+			for (int i = 0; i < SEEDS.length; i++)
+			{
+				frequency = Math.min(frequency, table[index(hash, i)]);
+			}
+			return frequency;
+		}
+
+		private void reset()
+		{
+			for (int i = 0; i < table.length; i++)
+			{
+				table[i] = (byte)(table[i] >> 1);
+			}
+			additions = sampleSize / 2;
+		}
+	}
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import io.github.astrapi69.model.api.ClassCache;
+import io.github.astrapi69.model.api.GetAndSet;
+import io.github.astrapi69.model.reflect.ClassLocal;
+
+/**
+ * The class {@link ClassValueClassCache} is the default {@link ClassCache} of the
+ * {@link PropertyResolver}. The map of every class is attached to the class with a
+ * {@link ClassLocal}, so the lookup is lock free and the cache does not keep a class or its class
+ * loader from being unloaded, for instance after a redeploy of a web application. This holds for
+ * the classes of the web application as well as for the classes of the JDK or of a shared class
+ * loader that get accessors of this library.
+ */
+public class ClassValueClassCache implements ClassCache
+{
+	/** The references to the class maps to count their entries. */
+	private final ConcurrentLinkedQueue<ClassMapReference> classMaps = new ConcurrentLinkedQueue<>();
+
+	private final ClassLocal<Map<String, GetAndSet>> map = new ClassLocal<>()
+	{
+		@Override
+		protected Map<String, GetAndSet> computeValue(final Class<?> type)
+		{
+			final Map<String, GetAndSet> values = new ConcurrentHashMap<>(8);
+			classMaps.add(new ClassMapReference(type.getName(), values));
+			return values;
+		}
+	};
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Map<String, GetAndSet> get(final Class<?> clz)
+	{
+		return map.get(clz);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Map<String, GetAndSet> getOrCreate(final Class<?> clz)
+	{
+		return map.get(clz);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The given values are added to the map that is attached to the class.
+	 */
+	@Override
+	public void put(final Class<?> clz, final Map<String, GetAndSet> values)
+	{
+		final Map<String, GetAndSet> current = map.get(clz);
+		if (current != values)
+		{
+			current.putAll(values);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The maps of unloaded classes are dropped.
+	 */
+	@Override
+	public Map<String, Integer> getSizes()
+	{
+		final Map<String, Integer> sizes = new HashMap<>();
+		for (final Iterator<ClassMapReference> iterator = classMaps.iterator(); iterator.hasNext();)
+		{
+			final ClassMapReference reference = iterator.next();
+			final Map<String, GetAndSet> values = reference.get();
+			if (values == null)
+			{
+				iterator.remove();
+			}
+			else if (!values.isEmpty())
+			{
+				sizes.merge(reference.className, values.size(), Integer::sum);
+			}
+		}
+		return sizes;
+	}
+
+	/**
+	 * The weak reference to a class map with the name of its class.
+	 */
+	private static final class ClassMapReference extends WeakReference<Map<String, GetAndSet>>
+	{
+		final String className;
+
+		ClassMapReference(final String className, final Map<String, GetAndSet> values)
+		{
+			super(values);
+			this.className = className;
+		}
+	}
+}
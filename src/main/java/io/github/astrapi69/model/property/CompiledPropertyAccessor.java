@@ -0,0 +1,52 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+/**
+ * The interface {@link CompiledPropertyAccessor} is implemented by the hidden classes that are
+ * generated for a property expression and a root class, if bytecode accessors are enabled with
+ * {@link PropertyResolver#setBytecodeAccessorsEnabled(boolean)}. A generated class evaluates the
+ * whole expression with direct calls of the getters and setters, so the JIT can inline it end to
+ * end. It is also returned by {@link PropertyPath#getAccessor(Class)} for a root class. It is
+ * public only because the generated classes live in the package of the root class and is not
+ * meant to be implemented elsewhere.
+ */
+public interface CompiledPropertyAccessor
+{
+
+	/**
+	 * Gets the value of the expression from the given object
+	 *
+	 * @param object
+	 *            the root object, an instance of the root class
+	 * @return the value or null if the expression or an intermediate value evaluates to null
+	 */
+	Object getValue(Object object);
+
+	/**
+	 * Sets the value of the expression on the given object. Intermediate values that are null are
+	 * created with their public default constructor.
+	 *
+	 * @param object
+	 *            the root object, an instance of the root class
+	 * @param value
+	 *            the value to set
+	 * @return true if the value was set, false if the value has to be set by the
+	 *         {@link PropertyResolver} because it needs a conversion or an intermediate value
+	 *         cannot be created
+	 */
+	boolean setValue(Object object, Object value);
+}
@@ -21,6 +21,11 @@ import java.util.concurrent.ConcurrentHashMap;
 import io.github.astrapi69.model.api.ClassCache;
 import io.github.astrapi69.model.api.GetAndSet;
 
+/**
+ * The class {@link DefaultClassCache} is a {@link ClassCache} that holds the classes with strong
+ * references, so a cached class and its class loader cannot be unloaded until the cache is
+ * destroyed. The {@link PropertyResolver} uses the {@link ClassValueClassCache} by default.
+ */
 public class DefaultClassCache implements ClassCache
 {
 	private final ConcurrentHashMap<Class<?>, Map<String, GetAndSet>> map = new ConcurrentHashMap<>(
@@ -32,6 +37,12 @@ public class DefaultClassCache implements ClassCache
 		return map.get(clz);
 	}
 
+	@Override
+	public Map<String, GetAndSet> getOrCreate(Class<?> clz)
+	{
+		return map.computeIfAbsent(clz, key -> new ConcurrentHashMap<>(8));
+	}
+
 	@Override
 	public void put(Class<?> clz, Map<String, GetAndSet> values)
 	{
@@ -0,0 +1,301 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * The class {@link DefaultResolverMetrics} counts the lookups of the {@link PropertyResolver} with
+ * {@link LongAdder}s, so concurrent lookups do not contend on a counter. Only the introspections,
+ * which are rare after the start, update the slowest expressions. The cached classes and entries
+ * are read from the current {@link io.github.astrapi69.model.api.ClassCache} of the
+ * {@link PropertyResolver}, so they do not count evicted entries or the entries of a replaced
+ * cache. <br>
+ * The hits and misses are the lookups in the class cache. Evaluations that are served by an inline
+ * cache, like the resolved segments of a compiled {@link PropertyPath}, the accessors of a
+ * {@link io.github.astrapi69.model.PropertyColumnAccessor} or the generated bytecode accessors, do
+ * not look up the class cache and are not counted. <br>
+ * The metrics can be registered as MXBean with {@link #registerMBean()}, which needs the module
+ * java.management.
+ */
+public class DefaultResolverMetrics implements ResolverMetrics, ResolverMetricsMXBean
+{
+
+	/** The object name of the registered MXBean. */
+	public static final String OBJECT_NAME = "io.github.astrapi69.model:type=PropertyResolver";
+
+	/** The default number of the slowest expressions that are kept. */
+	public static final int DEFAULT_SLOWEST = 10;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder introspections = new LongAdder();
+
+	private final LongAdder introspectionNanos = new LongAdder();
+
+	private final int maxSlowest;
+
+	/** The slowest introspections, the fastest of them at the head. */
+	private final PriorityQueue<Introspection> slowest = new PriorityQueue<>(
+		Comparator.comparingLong(introspection -> introspection.nanos));
+
+	/** The time below which an introspection is not one of the slowest. */
+	private volatile long slowestThreshold;
+
+	/**
+	 * Instantiates a new {@link DefaultResolverMetrics} that keeps the
+	 * {@value #DEFAULT_SLOWEST} slowest expressions.
+	 */
+	public DefaultResolverMetrics()
+	{
+		this(DEFAULT_SLOWEST);
+	}
+
+	/**
+	 * Instantiates a new {@link DefaultResolverMetrics}
+	 *
+	 * @param maxSlowest
+	 *            the number of the slowest expressions that are kept
+	 */
+	public DefaultResolverMetrics(final int maxSlowest)
+	{
+		if (maxSlowest < 1)
+		{
+			throw new IllegalArgumentException("maxSlowest must be positive: " + maxSlowest);
+		}
+		this.maxSlowest = maxSlowest;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void hit(final Class<?> clz, final String expression)
+	{
+		hits.increment();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void miss(final Class<?> clz, final String expression)
+	{
+		misses.increment();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void introspected(final Class<?> clz, final String expression, final long nanos)
+	{
+		introspections.increment();
+		introspectionNanos.add(nanos);
+		if (nanos > slowestThreshold)
+		{
+			synchronized (slowest)
+			{
+				slowest.add(new Introspection(clz.getName(), expression, nanos));
+				if (slowest.size() > maxSlowest)
+				{
+					slowest.poll();
+				}
+				if (slowest.size() == maxSlowest)
+				{
+					slowestThreshold = slowest.peek().nanos;
+				}
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void clear()
+	{
+		hits.reset();
+		misses.reset();
+		introspections.reset();
+		introspectionNanos.reset();
+		synchronized (slowest)
+		{
+			slowest.clear();
+			slowestThreshold = 0;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getCachedClasses()
+	{
+		return PropertyResolver.getClassesToGetAndSetters().getSizes().size();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getCachedEntries()
+	{
+		return PropertyResolver.getClassesToGetAndSetters().size();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Map<String, Long> getCachedEntriesPerClass()
+	{
+		final Map<String, Long> entries = new TreeMap<>();
+		PropertyResolver.getClassesToGetAndSetters().getSizes()
+			.forEach((name, size) -> entries.put(name, (long)size));
+		return entries;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getHitRatio()
+	{
+		final long hitCount = hits.sum();
+		final long lookups = hitCount + misses.sum();
+		return lookups == 0 ? 0 : (double)hitCount / lookups;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getHits()
+	{
+		return hits.sum();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getIntrospections()
+	{
+		return introspections.sum();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getIntrospectionNanos()
+	{
+		return introspectionNanos.sum();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getMisses()
+	{
+		return misses.sum();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String[] getSlowestExpressions()
+	{
+		final List<Introspection> sorted;
+		synchronized (slowest)
+		{
+			sorted = new ArrayList<>(slowest);
+		}
+		sorted.sort(Comparator.comparingLong((Introspection introspection) -> introspection.nanos)
+			.reversed());
+		final String[] expressions = new String[sorted.size()];
+		for (int i = 0; i < expressions.length; i++)
+		{
+			expressions[i] = sorted.get(i).toString();
+		}
+		return expressions;
+	}
+
+	/**
+	 * Registers these metrics as MXBean in the platform MBean server under {@link #OBJECT_NAME}.
+	 *
+	 * @return the object name
+	 * @throws JMException
+	 *             if the MXBean cannot be registered, for instance if the name is already taken
+	 */
+	public ObjectName registerMBean() throws JMException
+	{
+		final ObjectName name = new ObjectName(OBJECT_NAME);
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+		return name;
+	}
+
+	/**
+	 * Unregisters the MXBean of {@link #OBJECT_NAME} from the platform MBean server.
+	 *
+	 * @throws JMException
+	 *             if no MXBean is registered under the name
+	 */
+	public static void unregisterMBean() throws JMException
+	{
+		ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(OBJECT_NAME));
+	}
+
+	/**
+	 * An introspection of an expression segment.
+	 */
+	private static final class Introspection
+	{
+		final String className;
+
+		final String expression;
+
+		final long nanos;
+
+		Introspection(final String className, final String expression, final long nanos)
+		{
+			this.className = className;
+			this.expression = expression;
+			this.nanos = nanos;
+		}
+
+		@Override
+		public String toString()
+		{
+			return className + "#" + expression + ": " + nanos;
+		}
+	}
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The class {@link ExpressionCache} holds the compiled expressions of the static methods of the
+ * {@link PropertyResolver} up to a maximum number. A lookup does not take a lock and does not
+ * allocate, it only marks the found value as referenced. If the maximum is reached a clock hand
+ * passes over the values and gives every referenced one a second chance, so only the first value
+ * that was not used since the last pass is evicted instead of all of them.
+ *
+ * @param <K>
+ *            the type of the keys
+ * @param <V>
+ *            the type of the compiled values
+ */
+abstract class ExpressionCache<K, V>
+{
+	private final int maxSize;
+
+	private final ConcurrentHashMap<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+
+	/** The entries in the order of the clock hand, guarded by this. */
+	private final ArrayDeque<Entry<K, V>> clock = new ArrayDeque<>();
+
+	/**
+	 * Instantiates a new {@link ExpressionCache}
+	 *
+	 * @param maxSize
+	 *            the maximum number of compiled values
+	 */
+	ExpressionCache(final int maxSize)
+	{
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Compiles the value of the given key.
+	 *
+	 * @param key
+	 *            the key
+	 * @return the compiled value
+	 */
+	protected abstract V compile(K key);
+
+	/**
+	 * Gets the key under which the given compiled value is cached. It must not share mutable state
+	 * with the key that was given to {@link #get(Object)}.
+	 *
+	 * @param value
+	 *            the compiled value
+	 * @return the key
+	 */
+	protected abstract K keyOf(V value);
+
+	/**
+	 * Gets the compiled value of the given key and compiles it if it is not cached.
+	 *
+	 * @param key
+	 *            the key
+	 * @return the compiled value
+	 */
+	V get(final K key)
+	{
+		final Entry<K, V> entry = entries.get(key);
+		if (entry != null)
+		{
+			// only written if changed, so a frequently used value is read without writes
+			if (!entry.referenced)
+			{
+				entry.referenced = true;
+			}
+			return entry.value;
+		}
+		return add(compile(key));
+	}
+
+	/**
+	 * Gets the number of cached values
+	 *
+	 * @return the number of cached values
+	 */
+	int size()
+	{
+		return entries.size();
+	}
+
+	private synchronized V add(final V value)
+	{
+		final K key = keyOf(value);
+		final Entry<K, V> existing = entries.get(key);
+		if (existing != null)
+		{
+			return existing.value;
+		}
+		while (clock.size() >= maxSize)
+		{
+			final Entry<K, V> victim = clock.poll();
+			if (victim.referenced)
+			{
+				victim.referenced = false;
+				clock.add(victim);
+			}
+			else
+			{
+				entries.remove(victim.key, victim);
+			}
+		}
+		final Entry<K, V> entry = new Entry<>(key, value);
+		entries.put(key, entry);
+		clock.add(entry);
+		return value;
+	}
+
+	/**
+	 * A cached value. The flag is written without synchronization, a lost update only changes
+	 * which value is evicted.
+	 */
+	private static final class Entry<K, V>
+	{
+		final K key;
+
+		final V value;
+
+		/** Flag that indicates if the value was used since the clock hand passed it. */
+		boolean referenced;
+
+		Entry(final K key, final V value)
+		{
+			this.key = key;
+			this.value = value;
+		}
+	}
+}
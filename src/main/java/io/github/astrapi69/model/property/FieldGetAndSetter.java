@@ -35,7 +35,7 @@ public class FieldGetAndSetter extends AbstractGetAndSet
 	{
 		super();
 		this.field = field;
-		this.field.setAccessible(true);
+		this.field.trySetAccessible();
 	}
 
 	/**
@@ -83,10 +83,10 @@ public class FieldGetAndSetter extends AbstractGetAndSet
 		Object value = null;
 		try
 		{
-			value = clz.newInstance();
-			field.set(object, value);
+			value = newInstance(clz);
+			setValue(object, value);
 		}
-		catch (final Exception e)
+		catch (final Throwable e)
 		{
 			log.log(Level.WARNING, "Cannot set field " + field + " to " + value, e);
 		}
@@ -99,6 +99,7 @@ public class FieldGetAndSetter extends AbstractGetAndSet
 	@Override
 	public void setValue(final Object object, Object value)
 	{
+		value = convert(value, field.getType());
 		try
 		{
 			field.set(object, value);
@@ -109,4 +110,127 @@ public class FieldGetAndSetter extends AbstractGetAndSet
 				+ object + ", value " + value, ex);
 		}
 	}
+
+	/**
+	 * Gets the value of the field as an <code>int</code> without boxing it
+	 *
+	 * @param object
+	 *            the object to get the value from
+	 * @return the value of the field
+	 */
+	public int getInt(final Object object)
+	{
+		try
+		{
+			return field.getInt(object);
+		}
+		catch (final Exception ex)
+		{
+			throw new RuntimeException(
+				"Error getting field value of field " + field + " from object " + object, ex);
+		}
+	}
+
+	/**
+	 * Gets the value of the field as an <code>long</code> without boxing it
+	 *
+	 * @param object
+	 *            the object to get the value from
+	 * @return the value of the field
+	 */
+	public long getLong(final Object object)
+	{
+		try
+		{
+			return field.getLong(object);
+		}
+		catch (final Exception ex)
+		{
+			throw new RuntimeException(
+				"Error getting field value of field " + field + " from object " + object, ex);
+		}
+	}
+
+	/**
+	 * Gets the value of the field as an <code>double</code> without boxing it
+	 *
+	 * @param object
+	 *            the object to get the value from
+	 * @return the value of the field
+	 */
+	public double getDouble(final Object object)
+	{
+		try
+		{
+			return field.getDouble(object);
+		}
+		catch (final Exception ex)
+		{
+			throw new RuntimeException(
+				"Error getting field value of field " + field + " from object " + object, ex);
+		}
+	}
+
+	/**
+	 * Sets the given <code>int</code> value on the field without boxing it
+	 *
+	 * @param object
+	 *            the object to set the value on
+	 * @param value
+	 *            the value to set
+	 */
+	public void setInt(final Object object, final int value)
+	{
+		try
+		{
+			field.setInt(object, value);
+		}
+		catch (final Exception ex)
+		{
+			throw new RuntimeException("Error setting field value of field " + field + " on object "
+				+ object + ", value " + value, ex);
+		}
+	}
+
+	/**
+	 * Sets the given <code>long</code> value on the field without boxing it
+	 *
+	 * @param object
+	 *            the object to set the value on
+	 * @param value
+	 *            the value to set
+	 */
+	public void setLong(final Object object, final long value)
+	{
+		try
+		{
+			field.setLong(object, value);
+		}
+		catch (final Exception ex)
+		{
+			throw new RuntimeException("Error setting field value of field " + field + " on object "
+				+ object + ", value " + value, ex);
+		}
+	}
+
+	/**
+	 * Sets the given <code>double</code> value on the field without boxing it
+	 *
+	 * @param object
+	 *            the object to set the value on
+	 * @param value
+	 *            the value to set
+	 */
+	public void setDouble(final Object object, final double value)
+	{
+		try
+		{
+			field.setDouble(object, value);
+		}
+		catch (final Exception ex)
+		{
+			throw new RuntimeException("Error setting field value of field " + field + " on object "
+				+ object + ", value " + value, ex);
+		}
+	}
 }
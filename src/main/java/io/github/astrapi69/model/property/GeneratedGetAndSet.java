@@ -0,0 +1,171 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.logging.Level;
+
+import io.github.astrapi69.model.api.AccessStrategy;
+import io.github.astrapi69.model.api.GetAndSetProvider;
+import io.github.astrapi69.model.reflect.BeanIndex;
+import lombok.extern.java.Log;
+
+/**
+ * The class {@link GeneratedGetAndSet} is the base class of the {@link GetAndSetProvider} accessors
+ * that are generated at compile time. Subclasses access the property with direct calls, the
+ * reflective members are only looked up if they are requested.
+ */
+@Log
+public abstract class GeneratedGetAndSet extends AbstractGetAndSet
+{
+	private final Class<?> type;
+
+	private final String property;
+
+	private final Class<?> targetClass;
+
+	/**
+	 * Instantiates a new {@link GeneratedGetAndSet}
+	 *
+	 * @param type
+	 *            the class that declares the property
+	 * @param property
+	 *            the name of the property
+	 * @param targetClass
+	 *            the type of the property
+	 */
+	protected GeneratedGetAndSet(final Class<?> type, final String property,
+		final Class<?> targetClass)
+	{
+		this.type = type;
+		this.property = property;
+		this.targetClass = targetClass;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public AccessStrategy getAccessStrategy()
+	{
+		return AccessStrategy.DIRECT;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Field getField()
+	{
+		return BeanIndex.of(type).getField(property);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Method getGetter()
+	{
+		return BeanIndex.of(type).getGetter(property);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Method getSetter()
+	{
+		final Method getter = getGetter();
+		return getter != null ? MethodGetAndSet.findSetter(getter, type) : null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Class<?> getTargetClass()
+	{
+		return targetClass;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object newValue(final Object object)
+	{
+		Object value = null;
+		try
+		{
+			value = newInstance(targetClass);
+			setValue(object, value);
+		}
+		catch (Throwable e)
+		{
+			log.log(Level.WARNING, "Cannot set new value " + value, e);
+			return null;
+		}
+		return value;
+	}
+
+	/**
+	 * Creates the exception for a null value that is written with the setter of a primitive
+	 * property, used by the generated subclasses like the property resolver throws it.
+	 *
+	 * @param object
+	 *            the object
+	 * @return the exception to throw
+	 */
+	protected RuntimeException nullValue(final Object object)
+	{
+		return new RuntimeException(
+			"Error calling method: " + getSetter() + " on object: " + object,
+			new IllegalArgumentException("Cannot set null on the primitive property " + property
+				+ " of " + type.getName()));
+	}
+
+	/**
+	 * Sets the value on the field of the property, used by the generated subclasses for properties
+	 * without a setter like the property resolver does.
+	 *
+	 * @param object
+	 *            the object
+	 * @param value
+	 *            the value to set
+	 * @throws RuntimeException
+	 *             if the property has no field or the field cannot be set
+	 */
+	protected void setField(final Object object, final Object value)
+	{
+		final Field field = getField();
+		if (field == null)
+		{
+			throw new RuntimeException("no set method defined for value: " + value
+				+ " on object: " + object + " for property " + property + " of " + type.getName());
+		}
+		try
+		{
+			field.trySetAccessible();
+			field.set(object, convert(value, field.getType()));
+		}
+		catch (Exception ex)
+		{
+			throw new RuntimeException("Error setting field: " + field + " on object: " + object,
+				ex);
+		}
+	}
+}
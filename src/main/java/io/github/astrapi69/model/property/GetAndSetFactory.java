@@ -0,0 +1,219 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.logging.Level;
+
+import io.github.astrapi69.model.api.GetAndSet;
+import lombok.extern.java.Log;
+
+/**
+ * The class {@link GetAndSetFactory} creates the {@link GetAndSet} objects for getter and setter
+ * methods. The created objects invoke the methods over {@link MethodHandle}s and fall back to core
+ * reflection if no {@link MethodHandle} can be created for a method.
+ */
+@Log
+final class GetAndSetFactory
+{
+
+	/** The type of the adapted getter handles. */
+	static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	/** The type of the adapted indexed getter handles. */
+	static final MethodType INDEXED_GETTER_TYPE = MethodType.methodType(Object.class,
+		Object.class, int.class);
+
+	/** The type of the adapted indexed setter handles. */
+	static final MethodType INDEXED_SETTER_TYPE = MethodType.methodType(void.class, Object.class,
+		int.class, Object.class);
+
+	/** The type of the adapted setter handles. */
+	static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class,
+		Object.class);
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	private GetAndSetFactory()
+	{
+	}
+
+	/**
+	 * Factory method for create a new {@link GetAndSet} object for the given getter and setter
+	 *
+	 * @param getMethod
+	 *            the getter method
+	 * @param setMethod
+	 *            the setter method or null
+	 * @param field
+	 *            the field that is used if no setter method exists or null
+	 * @return the new {@link GetAndSet} object
+	 */
+	static GetAndSet forMethod(final Method getMethod, final Method setMethod, final Field field)
+	{
+		try
+		{
+			return new MethodHandleGetAndSet(getMethod, setMethod, field);
+		}
+		catch (final IllegalAccessException e)
+		{
+			log.log(Level.FINE,
+				"Cannot create method handles for " + getMethod + ", falling back to reflection", e);
+		}
+		return new MethodGetAndSet(getMethod, setMethod, field);
+	}
+
+	/**
+	 * Factory method for create a new {@link GetAndSet} object for the given field. Fields that are
+	 * neither static nor final are accessed over a {@link VarHandle}.
+	 *
+	 * @param field
+	 *            the field
+	 * @return the new {@link GetAndSet} object
+	 */
+	static FieldGetAndSetter forField(final Field field)
+	{
+		final int modifiers = field.getModifiers();
+		if (!Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers))
+		{
+			try
+			{
+				return new VarHandleFieldGetAndSetter(field);
+			}
+			catch (final IllegalAccessException e)
+			{
+				log.log(Level.FINE,
+					"Cannot create var handle for " + field + ", falling back to reflection", e);
+			}
+		}
+		return new FieldGetAndSetter(field);
+	}
+
+	/**
+	 * Factory method for create a new {@link GetAndSet} object for the given indexed getter
+	 *
+	 * @param getMethod
+	 *            the indexed getter method
+	 * @param index
+	 *            the index
+	 * @return the new {@link GetAndSet} object
+	 */
+	static GetAndSet forIndexedMethod(final Method getMethod, final int index)
+	{
+		try
+		{
+			return new MethodHandleArrayPropertyGetSet(getMethod, index);
+		}
+		catch (final IllegalAccessException e)
+		{
+			log.log(Level.FINE,
+				"Cannot create method handles for " + getMethod + ", falling back to reflection", e);
+		}
+		return new ArrayPropertyGetSet(getMethod, index);
+	}
+
+	/**
+	 * Creates a {@link MethodHandle} for the given method that is adapted to the given type. The
+	 * receiver of a static method is dropped.
+	 *
+	 * @param method
+	 *            the method
+	 * @param type
+	 *            the type the handle is adapted to
+	 * @return the adapted {@link MethodHandle}
+	 * @throws IllegalAccessException
+	 *             is thrown if no access to the method is given
+	 */
+	static MethodHandle unreflect(final Method method, final MethodType type)
+		throws IllegalAccessException
+	{
+		MethodHandle handle;
+		if (method.trySetAccessible())
+		{
+			handle = LOOKUP.unreflect(method);
+		}
+		else
+		{
+			handle = MethodHandles.publicLookup().unreflect(method);
+		}
+		if (Modifier.isStatic(method.getModifiers()))
+		{
+			handle = MethodHandles.dropArguments(handle, 0, Object.class);
+		}
+		return handle.asType(type);
+	}
+
+	/**
+	 * Creates a setter {@link MethodHandle} for the given field that is adapted to the setter type.
+	 *
+	 * @param field
+	 *            the field
+	 * @return the adapted {@link MethodHandle}
+	 * @throws IllegalAccessException
+	 *             is thrown if no access to the field is given
+	 */
+	static MethodHandle unreflectSetter(final Field field) throws IllegalAccessException
+	{
+		MethodHandle handle;
+		if (field.trySetAccessible())
+		{
+			handle = LOOKUP.unreflectSetter(field);
+		}
+		else
+		{
+			handle = MethodHandles.publicLookup().unreflectSetter(field);
+		}
+		if (Modifier.isStatic(field.getModifiers()))
+		{
+			handle = MethodHandles.dropArguments(handle, 0, Object.class);
+		}
+		return handle.asType(SETTER_TYPE);
+	}
+
+	/**
+	 * Creates a {@link VarHandle} for the given field.
+	 *
+	 * @param field
+	 *            the field
+	 * @return the {@link VarHandle}
+	 * @throws IllegalAccessException
+	 *             is thrown if no access to the field is given
+	 */
+	static VarHandle unreflectVarHandle(final Field field) throws IllegalAccessException
+	{
+		final Class<?> declaringClass = field.getDeclaringClass();
+		if (field.trySetAccessible())
+		{
+			GetAndSetFactory.class.getModule().addReads(declaringClass.getModule());
+			try
+			{
+				return MethodHandles.privateLookupIn(declaringClass, LOOKUP)
+					.unreflectVarHandle(field);
+			}
+			catch (final IllegalAccessException e)
+			{
+				// the package is not open, only the public access remains
+			}
+		}
+		return MethodHandles.publicLookup().unreflectVarHandle(field);
+	}
+}
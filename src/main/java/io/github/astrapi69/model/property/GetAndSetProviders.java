@@ -0,0 +1,177 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Member;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.WeakHashMap;
+import java.util.logging.Level;
+
+import io.github.astrapi69.model.api.GetAndSet;
+import io.github.astrapi69.model.api.GetAndSetProvider;
+import io.github.astrapi69.model.api.ModelBean;
+import io.github.astrapi69.model.reflect.BeanIndex;
+import io.github.astrapi69.model.reflect.ClassLocal;
+import lombok.extern.java.Log;
+
+/**
+ * The class {@link GetAndSetProviders} finds the {@link GetAndSetProvider} of the classes that are
+ * annotated with {@link ModelBean}. The providers are loaded with the {@link ServiceLoader} once
+ * for every class loader of the annotated classes and indexed by their type. The index is held in
+ * a {@link ClassLocal} of every annotated class, so it does not keep the classes reachable, and
+ * only weakly by the class loader.
+ */
+@Log
+final class GetAndSetProviders
+{
+
+	/** The indexes of the providers by class loader, see {@link #index(ClassLoader)}. */
+	private static final Map<ClassLoader, WeakReference<Map<Class<?>, GetAndSetProvider>>> INDEXES = new WeakHashMap<>();
+
+	/** The index of the providers of the class loader of an annotated class. */
+	private static final ClassLocal<Map<Class<?>, GetAndSetProvider>> PROVIDERS = new ClassLocal<>()
+	{
+		@Override
+		protected Map<Class<?>, GetAndSetProvider> computeValue(final Class<?> type)
+		{
+			final Map<Class<?>, GetAndSetProvider> index = index(type.getClassLoader());
+			if (!index.containsKey(type))
+			{
+				log.log(Level.FINE, "No provider registered for " + type);
+			}
+			return index;
+		}
+	};
+
+	private GetAndSetProviders()
+	{
+	}
+
+	/**
+	 * Gets the generated {@link GetAndSet} for the given property of the given class or of one of
+	 * its annotated superclasses. The {@link GetAndSet} of an annotated superclass is only used if
+	 * the given class does not declare its own getter, setter or field of the property, for
+	 * instance a covariant getter or a setter the superclass does not have.
+	 *
+	 * @param clz
+	 *            the class
+	 * @param property
+	 *            the name of the property
+	 * @return the {@link GetAndSet} or null if no provider provides the property
+	 */
+	static GetAndSet getGetAndSet(final Class<?> clz, final String property)
+	{
+		for (Class<?> type = clz; type != null && type != Object.class; type = type.getSuperclass())
+		{
+			if (type.isAnnotationPresent(ModelBean.class))
+			{
+				final GetAndSetProvider provider = PROVIDERS.get(type).get(type);
+				final GetAndSet getAndSet = provider != null
+					? provider.getGetAndSet(property)
+					: null;
+				if (getAndSet != null)
+				{
+					return type == clz || !isDeclaredBelow(clz, type, property) ? getAndSet : null;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Checks if the getter, the setter or the field of the given property of the given class is
+	 * declared in a subclass of the given annotated type.
+	 */
+	private static boolean isDeclaredBelow(final Class<?> clz, final Class<?> type,
+		final String property)
+	{
+		final BeanIndex index = BeanIndex.of(clz);
+		return isDeclaredBelow(index.getGetter(property), type)
+			|| isDeclaredBelow(index.getSetter(property), type)
+			|| isDeclaredBelow(index.getField(property), type);
+	}
+
+	private static boolean isDeclaredBelow(final Member member, final Class<?> type)
+	{
+		return member != null && member.getDeclaringClass() != type
+			&& type.isAssignableFrom(member.getDeclaringClass());
+	}
+
+	/**
+	 * Gets the providers of the given class loader by their type. They are loaded only once as long
+	 * as an annotated class of the class loader holds the index.
+	 */
+	private static Map<Class<?>, GetAndSetProvider> index(final ClassLoader classLoader)
+	{
+		synchronized (INDEXES)
+		{
+			final WeakReference<Map<Class<?>, GetAndSetProvider>> reference = INDEXES
+				.get(classLoader);
+			final Map<Class<?>, GetAndSetProvider> index = reference != null
+				? reference.get()
+				: null;
+			if (index != null)
+			{
+				return index;
+			}
+		}
+		// the providers are loaded without the lock, as loading them initializes their classes
+		final Map<Class<?>, GetAndSetProvider> loaded = load(classLoader);
+		synchronized (INDEXES)
+		{
+			final WeakReference<Map<Class<?>, GetAndSetProvider>> reference = INDEXES
+				.get(classLoader);
+			final Map<Class<?>, GetAndSetProvider> index = reference != null
+				? reference.get()
+				: null;
+			if (index != null)
+			{
+				return index;
+			}
+			INDEXES.put(classLoader, new WeakReference<>(loaded));
+			return loaded;
+		}
+	}
+
+	private static Map<Class<?>, GetAndSetProvider> load(final ClassLoader classLoader)
+	{
+		final Map<Class<?>, GetAndSetProvider> index = new HashMap<>();
+		final Iterator<GetAndSetProvider> providers = ServiceLoader
+			.load(GetAndSetProvider.class, classLoader).iterator();
+		while (true)
+		{
+			try
+			{
+				if (!providers.hasNext())
+				{
+					break;
+				}
+				final GetAndSetProvider provider = providers.next();
+				index.putIfAbsent(provider.getType(), provider);
+			}
+			catch (final ServiceConfigurationError e)
+			{
+				log.log(Level.WARNING, "Cannot load a provider of " + classLoader, e);
+			}
+		}
+		return index;
+	}
+}
@@ -0,0 +1,216 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+
+import io.github.astrapi69.model.api.GetAndSet;
+import io.github.astrapi69.model.reflect.ClassLocal;
+import lombok.extern.java.Log;
+
+/**
+ * The class {@link HiddenClassAccessors} generates and caches the {@link CompiledPropertyAccessor}
+ * of a property expression for a root class. The accessor is defined as a hidden class in the
+ * package of the root class, so it is unloaded together with the root class. The accessors and
+ * the lookup that defines them are attached to the root class with a {@link ClassLocal}, which
+ * holds them strongly only for the class loaders that are parents of the class loader of this
+ * library. So they do not keep a root class of any other class loader reachable. <br>
+ * An expression gets an accessor only if all of its segments are getters that can be resolved on
+ * the declared types and are accessible from the root class. Map keys, list and array indexes and
+ * fields are left to the {@link PropertyResolver}. <br>
+ * Defining a hidden class needs a lookup with full privilege access in the package of the root
+ * class. If the root class is in another module than this library, for instance because it is
+ * loaded by another class loader, such a lookup has to be registered with
+ * {@link #register(MethodHandles.Lookup)} by a class of that package. Without a registered lookup
+ * the expressions of such a root class are not compiled.
+ */
+@Log
+final class HiddenClassAccessors
+{
+
+	/** The marker for expressions that cannot be compiled for a root class. */
+	private static final Object NOT_COMPILED = new Object();
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	/** The accessors of the expressions of a root class. */
+	private static final ClassLocal<Accessors> ACCESSORS = new ClassLocal<>()
+	{
+		@Override
+		protected Accessors computeValue(final Class<?> type)
+		{
+			return new Accessors();
+		}
+	};
+
+	/** The classes of the registered lookups by package name. */
+	private static final ConcurrentHashMap<String, List<WeakReference<Class<?>>>> LOOKUP_CLASSES = new ConcurrentHashMap<>();
+
+	private HiddenClassAccessors()
+	{
+	}
+
+	/**
+	 * Registers the given lookup for the package of its lookup class. The accessors of the root
+	 * classes in that package are defined with this lookup.
+	 *
+	 * @param lookup
+	 *            the lookup with full privilege access
+	 * @throws IllegalArgumentException
+	 *             if the lookup has no full privilege access
+	 */
+	static void register(final MethodHandles.Lookup lookup)
+	{
+		if (!lookup.hasFullPrivilegeAccess())
+		{
+			throw new IllegalArgumentException(
+				"The lookup of " + lookup.lookupClass() + " has no full privilege access");
+		}
+		final Class<?> lookupClass = lookup.lookupClass();
+		ACCESSORS.get(lookupClass).register(lookup);
+		final List<WeakReference<Class<?>>> classes = LOOKUP_CLASSES
+			.computeIfAbsent(lookupClass.getPackageName(), name -> new CopyOnWriteArrayList<>());
+		classes.removeIf(reference -> reference.get() == null);
+		classes.add(new WeakReference<>(lookupClass));
+	}
+
+	/**
+	 * Gets the registered lookup in the package of the given root class.
+	 *
+	 * @param root
+	 *            the root class
+	 * @return the registered lookup or null if no lookup is registered for the package
+	 */
+	private static MethodHandles.Lookup registeredLookup(final Class<?> root)
+	{
+		final List<WeakReference<Class<?>>> classes = LOOKUP_CLASSES.get(root.getPackageName());
+		if (classes != null)
+		{
+			for (final WeakReference<Class<?>> reference : classes)
+			{
+				final Class<?> lookupClass = reference.get();
+				if (lookupClass != null && lookupClass != root
+					&& lookupClass.getClassLoader() == root.getClassLoader())
+				{
+					return ACCESSORS.get(lookupClass).lookup;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the accessor of the given compiled expression for the given root class. The accessor is
+	 * generated on the first call.
+	 *
+	 * @param root
+	 *            the class of the root object
+	 * @param path
+	 *            the compiled expression
+	 * @return the accessor or null if the expression cannot be compiled for the root class
+	 */
+	static CompiledPropertyAccessor get(final Class<?> root, final PropertyPath path)
+	{
+		final Accessors accessors = ACCESSORS.get(root);
+		Object accessor = accessors.compiled.get(path.getExpression());
+		if (accessor == null)
+		{
+			accessor = accessors.compiled.computeIfAbsent(path.getExpression(),
+				expression -> compile(root, path, accessors));
+		}
+		return accessor == NOT_COMPILED ? null : (CompiledPropertyAccessor)accessor;
+	}
+
+	private static Object compile(final Class<?> root, final PropertyPath path,
+		final Accessors accessors)
+	{
+		if (root.isHidden() || root.isArray() || root.isPrimitive())
+		{
+			return NOT_COMPILED;
+		}
+		final GetAndSet[] chain = path.resolveChain(root);
+		if (chain == null)
+		{
+			return NOT_COMPILED;
+		}
+		final AccessorClassWriter writer = new AccessorClassWriter(root, chain);
+		if (!writer.isReadable())
+		{
+			return NOT_COMPILED;
+		}
+		try
+		{
+			final MethodHandles.Lookup lookup = accessors.lookup(root);
+			if (lookup == null)
+			{
+				log.log(Level.FINE, "No lookup is registered for the package of " + root
+					+ ", the expression " + path.getExpression() + " is not compiled");
+				return NOT_COMPILED;
+			}
+			final MethodHandles.Lookup accessor = lookup
+				.defineHiddenClass(writer.toByteArray(root.getName() + "$$PropertyAccessor"), true);
+			return accessor
+				.findConstructor(accessor.lookupClass(), MethodType.methodType(void.class)).invoke();
+		}
+		catch (final Throwable e)
+		{
+			log.log(Level.FINE, "Cannot generate an accessor for the expression "
+				+ path.getExpression() + " of " + root + ", falling back to the resolver", e);
+			return NOT_COMPILED;
+		}
+	}
+
+	/**
+	 * The accessors of a root class and the lookup that defines them.
+	 */
+	private static final class Accessors
+	{
+		/** The accessors or the {@link #NOT_COMPILED} marker of the expressions. */
+		final ConcurrentHashMap<String, Object> compiled = new ConcurrentHashMap<>(8);
+
+		/** The lookup with full privilege access in the package of the root class. */
+		private volatile MethodHandles.Lookup lookup;
+
+		synchronized void register(final MethodHandles.Lookup lookup)
+		{
+			this.lookup = lookup;
+		}
+
+		/**
+		 * Gets a lookup with full privilege access in the package of the given root class, as it
+		 * is needed to define a hidden class. If the root class is in another module the lookup
+		 * has to be registered for its package.
+		 */
+		synchronized MethodHandles.Lookup lookup(final Class<?> root) throws IllegalAccessException
+		{
+			if (lookup == null)
+			{
+				final Module module = HiddenClassAccessors.class.getModule();
+				module.addReads(root.getModule());
+				lookup = root.getModule() == module
+					? MethodHandles.privateLookupIn(root, LOOKUP)
+					: registeredLookup(root);
+			}
+			return lookup;
+		}
+	}
+}
@@ -17,6 +17,8 @@ package io.github.astrapi69.model.property;
 
 import java.util.List;
 
+import io.github.astrapi69.model.api.AccessStrategy;
+
 public final class ListGetSet extends AbstractGetAndSet
 {
 	final private int index;
@@ -26,6 +28,15 @@ public final class ListGetSet extends AbstractGetAndSet
 		this.index = index;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public AccessStrategy getAccessStrategy()
+	{
+		return AccessStrategy.DIRECT;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
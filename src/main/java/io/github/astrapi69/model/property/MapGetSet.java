@@ -17,6 +17,8 @@ package io.github.astrapi69.model.property;
 
 import java.util.Map;
 
+import io.github.astrapi69.model.api.AccessStrategy;
+
 public final class MapGetSet extends AbstractGetAndSet
 {
 	private final String key;
@@ -26,6 +28,15 @@ public final class MapGetSet extends AbstractGetAndSet
 		this.key = key;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public AccessStrategy getAccessStrategy()
+	{
+		return AccessStrategy.DIRECT;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
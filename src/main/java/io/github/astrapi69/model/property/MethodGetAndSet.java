@@ -20,6 +20,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.logging.Level;
 
+import io.github.astrapi69.model.reflect.BeanIndex;
 import lombok.extern.java.Log;
 
 @Log
@@ -28,13 +29,17 @@ final class MethodGetAndSet extends AbstractGetAndSet
 	private final Field field;
 	private final Method getMethod;
 	private final Method setMethod;
+	private final Class<?> setType;
 
 	MethodGetAndSet(Method getMethod, Method setMethod, Field field)
 	{
 		this.getMethod = getMethod;
-		this.getMethod.setAccessible(true);
+		this.getMethod.trySetAccessible();
 		this.field = field;
 		this.setMethod = setMethod;
+		this.setType = setMethod != null
+			? setMethod.getParameterTypes()[0]
+			: field != null ? field.getType() : null;
 	}
 
 	public final static Method findSetter(Method getMethod, Class<?> clz)
@@ -48,38 +53,25 @@ final class MethodGetAndSet extends AbstractGetAndSet
 		{
 			name = SET + name.substring(2);
 		}
-		try
+		final BeanIndex index = BeanIndex.of(clz);
+		Method method = index.getMethod(name, getMethod.getReturnType());
+		if (method != null)
 		{
-			Method method = clz.getMethod(name, new Class[] { getMethod.getReturnType() });
-			if (method != null)
-			{
-				method.setAccessible(true);
-			}
+			method.trySetAccessible();
 			return method;
 		}
-		catch (NoSuchMethodException e)
+		for (Method candidate : index.getMethods(name))
 		{
-			Method[] methods = clz.getMethods();
-			for (Method method : methods)
+			Class<?>[] parameterTypes = candidate.getParameterTypes();
+			if (parameterTypes.length == 1)
 			{
-				if (method.getName().equals(name))
+				if (parameterTypes[0].isAssignableFrom(getMethod.getReturnType()))
 				{
-					Class<?>[] parameterTypes = method.getParameterTypes();
-					if (parameterTypes.length == 1)
-					{
-						if (parameterTypes[0].isAssignableFrom(getMethod.getReturnType()))
-						{
-							return method;
-						}
-					}
+					return candidate;
 				}
 			}
-			log.log(Level.FINE, "Cannot find setter corresponding to " + getMethod);
-		}
-		catch (Exception e)
-		{
-			log.log(Level.FINE, "Cannot find setter corresponding to " + getMethod);
 		}
+		log.log(Level.FINE, "Cannot find setter corresponding to " + getMethod);
 		return null;
 	}
 
@@ -159,10 +151,10 @@ final class MethodGetAndSet extends AbstractGetAndSet
 		Object value = null;
 		try
 		{
-			value = clz.newInstance();
+			value = newInstance(clz);
 			setMethod.invoke(object, value);
 		}
-		catch (Exception e)
+		catch (Throwable e)
 		{
 			log.log(Level.WARNING, "Cannot set new value " + value, e);
 		}
@@ -176,10 +168,7 @@ final class MethodGetAndSet extends AbstractGetAndSet
 	@Override
 	public final void setValue(final Object object, final Object value)
 	{
-
-		Object converted = value;
-
-
+		final Object converted = convert(value, setType);
 		if (setMethod != null)
 		{
 			try
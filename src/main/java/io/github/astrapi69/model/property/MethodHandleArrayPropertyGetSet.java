@@ -0,0 +1,171 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.util.logging.Level;
+
+import io.github.astrapi69.model.api.AccessStrategy;
+import lombok.extern.java.Log;
+
+/**
+ * The class {@link MethodHandleArrayPropertyGetSet} accesses an indexed property like
+ * <code>getProperty(int)</code> and <code>setProperty(int, value)</code> over
+ * {@link MethodHandle}s.
+ */
+@Log
+final class MethodHandleArrayPropertyGetSet extends AbstractGetAndSet
+{
+	final private Method getMethod;
+	final private MethodHandle getHandle;
+	final private int index;
+	private Method setMethod;
+	private MethodHandle setHandle;
+
+	MethodHandleArrayPropertyGetSet(final Method method, final int index)
+		throws IllegalAccessException
+	{
+		this.index = index;
+		this.getMethod = method;
+		this.getHandle = GetAndSetFactory.unreflect(method, GetAndSetFactory.INDEXED_GETTER_TYPE);
+	}
+
+	/**
+	 * Gets the setter handle and looks it up on the first call
+	 *
+	 * @param object
+	 *            the object to look up the setter method
+	 * @return the setter handle or null if no setter method exists
+	 */
+	private MethodHandle getSetHandle(final Object object)
+	{
+		if (setHandle == null)
+		{
+			final Method method = ArrayPropertyGetSet.findSetter(getMethod, object.getClass());
+			if (method == null)
+			{
+				return null;
+			}
+			try
+			{
+				setHandle = GetAndSetFactory.unreflect(method,
+					GetAndSetFactory.INDEXED_SETTER_TYPE);
+				setMethod = method;
+			}
+			catch (final IllegalAccessException ex)
+			{
+				throw new RuntimeException(
+					"Error index property calling method: " + method + " on object: " + object, ex);
+			}
+		}
+		return setHandle;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public AccessStrategy getAccessStrategy()
+	{
+		return AccessStrategy.METHOD_HANDLE;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Method getGetter()
+	{
+		return getMethod;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Class<?> getTargetClass()
+	{
+		return getMethod.getReturnType();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object getValue(Object object)
+	{
+		try
+		{
+			return (Object)getHandle.invokeExact(object, index);
+		}
+		catch (Throwable ex)
+		{
+			throw new RuntimeException(
+				"Error calling index property method: " + getMethod + " on object: " + object, ex);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object newValue(Object object)
+	{
+		final MethodHandle handle = getSetHandle(object);
+		if (handle == null)
+		{
+			log.log(Level.WARNING, "Null setMethod");
+			return null;
+		}
+
+		Class<?> clz = getMethod.getReturnType();
+		Object value = null;
+		try
+		{
+			value = newInstance(clz);
+			handle.invokeExact(object, index, value);
+		}
+		catch (Throwable e)
+		{
+			log.log(Level.WARNING, "Cannot set new value " + value + " at index " + index, e);
+		}
+		return value;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setValue(final Object object, final Object value)
+	{
+		final MethodHandle handle = getSetHandle(object);
+		if (handle == null)
+		{
+			throw new RuntimeException(
+				"No set method defined for value: " + value + " on object: " + object);
+		}
+		try
+		{
+			handle.invokeExact(object, index, value);
+		}
+		catch (Throwable ex)
+		{
+			throw new RuntimeException(
+				"Error index property calling method: " + setMethod + " on object: " + object, ex);
+		}
+	}
+}
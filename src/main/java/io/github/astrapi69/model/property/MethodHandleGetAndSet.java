@@ -0,0 +1,179 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.logging.Level;
+
+import io.github.astrapi69.model.api.AccessStrategy;
+import lombok.extern.java.Log;
+
+/**
+ * The class {@link MethodHandleGetAndSet} accesses a property over the {@link MethodHandle}s of
+ * its getter and setter methods. If no setter exists the value is set on the given field.
+ */
+@Log
+final class MethodHandleGetAndSet extends AbstractGetAndSet
+{
+	private final Field field;
+	private final Method getMethod;
+	private final Method setMethod;
+	private final MethodHandle getHandle;
+	private final MethodHandle setHandle;
+	private final Class<?> setType;
+
+	MethodHandleGetAndSet(Method getMethod, Method setMethod, Field field)
+		throws IllegalAccessException
+	{
+		this.getMethod = getMethod;
+		this.setMethod = setMethod;
+		this.field = field;
+		this.getHandle = GetAndSetFactory.unreflect(getMethod, GetAndSetFactory.GETTER_TYPE);
+		if (setMethod != null)
+		{
+			this.setHandle = GetAndSetFactory.unreflect(setMethod, GetAndSetFactory.SETTER_TYPE);
+		}
+		else if (field != null)
+		{
+			this.setHandle = GetAndSetFactory.unreflectSetter(field);
+		}
+		else
+		{
+			this.setHandle = null;
+		}
+		this.setType = setMethod != null
+			? setMethod.getParameterTypes()[0]
+			: field != null ? field.getType() : null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public AccessStrategy getAccessStrategy()
+	{
+		return AccessStrategy.METHOD_HANDLE;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Field getField()
+	{
+		return field;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Method getGetter()
+	{
+		return getMethod;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Method getSetter()
+	{
+		return setMethod;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Class<?> getTargetClass()
+	{
+		return getMethod.getReturnType();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object getValue(final Object object)
+	{
+		try
+		{
+			return (Object)getHandle.invokeExact(object);
+		}
+		catch (Throwable ex)
+		{
+			throw new RuntimeException(
+				"Error calling method: " + getMethod + " on object: " + object, ex);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object newValue(Object object)
+	{
+		if (setMethod == null)
+		{
+			log.log(Level.WARNING, "Null setMethod");
+			return null;
+		}
+
+		Class<?> clz = getMethod.getReturnType();
+		Object value = null;
+		try
+		{
+			value = newInstance(clz);
+			setHandle.invokeExact(object, value);
+		}
+		catch (Throwable e)
+		{
+			log.log(Level.WARNING, "Cannot set new value " + value, e);
+		}
+		return value;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setValue(final Object object, final Object value)
+	{
+		if (setHandle == null)
+		{
+			throw new RuntimeException("no set method defined for value: " + value + " on object: "
+				+ object + " while respective getMethod being " + getMethod.getName());
+		}
+		final Object converted = convert(value, setType);
+		try
+		{
+			setHandle.invokeExact(object, converted);
+		}
+		catch (Throwable ex)
+		{
+			if (setMethod != null)
+			{
+				throw new RuntimeException(
+					"Error calling method: " + setMethod + " on object: " + object, ex);
+			}
+			throw new RuntimeException("Error setting field: " + field + " on object: " + object,
+				ex);
+		}
+	}
+}
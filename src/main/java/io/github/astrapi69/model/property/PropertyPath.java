@@ -0,0 +1,830 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import io.github.astrapi69.model.api.GetAndSet;
+import io.github.astrapi69.model.reflect.BeanIndex;
+import io.github.astrapi69.model.reflect.Reflection;
+
+/**
+ * The class {@link PropertyPath} is a property expression that is parsed once into its segments, so
+ * evaluating it does not need any string work. Every segment remembers the {@link GetAndSet} that
+ * was resolved for the last receiver class it has seen, so repeated evaluations on objects of the
+ * same class skip the lookup in the {@link PropertyResolver} cache as well. Map keys and list or
+ * array indexes are bound to their segment, so they do not need an entry in that cache. <br>
+ * Instances are created with {@link PropertyResolver#compile(String)}, are thread safe and can be
+ * shared and reused for any number of objects. The supported expressions are the same as for the
+ * {@link PropertyResolver}.
+ */
+public final class PropertyPath implements Serializable
+{
+
+	/** The Constant serialVersionUID. */
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/** The operation that gets the value of the last segment. */
+	private static final int GET_VALUE = 0;
+
+	/** The operation that sets the value of the last segment. */
+	private static final int SET_VALUE = 1;
+
+	/** The operation that returns the {@link ObjectAndGetSetter} of the last segment. */
+	private static final int OBJECT_AND_GET_SETTER = 2;
+
+	/** The result of an evaluation that stopped at a null value. */
+	private static final Object NULL_RECEIVER = new Object();
+
+	/** The result of a step on a segment that cannot be resolved by itself. */
+	static final Object UNRESOLVED = new Object();
+
+	/** The element type of a {@link List}. */
+	private static final Type LIST_ELEMENT = List.class.getTypeParameters()[0];
+
+	/** The value type of a {@link Map}. */
+	private static final Type MAP_VALUE = Map.class.getTypeParameters()[1];
+
+	/** The expression this path was compiled from. */
+	private final String expression;
+
+	/** The segments without the last one, which is held in {@link #lastSegment}. */
+	private final transient Segment[] segments;
+
+	/** The last segment or null if the expression is empty. */
+	private final transient Segment lastSegment;
+
+	/**
+	 * Instantiates a new {@link PropertyPath} from the given expression.
+	 *
+	 * @param expression
+	 *            the property expression
+	 * @param inlineCaching
+	 *            flag that indicates if the segments should remember their resolved
+	 *            {@link GetAndSet}
+	 */
+	PropertyPath(final String expression, final boolean inlineCaching)
+	{
+		this.expression = expression;
+		if (expression == null || expression.isEmpty())
+		{
+			this.segments = new Segment[0];
+			this.lastSegment = null;
+			return;
+		}
+		String expressionBracketsSeperated = PropertyResolver.replaceAll(expression, "[", ".[")
+			.toString();
+		int index = getNextDotIndex(expressionBracketsSeperated, 0);
+		while (index == 0 && expressionBracketsSeperated.startsWith("."))
+		{
+			// eat dots at the beginning of the expression since they will confuse
+			// later steps
+			expressionBracketsSeperated = expressionBracketsSeperated.substring(1);
+			index = getNextDotIndex(expressionBracketsSeperated, 0);
+		}
+		final List<int[]> bounds = new ArrayList<>();
+		int lastIndex = 0;
+		int lastStart = 0;
+		while (index != -1)
+		{
+			if (index == lastIndex)
+			{
+				// an empty segment, the rest of the expression is the last segment
+				lastStart = index + 1;
+				break;
+			}
+			bounds.add(new int[] { lastIndex, index });
+			lastIndex = index + 1;
+			lastStart = lastIndex;
+			index = getNextDotIndex(expressionBracketsSeperated, lastIndex);
+		}
+		final int length = expressionBracketsSeperated.length();
+		this.segments = new Segment[bounds.size()];
+		for (int i = 0; i < segments.length; i++)
+		{
+			final int start = bounds.get(i)[0];
+			final int nextEnd = i + 1 < segments.length ? bounds.get(i + 1)[1] : length;
+			segments[i] = new Segment(
+				expressionBracketsSeperated.substring(start, bounds.get(i)[1]),
+				expressionBracketsSeperated.substring(start, nextEnd), inlineCaching);
+		}
+		this.lastSegment = new Segment(expressionBracketsSeperated.substring(lastStart), null,
+			inlineCaching);
+	}
+
+	/**
+	 * Gets the next index of the dot
+	 *
+	 * @param expression
+	 *            the expression
+	 * @param start
+	 *            the index to start
+	 * @return next dot index
+	 */
+	private static int getNextDotIndex(final String expression, final int start)
+	{
+		boolean insideBracket = false;
+		for (int i = start; i < expression.length(); i++)
+		{
+			final char ch = expression.charAt(i);
+			if (ch == '.' && !insideBracket)
+			{
+				return i;
+			}
+			else if (ch == '[')
+			{
+				insideBracket = true;
+			}
+			else if (ch == ']')
+			{
+				insideBracket = false;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Gets the expression this path was compiled from.
+	 *
+	 * @return the expression
+	 */
+	public String getExpression()
+	{
+		return expression;
+	}
+
+	/**
+	 * Checks if the expression of this path is empty.
+	 *
+	 * @return true, if the expression is null or empty
+	 */
+	public boolean isEmpty()
+	{
+		return lastSegment == null;
+	}
+
+	/**
+	 * Gets the number of the segments of this path.
+	 *
+	 * @return the number of segments, zero if the expression is empty
+	 */
+	int size()
+	{
+		return isEmpty() ? 0 : segments.length + 1;
+	}
+
+	/**
+	 * Gets the expression of the segment at the given index.
+	 *
+	 * @param index
+	 *            the index of the segment
+	 * @return the expression of the segment
+	 */
+	String segmentExpression(final int index)
+	{
+		return segment(index).expression;
+	}
+
+	/**
+	 * Gets the value of the segment at the given index on the given receiver, so a path can be
+	 * evaluated segment by segment.
+	 *
+	 * @param index
+	 *            the index of the segment
+	 * @param receiver
+	 *            the receiver, not null
+	 * @return the value or {@link #UNRESOLVED} if the segment cannot be resolved by itself, for
+	 *         instance a getProperty(int) lookup together with the following segment
+	 */
+	Object step(final int index, final Object receiver)
+	{
+		final GetAndSet getAndSetter = segment(index).resolve(receiver.getClass());
+		if (getAndSetter instanceof UnresolvedGetAndSet)
+		{
+			return UNRESOLVED;
+		}
+		return getAndSetter.getValue(receiver);
+	}
+
+	private Segment segment(final int index)
+	{
+		return index < segments.length ? segments[index] : lastSegment;
+	}
+
+	/**
+	 * Looks up the value from the given object. If the object itself or one property evaluates to
+	 * null then a null will be returned.
+	 *
+	 * @param object
+	 *            The object which is evaluated.
+	 * @return The value that is evaluated. Null something in the expression evaluated to null.
+	 * @see PropertyResolver#getValue(String, Object)
+	 */
+	public Object getValue(final Object object)
+	{
+		if (isEmpty() || object == null)
+		{
+			return object;
+		}
+		if (PropertyResolver.isBytecodeAccessorsEnabled())
+		{
+			final CompiledPropertyAccessor accessor = HiddenClassAccessors.get(object.getClass(),
+				this);
+			if (accessor != null)
+			{
+				try
+				{
+					return accessor.getValue(object);
+				}
+				catch (final Exception e)
+				{
+					throw new RuntimeException(
+						"Error evaluating expression: " + expression + " on object: " + object, e);
+				}
+			}
+		}
+		final Object value = evaluate(object, PropertyResolver.RETURN_NULL, object.getClass(),
+			GET_VALUE, null);
+		return value == NULL_RECEIVER ? null : value;
+	}
+
+	/**
+	 * Set the value on the given object. If a null object is encountered then it will try to
+	 * generate it by calling the default constructor and set it on the object.
+	 *
+	 * @param object
+	 *            The object which is evaluated to set the value on.
+	 * @param value
+	 *            The value to set.
+	 * @throws RuntimeException
+	 *             is thrown if the expression is empty or the object is null or the setter could
+	 *             not be found
+	 * @see PropertyResolver#setValue(String, Object, Object)
+	 */
+	public void setValue(final Object object, final Object value)
+	{
+		if (isEmpty())
+		{
+			throw new RuntimeException(
+				"Empty expression setting value: " + value + " on object: " + object);
+		}
+		if (object == null)
+		{
+			throw new RuntimeException(
+				"Attempted to set property value on a null object. Property expression: "
+					+ expression + " Value: " + value);
+		}
+		if (PropertyResolver.isBytecodeAccessorsEnabled())
+		{
+			final CompiledPropertyAccessor accessor = HiddenClassAccessors.get(object.getClass(),
+				this);
+			try
+			{
+				if (accessor != null && accessor.setValue(object, value))
+				{
+					return;
+				}
+			}
+			catch (final Exception e)
+			{
+				throw new RuntimeException("Error setting value: " + value + " for expression: "
+					+ expression + " on object: " + object, e);
+			}
+		}
+		if (evaluate(object, PropertyResolver.CREATE_NEW_VALUE, object.getClass(), SET_VALUE,
+			value) == NULL_RECEIVER)
+		{
+			throw new RuntimeException("Null object returned for expression: " + expression
+				+ " for setting value: " + value + " on: " + object);
+		}
+	}
+
+	/**
+	 * Walks the segments on the given object and resolves the {@link GetAndSet} of the last
+	 * segment.
+	 *
+	 * @param object
+	 *            the object
+	 * @param tryToCreateNull
+	 *            the int flag that indicates if a new value should be set or to resolve the class
+	 * @param clz
+	 *            the class
+	 * @return {@link ObjectAndGetSetter} or null if an intermediate value evaluates to null
+	 */
+	ObjectAndGetSetter getObjectAndGetSetter(final Object object, final int tryToCreateNull,
+		final Class<?> clz)
+	{
+		final Object result = evaluate(object, tryToCreateNull, clz, OBJECT_AND_GET_SETTER, null);
+		return result == NULL_RECEIVER ? null : (ObjectAndGetSetter)result;
+	}
+
+	/**
+	 * Walks the segments on the given object and applies the given operation with the
+	 * {@link GetAndSet} of the last segment. Apart from the {@link ObjectAndGetSetter} for that
+	 * operation nothing is allocated once the segments are resolved.
+	 *
+	 * @param object
+	 *            the object
+	 * @param tryToCreateNull
+	 *            the int flag that indicates if a new value should be set or to resolve the class
+	 * @param clz
+	 *            the class
+	 * @param operation
+	 *            the operation on the last segment
+	 * @param newValue
+	 *            the value to set for the {@link #SET_VALUE} operation
+	 * @return the result of the operation or {@link #NULL_RECEIVER} if an intermediate value
+	 *         evaluates to null
+	 */
+	private Object evaluate(final Object object, final int tryToCreateNull, Class<?> clz,
+		final int operation, final Object newValue)
+	{
+		Object value = object;
+		Segment last = lastSegment;
+		for (int i = 0; i < segments.length; i++)
+		{
+			final Segment segment = segments[i];
+			GetAndSet getAndSetter = segment.resolve(clz);
+			if (getAndSetter instanceof UnresolvedGetAndSet)
+			{
+				if (segment.joined == null)
+				{
+					throw ((UnresolvedGetAndSet)getAndSetter).failure();
+				}
+				// expression by it self can't be found. try to find a
+				// setPropertyByIndex(int,value) method
+				if (i + 1 == segments.length)
+				{
+					// the segment and the last one are resolved together
+					last = segment.joinedSegment();
+					break;
+				}
+				// a getProperty(int) lookup consumes the next segment as well
+				getAndSetter = segment.resolveJoined(clz);
+				i++;
+			}
+			Object nextValue = null;
+			if (value != null)
+			{
+				nextValue = getAndSetter.getValue(value);
+			}
+			if (nextValue == null)
+			{
+				if (tryToCreateNull == PropertyResolver.CREATE_NEW_VALUE)
+				{
+					nextValue = getAndSetter.newValue(value);
+					if (nextValue == null)
+					{
+						return NULL_RECEIVER;
+					}
+				}
+				else if (tryToCreateNull == PropertyResolver.RESOLVE_CLASS)
+				{
+					clz = getAndSetter.getTargetClass();
+				}
+				else
+				{
+					return NULL_RECEIVER;
+				}
+			}
+			value = nextValue;
+			if (value != null)
+			{
+				// value can be null if we are in the RESOLVE_CLASS
+				clz = value.getClass();
+			}
+		}
+		final GetAndSet getAndSetter = last.resolve(clz);
+		if (getAndSetter instanceof UnresolvedGetAndSet)
+		{
+			throw ((UnresolvedGetAndSet)getAndSetter).failure();
+		}
+		switch (operation)
+		{
+			case GET_VALUE :
+				return getAndSetter.getValue(value);
+			case SET_VALUE :
+				getAndSetter.setValue(value, newValue);
+				return null;
+			default :
+				return new ObjectAndGetSetter(getAndSetter, value);
+		}
+	}
+
+	/**
+	 * Gets an accessor that evaluates this path on objects of the given root class with the
+	 * {@link GetAndSet} of every segment resolved once, or with a generated hidden class if
+	 * bytecode accessors are enabled. Callers that evaluate the path on objects of the same class
+	 * again and again can keep the accessor as long as the class does not change.
+	 *
+	 * @param root
+	 *            the root class
+	 * @return the accessor or null if the segments cannot be resolved on the declared types, for
+	 *         instance a map key or a list index, so the path has to be evaluated
+	 */
+	public CompiledPropertyAccessor getAccessor(final Class<?> root)
+	{
+		if (PropertyResolver.isBytecodeAccessorsEnabled())
+		{
+			final CompiledPropertyAccessor accessor = HiddenClassAccessors.get(root, this);
+			if (accessor != null)
+			{
+				return accessor;
+			}
+		}
+		final GetAndSet[] chain = resolveChain(root);
+		return chain != null ? new AccessorChain(chain) : null;
+	}
+
+	/**
+	 * Resolves the segments on the declared types, starting with the given root class, for a
+	 * generated {@link CompiledPropertyAccessor}.
+	 *
+	 * @param root
+	 *            the root class
+	 * @return the {@link GetAndSet} of every segment or null if a segment is not a getter that can
+	 *         be resolved on the declared type, for instance a map key or a list index
+	 */
+	GetAndSet[] resolveChain(final Class<?> root)
+	{
+		if (isEmpty())
+		{
+			return null;
+		}
+		final GetAndSet[] chain = new GetAndSet[segments.length + 1];
+		Class<?> clz = root;
+		for (int i = 0; i < chain.length; i++)
+		{
+			final Segment segment = i < segments.length ? segments[i] : lastSegment;
+			if (clz.isPrimitive() || segment.keyedGetAndSet(clz) != null)
+			{
+				return null;
+			}
+			final GetAndSet getAndSetter = PropertyResolver.resolveGetAndSetter(segment.expression,
+				clz);
+			if (getAndSetter instanceof UnresolvedGetAndSet)
+			{
+				return null;
+			}
+			final Method getter = getAndSetter.getGetter();
+			if (getter == null || getter.getParameterCount() != 0
+				|| Modifier.isStatic(getter.getModifiers()))
+			{
+				return null;
+			}
+			chain[i] = getAndSetter;
+			clz = getter.getReturnType();
+		}
+		return chain;
+	}
+
+	/**
+	 * Resolves the class of the expression on the declared, generic types, starting with the
+	 * given root class, so the element classes of parameterized lists and maps and of arrays are
+	 * known without a value.
+	 *
+	 * @param root
+	 *            the root class
+	 * @return the class of the expression or null if a segment cannot be resolved on the declared
+	 *         types, for instance the element of a raw list or a getProperty(int) lookup
+	 */
+	Class<?> resolveType(final Class<?> root)
+	{
+		if (isEmpty())
+		{
+			return null;
+		}
+		Type type = root;
+		for (int i = 0; i <= segments.length; i++)
+		{
+			final Segment segment = i < segments.length ? segments[i] : lastSegment;
+			final Class<?> clz = rawClass(type);
+			if (clz == null || clz.isPrimitive())
+			{
+				return null;
+			}
+			type = segmentType(segment, type, clz);
+		}
+		return rawClass(type);
+	}
+
+	/**
+	 * Gets the declared type of the given segment on the given receiver type.
+	 *
+	 * @param segment
+	 *            the segment
+	 * @param type
+	 *            the receiver type
+	 * @param clz
+	 *            the class of the receiver type
+	 * @return the declared type or null if it is not known
+	 */
+	private static Type segmentType(final Segment segment, final Type type, final Class<?> clz)
+	{
+		final GetAndSet keyed = segment.keyedGetAndSet(clz);
+		if (keyed instanceof ListGetSet)
+		{
+			return Reflection.resultType(type, LIST_ELEMENT);
+		}
+		if (keyed instanceof MapGetSet)
+		{
+			return Reflection.resultType(type, MAP_VALUE);
+		}
+		if (keyed != null)
+		{
+			return type instanceof GenericArrayType
+				? ((GenericArrayType)type).getGenericComponentType()
+				: clz.getComponentType();
+		}
+		final GetAndSet getAndSetter = PropertyResolver.resolveGetAndSetter(segment.expression,
+			clz);
+		if (getAndSetter instanceof UnresolvedGetAndSet)
+		{
+			return null;
+		}
+		final Method getter = getAndSetter.getGetter();
+		final Field field = getAndSetter.getField();
+		final Type declared = getter != null && getter.getParameterCount() == 0
+			? Reflection.resultType(type, getter.getGenericReturnType())
+			: field != null ? Reflection.resultType(type, field.getGenericType()) : null;
+		return declared != null ? declared : getAndSetter.getTargetClass();
+	}
+
+	/**
+	 * Gets the erasure of the given type.
+	 *
+	 * @param type
+	 *            the type
+	 * @return the class of the type or null if the type is null
+	 */
+	private static Class<?> rawClass(final Type type)
+	{
+		if (type instanceof Class)
+		{
+			return (Class<?>)type;
+		}
+		if (type instanceof ParameterizedType)
+		{
+			return Reflection.getClass(type);
+		}
+		if (type instanceof GenericArrayType)
+		{
+			final Class<?> component = rawClass(
+				((GenericArrayType)type).getGenericComponentType());
+			return component != null ? component.arrayType() : null;
+		}
+		if (type instanceof WildcardType)
+		{
+			return rawClass(((WildcardType)type).getUpperBounds()[0]);
+		}
+		if (type instanceof TypeVariable)
+		{
+			return rawClass(((TypeVariable<?>)type).getBounds()[0]);
+		}
+		return null;
+	}
+
+	/**
+	 * Compiles the expression again after deserialization, as the segments are not serialized.
+	 *
+	 * @return the compiled {@link PropertyPath}
+	 */
+	@Serial
+	private Object readResolve()
+	{
+		return PropertyResolver.compile(expression);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString()
+	{
+		return "PropertyPath:expression=[" + expression + "]";
+	}
+
+	/**
+	 * A single segment of the expression with its resolved {@link GetAndSet}.
+	 */
+	private static final class Segment
+	{
+		/** The segment as it is looked up. */
+		final String expression;
+
+		/** This segment together with the following one, used for getProperty(int) lookups. */
+		final String joined;
+
+		/** Flag that indicates if the resolved {@link GetAndSet} should be remembered. */
+		final boolean inlineCaching;
+
+		/** Flag that indicates if the segment is written as [key]. */
+		final boolean bracketed;
+
+		/** The map key of the segment. */
+		final String key;
+
+		/** The list or array index of the segment or null if the key is not an index. */
+		final Integer index;
+
+		/** The last resolved {@link GetAndSet}, only replaced as a whole. */
+		ResolvedSegment resolved;
+
+		/** The last resolved {@link GetAndSet} of the joined segments, only replaced as a whole. */
+		ResolvedSegment resolvedJoined;
+
+		/** The joined segment if it is used as the last segment. */
+		Segment joinedSegment;
+
+		/** The accessor of the key if the segment is evaluated on a map. */
+		MapGetSet mapGetSet;
+
+		/** The accessor of the index if the segment is evaluated on a list. */
+		ListGetSet listGetSet;
+
+		/**
+		 * The accessor of the index for the last component type the segment was evaluated on, only
+		 * kept for component types of the bootstrap class loader if inline caching is disabled.
+		 */
+		ArrayGetSet arrayGetSet;
+
+		Segment(final String expression, final String joined, final boolean inlineCaching)
+		{
+			this.expression = expression;
+			this.joined = joined;
+			this.inlineCaching = inlineCaching;
+			this.bracketed = expression.startsWith("[") && expression.length() > 1;
+			this.key = bracketed ? expression.substring(1, expression.length() - 1) : expression;
+			this.index = PropertyResolver.parseIndex(key);
+		}
+
+		/**
+		 * Gets the accessor for the map key or the list or array index of this segment if the
+		 * receiver class is a map, a list or an array and the segment is not a bean property of
+		 * it.
+		 *
+		 * @param clz
+		 *            the receiver class
+		 * @return the accessor or null if the segment has to be resolved by the
+		 *         {@link PropertyResolver}
+		 */
+		GetAndSet keyedGetAndSet(final Class<?> clz)
+		{
+			if (clz == null)
+			{
+				return null;
+			}
+			final boolean list = List.class.isAssignableFrom(clz);
+			final boolean map = !list && Map.class.isAssignableFrom(clz);
+			if (!list && !map && !(clz.isArray() && index != null))
+			{
+				return null;
+			}
+			if (!bracketed
+				&& (expression.endsWith("()") || BeanIndex.of(clz).getGetter(key) != null))
+			{
+				return null;
+			}
+			if (list)
+			{
+				if (index == null)
+				{
+					return null;
+				}
+				ListGetSet getAndSet = listGetSet;
+				if (getAndSet == null)
+				{
+					listGetSet = getAndSet = new ListGetSet(index);
+				}
+				return getAndSet;
+			}
+			if (map)
+			{
+				MapGetSet getAndSet = mapGetSet;
+				if (getAndSet == null)
+				{
+					mapGetSet = getAndSet = new MapGetSet(key);
+				}
+				return getAndSet;
+			}
+			final Class<?> componentType = clz.getComponentType();
+			ArrayGetSet getAndSet = arrayGetSet;
+			if (getAndSet == null || getAndSet.getTargetClass() != componentType)
+			{
+				getAndSet = new ArrayGetSet(componentType, index);
+				// without inline caching only component types of the bootstrap class loader,
+				// which are never unloaded, are remembered
+				if (inlineCaching || componentType.getClassLoader() == null)
+				{
+					arrayGetSet = getAndSet;
+				}
+			}
+			return getAndSet;
+		}
+
+		/**
+		 * Resolves the {@link GetAndSet} of this segment for the given receiver class.
+		 *
+		 * @param clz
+		 *            the receiver class
+		 * @return the {@link GetAndSet} or an {@link UnresolvedGetAndSet}
+		 */
+		GetAndSet resolve(final Class<?> clz)
+		{
+			final ResolvedSegment current = resolved;
+			if (current != null && current.clz == clz)
+			{
+				return current.getAndSetter;
+			}
+			final GetAndSet keyed = keyedGetAndSet(clz);
+			final GetAndSet getAndSetter = keyed != null
+				? keyed
+				: PropertyResolver.resolveGetAndSetter(expression, clz);
+			if (inlineCaching)
+			{
+				resolved = new ResolvedSegment(clz, getAndSetter);
+			}
+			return getAndSetter;
+		}
+
+		/**
+		 * Resolves the {@link GetAndSet} of this segment together with the following one, used for
+		 * getProperty(int) lookups.
+		 *
+		 * @param clz
+		 *            the receiver class
+		 * @return the {@link GetAndSet}
+		 * @throws RuntimeException
+		 *             if the joined segments cannot be resolved
+		 */
+		GetAndSet resolveJoined(final Class<?> clz)
+		{
+			final ResolvedSegment current = resolvedJoined;
+			if (current != null && current.clz == clz)
+			{
+				return current.getAndSetter;
+			}
+			final GetAndSet getAndSetter = PropertyResolver.getGetAndSetter(joined, clz);
+			if (inlineCaching)
+			{
+				resolvedJoined = new ResolvedSegment(clz, getAndSetter);
+			}
+			return getAndSetter;
+		}
+
+		/**
+		 * @return the segment of this and the last segment as a last segment
+		 */
+		Segment joinedSegment()
+		{
+			Segment segment = joinedSegment;
+			if (segment == null)
+			{
+				joinedSegment = segment = new Segment(joined, null, inlineCaching);
+			}
+			return segment;
+		}
+	}
+
+	/**
+	 * The {@link GetAndSet} of a segment resolved for a receiver class.
+	 */
+	private static final class ResolvedSegment
+	{
+		final Class<?> clz;
+
+		final GetAndSet getAndSetter;
+
+		ResolvedSegment(final Class<?> clz, final GetAndSet getAndSetter)
+		{
+			this.clz = clz;
+			this.getAndSetter = getAndSetter;
+		}
+	}
+}
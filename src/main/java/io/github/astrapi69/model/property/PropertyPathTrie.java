@@ -0,0 +1,203 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The class {@link PropertyPathTrie} evaluates several property expressions on the same object at
+ * once. The expressions are arranged in a prefix trie of their segments, so a shared prefix like
+ * 'customer.address' in 'customer.address.city' and 'customer.address.zip' is evaluated only once.
+ * <br>
+ * Instances are created with {@link PropertyResolver#compileAll(String...)}, are thread safe and
+ * can be reused for any number of objects.
+ */
+public final class PropertyPathTrie
+{
+
+	/** The compiled expressions in the order they were given. */
+	private final PropertyPath[] paths;
+
+	/** The root of the trie, which stands for the evaluated object. */
+	private final Node root;
+
+	/**
+	 * Instantiates a new {@link PropertyPathTrie} from the given compiled expressions.
+	 *
+	 * @param paths
+	 *            the compiled expressions
+	 */
+	PropertyPathTrie(final PropertyPath[] paths)
+	{
+		this.paths = paths;
+		final Builder rootBuilder = new Builder(null, 0);
+		for (int i = 0; i < paths.length; i++)
+		{
+			final PropertyPath path = paths[i];
+			Builder builder = rootBuilder;
+			for (int depth = 0; depth < path.size(); depth++)
+			{
+				final int segment = depth;
+				builder = builder.children.computeIfAbsent(path.segmentExpression(depth),
+					key -> new Builder(path, segment));
+			}
+			builder.terminals.add(i);
+		}
+		this.root = rootBuilder.build();
+	}
+
+	/**
+	 * Gets the expressions of this trie.
+	 *
+	 * @return the expressions in the order they were given
+	 */
+	public String[] getExpressions()
+	{
+		final String[] expressions = new String[paths.length];
+		for (int i = 0; i < paths.length; i++)
+		{
+			expressions[i] = paths[i].getExpression();
+		}
+		return expressions;
+	}
+
+	/**
+	 * Looks up the values of all expressions on the given object. Every intermediate object is
+	 * evaluated once, and the value of an expression is null if an object on its way evaluates to
+	 * null.
+	 *
+	 * @param object
+	 *            The object which is evaluated.
+	 * @return the values in the order of the expressions
+	 * @see PropertyResolver#getValue(String, Object)
+	 */
+	public Object[] getValues(final Object object)
+	{
+		final Object[] values = new Object[paths.length];
+		if (object != null)
+		{
+			evaluate(root, object, object, values);
+		}
+		return values;
+	}
+
+	private void evaluate(final Node node, final Object value, final Object object,
+		final Object[] values)
+	{
+		for (final int terminal : node.terminals)
+		{
+			values[terminal] = value;
+		}
+		for (final Node child : node.children)
+		{
+			final Object next = child.path.step(child.segment, value);
+			if (next == PropertyPath.UNRESOLVED)
+			{
+				// a getProperty(int) lookup spans two segments, so the expressions below are
+				// evaluated one by one
+				for (final int terminal : child.subtree)
+				{
+					values[terminal] = paths[terminal].getValue(object);
+				}
+			}
+			else if (next != null)
+			{
+				evaluate(child, next, object, values);
+			}
+		}
+	}
+
+	/**
+	 * A node of the trie, which stands for a segment of one or more expressions.
+	 */
+	private static final class Node
+	{
+		/** A path that contains the segment of this node. */
+		final PropertyPath path;
+
+		/** The index of the segment of this node in the {@link #path}. */
+		final int segment;
+
+		/** The nodes of the following segments. */
+		final Node[] children;
+
+		/** The indexes of the expressions that end with this segment. */
+		final int[] terminals;
+
+		/** The indexes of the expressions that pass through this segment. */
+		final int[] subtree;
+
+		Node(final PropertyPath path, final int segment, final Node[] children,
+			final int[] terminals, final int[] subtree)
+		{
+			this.path = path;
+			this.segment = segment;
+			this.children = children;
+			this.terminals = terminals;
+			this.subtree = subtree;
+		}
+	}
+
+	/**
+	 * The mutable node that is used while the trie is built.
+	 */
+	private static final class Builder
+	{
+		final PropertyPath path;
+
+		final int segment;
+
+		final Map<String, Builder> children = new LinkedHashMap<>();
+
+		final List<Integer> terminals = new ArrayList<>();
+
+		Builder(final PropertyPath path, final int segment)
+		{
+			this.path = path;
+			this.segment = segment;
+		}
+
+		Node build()
+		{
+			final Node[] nodes = new Node[children.size()];
+			final List<Integer> subtree = new ArrayList<>(terminals);
+			int i = 0;
+			for (final Builder child : children.values())
+			{
+				nodes[i] = child.build();
+				for (final int terminal : nodes[i].subtree)
+				{
+					subtree.add(terminal);
+				}
+				i++;
+			}
+			return new Node(path, segment, nodes, toArray(terminals), toArray(subtree));
+		}
+
+		private static int[] toArray(final List<Integer> list)
+		{
+			final int[] array = new int[list.size()];
+			for (int i = 0; i < array.length; i++)
+			{
+				array[i] = list.get(i);
+			}
+			return array;
+		}
+	}
+}
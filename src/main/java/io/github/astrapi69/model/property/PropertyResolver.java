@@ -15,10 +15,15 @@
  */
 package io.github.astrapi69.model.property;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
@@ -27,6 +32,9 @@ import org.apache.commons.lang3.StringUtils;
 import io.github.astrapi69.model.api.ClassCache;
 import io.github.astrapi69.model.api.GetAndSet;
 import io.github.astrapi69.model.api.IModel;
+import io.github.astrapi69.model.jfr.ModelEvents;
+import io.github.astrapi69.model.reflect.BeanIndex;
+import io.github.astrapi69.model.reflect.ClassLocal;
 import lombok.extern.java.Log;
 
 /**
@@ -55,11 +63,72 @@ public final class PropertyResolver
 
 	private final static ConcurrentHashMap<Object, ClassCache> applicationToClassesToGetAndSetters = new ConcurrentHashMap<>(
 		2);
-	private final static int CREATE_NEW_VALUE = 1;
-	private static final String GET = "get";
-	private static final String IS = "is";
-	private final static int RESOLVE_CLASS = 2;
-	private final static int RETURN_NULL = 0;
+	/** The default metrics, which do nothing. */
+	private static final ResolverMetrics NO_METRICS = new ResolverMetrics()
+	{
+	};
+	/** The maximum number of compiled expressions in {@link #paths}. */
+	private static final int MAX_PATHS = 1024;
+	/**
+	 * The compiled expressions of the static methods. They are compiled without inline caching, so
+	 * they do not hold any class.
+	 */
+	private final static ExpressionCache<String, PropertyPath> paths = new ExpressionCache<>(
+		MAX_PATHS)
+	{
+		@Override
+		protected PropertyPath compile(final String expression)
+		{
+			return new PropertyPath(expression, false);
+		}
+
+		@Override
+		protected String keyOf(final PropertyPath path)
+		{
+			return path.getExpression();
+		}
+	};
+	/** The maximum number of compiled expression tuples in {@link #tries}. */
+	private static final int MAX_TRIES = 256;
+	/** The compiled expression tuples of {@link #getValues(Object, String...)}. */
+	private final static ExpressionCache<Expressions, PropertyPathTrie> tries = new ExpressionCache<>(
+		MAX_TRIES)
+	{
+		@Override
+		protected PropertyPathTrie compile(final Expressions expressions)
+		{
+			final PropertyPath[] compiled = new PropertyPath[expressions.expressions.length];
+			for (int i = 0; i < compiled.length; i++)
+			{
+				compiled[i] = getPath(Objects.requireNonNullElse(expressions.expressions[i], ""));
+			}
+			return new PropertyPathTrie(compiled);
+		}
+
+		@Override
+		protected Expressions keyOf(final PropertyPathTrie trie)
+		{
+			return new Expressions(trie.getExpressions());
+		}
+	};
+	/** Flag that indicates if expressions are evaluated by generated hidden classes. */
+	private static volatile boolean bytecodeAccessorsEnabled;
+	/** The manifest that records the resolved expressions or null. */
+	private static volatile AccessorManifest accessorManifest;
+	/** The metrics that are notified about the class cache lookups. */
+	private static volatile ResolverMetrics metrics = NO_METRICS;
+	/**
+	 * The classes of the expressions on the root classes, resolved on the declared types with the
+	 * current class cache.
+	 */
+	private static volatile PropertyClasses propertyClasses = new PropertyClasses(null);
+	/** The marker of an expression in {@link #propertyClasses} without a known class. */
+	private static final Object NO_CLASS = new Object();
+	/** The resolutions that are running, only held while a segment is resolved. */
+	private final static ConcurrentHashMap<ResolutionKey, CompletableFuture<GetAndSet>> resolutions = new ConcurrentHashMap<>();
+	final static int CREATE_NEW_VALUE = 1;
+	final static int RESOLVE_CLASS = 2;
+	final static int RETURN_NULL = 0;
 
 	/**
 	 * Utility class: instantiation not allowed.
@@ -68,6 +137,37 @@ public final class PropertyResolver
 	{
 	}
 
+	/**
+	 * Compiles the given expression into a {@link PropertyPath} that can be evaluated any number of
+	 * times without parsing the expression again.
+	 *
+	 * @param expression
+	 *            the property expression
+	 * @return the compiled {@link PropertyPath}
+	 */
+	public static PropertyPath compile(final String expression)
+	{
+		return new PropertyPath(expression, true);
+	}
+
+	/**
+	 * Compiles the given expressions into a {@link PropertyPathTrie} that evaluates them together
+	 * on an object, where the segments of a shared prefix are evaluated only once.
+	 *
+	 * @param expressions
+	 *            the property expressions
+	 * @return the compiled {@link PropertyPathTrie}
+	 */
+	public static PropertyPathTrie compileAll(final String... expressions)
+	{
+		final PropertyPath[] compiled = new PropertyPath[expressions.length];
+		for (int i = 0; i < expressions.length; i++)
+		{
+			compiled[i] = new PropertyPath(expressions[i], true);
+		}
+		return new PropertyPathTrie(compiled);
+	}
+
 	/**
 	 * Clean up cache for this app.
 	 *
@@ -90,27 +190,9 @@ public final class PropertyResolver
 	 */
 	private static Field findField(final Class<?> clz, final String expression)
 	{
-		Field field = null;
-		try
-		{
-			field = clz.getField(expression);
-		}
-		catch (final Exception e)
+		final Field field = BeanIndex.of(clz).getField(expression);
+		if (field == null)
 		{
-			Class<?> tmp = clz;
-			while (tmp != null && tmp != Object.class)
-			{
-				final Field[] fields = tmp.getDeclaredFields();
-				for (final Field aField : fields)
-				{
-					if (aField.getName().equals(expression))
-					{
-						aField.setAccessible(true);
-						return aField;
-					}
-				}
-				tmp = tmp.getSuperclass();
-			}
 			log.log(Level.FINE, "Cannot find field " + clz + "." + expression);
 		}
 		return field;
@@ -127,243 +209,357 @@ public final class PropertyResolver
 	 */
 	private static Method findGetter(final Class<?> clz, final String expression)
 	{
-		final String name = Character.toUpperCase(expression.charAt(0)) + expression.substring(1);
-		Method method = null;
-		try
+		final Method method = BeanIndex.of(clz).getGetter(expression);
+		if (method == null)
 		{
-			method = clz.getMethod(GET + name, (Class[])null);
+			log.log(Level.FINE, "Cannot find getter " + clz + "." + expression);
 		}
-		catch (final Exception ignored)
+		return method;
+	}
+
+	private static Method findMethod(final Class<?> clz, String expression)
+	{
+		if (expression.endsWith("()"))
 		{
+			expression = expression.substring(0, expression.length() - 2);
 		}
+		final Method method = BeanIndex.of(clz).getMethod(expression);
 		if (method == null)
 		{
-			try
-			{
-				method = clz.getMethod(IS + name, (Class[])null);
-			}
-			catch (final Exception e)
-			{
-				log.log(Level.FINE, "Cannot find getter " + clz + "." + expression);
-			}
+			log.log(Level.FINE, "Cannot find method " + clz + "." + expression);
 		}
 		return method;
 	}
 
-	private static Method findMethod(final Class<?> clz, String expression)
+	/**
+	 * Parses the given expression as an index without throwing a {@link NumberFormatException}.
+	 *
+	 * @param expression
+	 *            the expression
+	 * @return the index or null if the expression is not an int value
+	 */
+	static Integer parseIndex(final String expression)
 	{
-		if (expression.endsWith("()"))
+		final int length = expression.length();
+		int i = 0;
+		if (length > 0 && (expression.charAt(0) == '-' || expression.charAt(0) == '+'))
 		{
-			expression = expression.substring(0, expression.length() - 2);
+			i = 1;
 		}
-		Method method = null;
-		try
+		if (i == length || length - i > 10)
 		{
-			method = clz.getMethod(expression, (Class[])null);
+			return null;
 		}
-		catch (final Exception e)
+		long value = 0;
+		for (; i < length; i++)
 		{
-			log.log(Level.FINE, "Cannot find method " + clz + "." + expression);
+			final char ch = expression.charAt(i);
+			if (ch < '0' || ch > '9')
+			{
+				return null;
+			}
+			value = value * 10 + (ch - '0');
 		}
-		return method;
+		if (expression.charAt(0) == '-')
+		{
+			value = -value;
+		}
+		if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+		{
+			return null;
+		}
+		return (int)value;
 	}
 
-	private static ClassCache getClassesToGetAndSetters()
+	/**
+	 * Gets the compiled expression for the static methods. The compiled expressions are shared and
+	 * the least recently used ones are evicted if the cache holds too many of them.
+	 *
+	 * @param expression
+	 *            the expression
+	 * @return the compiled expression
+	 */
+	private static PropertyPath getPath(final String expression)
+	{
+		return paths.get(expression);
+	}
+
+	static ClassCache getClassesToGetAndSetters()
 	{
 		final Object key = PropertyResolver.class;
 
-		ClassCache result = applicationToClassesToGetAndSetters.get(key);
-		if (result == null)
+		return applicationToClassesToGetAndSetters.computeIfAbsent(key,
+			k -> new ClassValueClassCache());
+	}
+
+	/**
+	 * Gets the {@link GetAndSet} for the given expression segment and class.
+	 *
+	 * @param exp
+	 *            the expression segment
+	 * @param clz
+	 *            the class
+	 * @return the {@link GetAndSet}
+	 * @throws RuntimeException
+	 *             if the expression segment cannot be resolved for the class
+	 */
+	static GetAndSet getGetAndSetter(final String exp, final Class<?> clz)
+	{
+		final GetAndSet getAndSetter = resolveGetAndSetter(exp, clz);
+		if (getAndSetter instanceof UnresolvedGetAndSet)
 		{
-			final ClassCache tmpResult = applicationToClassesToGetAndSetters.putIfAbsent(key,
-				result = new DefaultClassCache());
-			if (tmpResult != null)
-			{
-				result = tmpResult;
-			}
+			throw ((UnresolvedGetAndSet)getAndSetter).failure();
 		}
-		return result;
+		return getAndSetter;
 	}
 
-	private static GetAndSet getGetAndSetter(String exp, final Class<?> clz)
+	/**
+	 * Resolves the {@link GetAndSet} for the given expression segment and class without throwing an
+	 * exception. Lookups that fail are cached as well and return an {@link UnresolvedGetAndSet}.
+	 *
+	 * @param expression
+	 *            the expression segment
+	 * @param clz
+	 *            the class
+	 * @return the {@link GetAndSet} or an {@link UnresolvedGetAndSet} if it cannot be resolved
+	 */
+	static GetAndSet resolveGetAndSetter(final String expression, final Class<?> clz)
 	{
-		final ClassCache classesToGetAndSetters = getClassesToGetAndSetters();
-		Map<String, GetAndSet> getAndSetters = classesToGetAndSetters.get(clz);
-		if (getAndSetters == null)
+		final Map<String, GetAndSet> getAndSetters = getClassesToGetAndSetters().getOrCreate(clz);
+		final GetAndSet getAndSetter = getAndSetters.get(expression);
+		final ResolverMetrics resolverMetrics = metrics;
+		if (getAndSetter != null)
 		{
-			getAndSetters = new ConcurrentHashMap<>(8);
-			classesToGetAndSetters.put(clz, getAndSetters);
+			resolverMetrics.hit(clz, expression);
+			return getAndSetter;
 		}
+		resolverMetrics.miss(clz, expression);
+		return resolveOnce(getAndSetters, expression, clz);
+	}
 
-		GetAndSet getAndSetter = getAndSetters.get(exp);
-		if (getAndSetter == null)
+	/**
+	 * Resolves the {@link GetAndSet} for the given expression segment and class and puts it into
+	 * the given map. Only one thread resolves a segment of a class at a time, other threads that
+	 * need the same segment wait for its result instead of resolving it as well.
+	 *
+	 * @param getAndSetters
+	 *            the cached {@link GetAndSet} objects of the class
+	 * @param expression
+	 *            the expression segment
+	 * @param clz
+	 *            the class
+	 * @return the {@link GetAndSet} or an {@link UnresolvedGetAndSet} if it cannot be resolved
+	 */
+	private static GetAndSet resolveOnce(final Map<String, GetAndSet> getAndSetters,
+		final String expression, final Class<?> clz)
+	{
+		final ResolutionKey key = new ResolutionKey(clz, expression);
+		final CompletableFuture<GetAndSet> resolution = new CompletableFuture<>();
+		final CompletableFuture<GetAndSet> running = resolutions.putIfAbsent(key, resolution);
+		if (running != null)
 		{
-			Method method = null;
-			Field field = null;
-			if (exp.startsWith("["))
-			{
-				// if expression begins with [ skip method finding and use it as
-				// a key/index lookup on a map.
-				exp = exp.substring(1, exp.length() - 1);
-			}
-			else if (exp.endsWith("()"))
+			try
 			{
-				// if expression ends with (), don't test for setters just skip
-				// directly to method finding.
-				method = findMethod(clz, exp);
+				return running.join();
 			}
-			else
+			catch (final CompletionException e)
 			{
-				method = findGetter(clz, exp);
+				if (e.getCause() instanceof RuntimeException)
+				{
+					throw (RuntimeException)e.getCause();
+				}
+				throw e;
 			}
-			if (method == null)
+		}
+		try
+		{
+			// another thread may have finished the resolution before this one was registered
+			GetAndSet getAndSetter = getAndSetters.get(expression);
+			if (getAndSetter == null)
 			{
-				if (List.class.isAssignableFrom(clz))
+				final Object event = ModelEvents.beginResolution();
+				final long start = System.nanoTime();
+				getAndSetter = createGetAndSetter(expression, clz);
+				ModelEvents.commitResolution(event, clz, expression);
+				if (!(getAndSetter instanceof MapGetSet || getAndSetter instanceof ListGetSet
+					|| getAndSetter instanceof ArrayGetSet))
 				{
-					try
+					// accessors of map keys and list or array indexes are not cached, a compiled
+					// PropertyPath binds them to its segment
+					getAndSetters.put(expression, getAndSetter);
+					metrics.introspected(clz, expression, System.nanoTime() - start);
+					final AccessorManifest manifest = accessorManifest;
+					if (manifest != null && !(getAndSetter instanceof UnresolvedGetAndSet))
 					{
-						final int index = Integer.parseInt(exp);
-						getAndSetter = new ListGetSet(index);
-					}
-					catch (final NumberFormatException ex)
-					{
-						// can't parse the exp as an index, maybe the exp was a
-						// method.
-						method = findMethod(clz, exp);
-						if (method != null)
-						{
-							getAndSetter = new MethodGetAndSet(method,
-								MethodGetAndSet.findSetter(method, clz), null);
-						}
-						else
-						{
-							field = findField(clz, exp);
-							if (field != null)
-							{
-								getAndSetter = new FieldGetAndSetter(field);
-							}
-							else
-							{
-								throw new RuntimeException("The expression '" + exp
-									+ "' is neither an index nor is it a method or field for the list "
-									+ clz);
-							}
-						}
+						manifest.add(clz, expression);
 					}
 				}
-				else if (Map.class.isAssignableFrom(clz))
+			}
+			resolution.complete(getAndSetter);
+			return getAndSetter;
+		}
+		catch (final RuntimeException | Error e)
+		{
+			resolution.completeExceptionally(e);
+			throw e;
+		}
+		finally
+		{
+			resolutions.remove(key, resolution);
+		}
+	}
+
+	/**
+	 * Creates the {@link GetAndSet} for the given expression segment and class.
+	 *
+	 * @param expression
+	 *            the expression segment
+	 * @param clz
+	 *            the class
+	 * @return the {@link GetAndSet} or an {@link UnresolvedGetAndSet} if it cannot be resolved
+	 */
+	private static GetAndSet createGetAndSetter(final String expression, final Class<?> clz)
+	{
+		GetAndSet getAndSetter = GetAndSetProviders.getGetAndSet(clz, expression);
+		if (getAndSetter != null)
+		{
+			return getAndSetter;
+		}
+		String exp = expression;
+		Method method = null;
+		Field field = null;
+		if (exp.startsWith("["))
+		{
+			// if expression begins with [ skip method finding and use it as
+			// a key/index lookup on a map.
+			exp = exp.substring(1, exp.length() - 1);
+		}
+		else if (exp.endsWith("()"))
+		{
+			// if expression ends with (), don't test for setters just skip
+			// directly to method finding.
+			method = findMethod(clz, exp);
+		}
+		else
+		{
+			method = findGetter(clz, exp);
+		}
+		if (method == null)
+		{
+			if (List.class.isAssignableFrom(clz))
+			{
+				final Integer index = parseIndex(exp);
+				if (index != null)
 				{
-					getAndSetter = new MapGetSet(exp);
+					getAndSetter = new ListGetSet(index);
 				}
-				else if (clz.isArray())
+				else
 				{
-					try
+					// can't parse the exp as an index, maybe the exp was a
+					// method.
+					method = findMethod(clz, exp);
+					if (method != null)
 					{
-						final int index = Integer.parseInt(exp);
-						getAndSetter = new ArrayGetSet(clz.getComponentType(), index);
+						getAndSetter = GetAndSetFactory.forMethod(method,
+							MethodGetAndSet.findSetter(method, clz), null);
 					}
-					catch (final NumberFormatException ex)
+					else
 					{
-						if (exp.equals("length") || exp.equals("size"))
+						field = findField(clz, exp);
+						if (field != null)
 						{
-							getAndSetter = new ArrayLengthGetSet();
+							getAndSetter = GetAndSetFactory.forField(field);
 						}
 						else
 						{
-							throw new RuntimeException("Can't parse the expression '" + exp
-								+ "' as an index for an array lookup");
+							getAndSetter = new UnresolvedGetAndSet("The expression '" + exp
+								+ "' is neither an index nor is it a method or field for the list "
+								+ clz);
 						}
 					}
 				}
+			}
+			else if (Map.class.isAssignableFrom(clz))
+			{
+				getAndSetter = new MapGetSet(exp);
+			}
+			else if (clz.isArray())
+			{
+				final Integer index = parseIndex(exp);
+				if (index != null)
+				{
+					getAndSetter = new ArrayGetSet(clz.getComponentType(), index);
+				}
+				else if (exp.equals("length") || exp.equals("size"))
+				{
+					getAndSetter = new ArrayLengthGetSet();
+				}
 				else
 				{
-					field = findField(clz, exp);
-					if (field == null)
+					getAndSetter = new UnresolvedGetAndSet("Can't parse the expression '" + exp
+						+ "' as an index for an array lookup");
+				}
+			}
+			else
+			{
+				field = findField(clz, exp);
+				if (field == null)
+				{
+					method = findMethod(clz, exp);
+					if (method == null)
 					{
-						method = findMethod(clz, exp);
-						if (method == null)
+						final int index = exp.indexOf('.');
+						if (index != -1)
 						{
-							final int index = exp.indexOf('.');
-							if (index != -1)
+							final String propertyName = exp.substring(0, index);
+							final String propertyIndex = exp.substring(index + 1);
+							final Integer parsedIndex = parseIndex(propertyIndex);
+							if (parsedIndex != null)
 							{
-								final String propertyName = exp.substring(0, index);
-								final String propertyIndex = exp.substring(index + 1);
-								try
-								{
-									final int parsedIndex = Integer.parseInt(propertyIndex);
-									// if so then it could be a getPropertyIndex(int)
-									// and setPropertyIndex(int, object)
-									final String name = Character.toUpperCase(
-										propertyName.charAt(0)) + propertyName.substring(1);
-									method = clz.getMethod(GET + name, new Class[] { int.class });
-									getAndSetter = new ArrayPropertyGetSet(method, parsedIndex);
-								}
-								catch (final Exception e)
-								{
-									throw new RuntimeException("No get method defined for class: "
-										+ clz + " expression: " + propertyName);
-								}
+								// if so then it could be a getPropertyIndex(int)
+								// and setPropertyIndex(int, object)
+								method = BeanIndex.of(clz).getIndexedGetter(propertyName);
+							}
+							if (method != null)
+							{
+								getAndSetter = GetAndSetFactory.forIndexedMethod(method,
+									parsedIndex);
 							}
 							else
 							{
-								// We do not look for a public FIELD because
-								// that is not good programming with beans patterns
-								throw new RuntimeException("No get method defined for class: " + clz
-									+ " expression: " + exp);
+								getAndSetter = new UnresolvedGetAndSet(
+									"No get method defined for class: " + clz
+										+ " expression: " + propertyName);
 							}
 						}
 						else
 						{
-							getAndSetter = new MethodGetAndSet(method,
-								MethodGetAndSet.findSetter(method, clz), null);
+							// We do not look for a public FIELD because
+							// that is not good programming with beans patterns
+							getAndSetter = new UnresolvedGetAndSet(
+								"No get method defined for class: " + clz + " expression: "
+									+ exp);
 						}
 					}
 					else
 					{
-						getAndSetter = new FieldGetAndSetter(field);
+						getAndSetter = GetAndSetFactory.forMethod(method,
+							MethodGetAndSet.findSetter(method, clz), null);
 					}
 				}
+				else
+				{
+					getAndSetter = GetAndSetFactory.forField(field);
+				}
 			}
-			else
-			{
-				field = findField(clz, exp);
-				getAndSetter = new MethodGetAndSet(method, MethodGetAndSet.findSetter(method, clz),
-					field);
-			}
-			getAndSetters.put(exp, getAndSetter);
 		}
-		return getAndSetter;
-	}
-
-	/**
-	 * Gets the next index of the dot
-	 * 
-	 * @param expression
-	 *            the expression
-	 * @param start
-	 *            the index to start
-	 * @return next dot index
-	 */
-	private static int getNextDotIndex(final String expression, final int start)
-	{
-		boolean insideBracket = false;
-		for (int i = start; i < expression.length(); i++)
+		else
 		{
-			final char ch = expression.charAt(i);
-			if (ch == '.' && !insideBracket)
-			{
-				return i;
-			}
-			else if (ch == '[')
-			{
-				insideBracket = true;
-			}
-			else if (ch == ']')
-			{
-				insideBracket = false;
-			}
+			field = findField(clz, exp);
+			getAndSetter = GetAndSetFactory.forMethod(method,
+				MethodGetAndSet.findSetter(method, clz), field);
 		}
-		return -1;
+		return getAndSetter;
 	}
 
 	/**
@@ -402,94 +598,13 @@ public final class PropertyResolver
 	private static ObjectAndGetSetter getObjectAndGetSetter(final String expression,
 		final Object object, final int tryToCreateNull, Class<?> clz)
 	{
-		String expressionBracketsSeperated = replaceAll(expression, "[", ".[").toString();
-		int index = getNextDotIndex(expressionBracketsSeperated, 0);
-		while (index == 0 && expressionBracketsSeperated.startsWith("."))
-		{
-			// eat dots at the beginning of the expression since they will confuse
-			// later steps
-			expressionBracketsSeperated = expressionBracketsSeperated.substring(1);
-			index = getNextDotIndex(expressionBracketsSeperated, 0);
-		}
-		int lastIndex = 0;
-		Object value = object;
-		String exp = expressionBracketsSeperated;
-		while (index != -1)
-		{
-			exp = expressionBracketsSeperated.substring(lastIndex, index);
-			if (exp.length() == 0)
-			{
-				exp = expressionBracketsSeperated.substring(index + 1);
-				break;
-			}
-
-			GetAndSet getAndSetter;
-			try
-			{
-				getAndSetter = getGetAndSetter(exp, clz);
-			}
-			catch (final RuntimeException ex)
-			{
-				// expression by it self can't be found. try to find a
-				// setPropertyByIndex(int,value) method
-				index = getNextDotIndex(expressionBracketsSeperated, index + 1);
-				if (index != -1)
-				{
-					final String indexExpression = expressionBracketsSeperated.substring(lastIndex,
-						index);
-					getAndSetter = getGetAndSetter(indexExpression, clz);
-				}
-				else
-				{
-					exp = expressionBracketsSeperated.substring(lastIndex);
-					break;
-				}
-			}
-			Object newValue = null;
-			if (value != null)
-			{
-				newValue = getAndSetter.getValue(value);
-			}
-			if (newValue == null)
-			{
-				if (tryToCreateNull == CREATE_NEW_VALUE)
-				{
-					newValue = getAndSetter.newValue(value);
-					if (newValue == null)
-					{
-						return null;
-					}
-				}
-				else if (tryToCreateNull == RESOLVE_CLASS)
-				{
-					clz = getAndSetter.getTargetClass();
-				}
-				else
-				{
-					return null;
-				}
-			}
-			value = newValue;
-			if (value != null)
-			{
-				// value can be null if we are in the RESOLVE_CLASS
-				clz = value.getClass();
-			}
-
-			lastIndex = index + 1;
-			index = getNextDotIndex(expressionBracketsSeperated, lastIndex);
-			if (index == -1)
-			{
-				exp = expressionBracketsSeperated.substring(lastIndex);
-				break;
-			}
-		}
-		final GetAndSet getAndSetter = getGetAndSetter(exp, clz);
-		return new ObjectAndGetSetter(getAndSetter, value);
+		return getPath(expression).getObjectAndGetSetter(object, tryToCreateNull, clz);
 	}
 
 	/**
-	 * Gets the property class.
+	 * Gets the property class. The class is resolved once for every class and expression on the
+	 * declared types, so the element class of a parameterized list or map is returned, for
+	 * instance String for 'names.0' on a property of the type List&lt;String&gt;.
 	 *
 	 * @param <T>
 	 *            the generic type
@@ -504,14 +619,68 @@ public final class PropertyResolver
 	@SuppressWarnings("unchecked")
 	public static <T> Class<T> getPropertyClass(final String expression, final Class<?> clz)
 	{
-		final ObjectAndGetSetter setter = getObjectAndGetSetter(expression, null, RESOLVE_CLASS,
-			clz);
+		if (clz == null)
+		{
+			return (Class<T>)resolvePropertyClass(expression, null);
+		}
+		final Map<String, Object> classes = getPropertyClasses().get(clz);
+		Object propertyClass = classes.get(expression);
+		if (propertyClass == null)
+		{
+			final Class<?> resolved = resolvePropertyClass(expression, clz);
+			propertyClass = resolved != null ? resolved : NO_CLASS;
+			classes.put(expression, propertyClass);
+		}
+		return propertyClass != NO_CLASS ? (Class<T>)propertyClass : null;
+	}
+
+	/**
+	 * Gets the resolved property classes of the current class cache. They are dropped together
+	 * with the class cache, if it is replaced with {@link #setClassCache(Object, ClassCache)} or
+	 * removed with {@link #destroy(Object)}.
+	 *
+	 * @return the resolved property classes
+	 */
+	private static PropertyClasses getPropertyClasses()
+	{
+		final ClassCache classCache = getClassesToGetAndSetters();
+		PropertyClasses classes = propertyClasses;
+		if (classes.classCache.get() != classCache)
+		{
+			classes = new PropertyClasses(classCache);
+			propertyClasses = classes;
+		}
+		return classes;
+	}
+
+	/**
+	 * Resolves the class of the given expression on the declared types of the given class, with
+	 * the element classes of parameterized lists and maps, and falls back to the resolution of the
+	 * runtime classes.
+	 *
+	 * @param expression
+	 *            the expression
+	 * @param clz
+	 *            the class
+	 * @return the class of the expression or null if it is not known
+	 * @throws RuntimeException
+	 *             if class cannot be resolved
+	 */
+	private static Class<?> resolvePropertyClass(final String expression, final Class<?> clz)
+	{
+		final PropertyPath path = getPath(expression);
+		final Class<?> propertyClass = clz != null ? path.resolveType(clz) : null;
+		if (propertyClass != null)
+		{
+			return propertyClass;
+		}
+		final ObjectAndGetSetter setter = path.getObjectAndGetSetter(null, RESOLVE_CLASS, clz);
 		if (setter == null)
 		{
 			throw new RuntimeException("No Class returned for expression: " + expression
 				+ " for getting the target class of: " + clz);
 		}
-		return (Class<T>)setter.getTargetClass();
+		return setter.getTargetClass();
 	}
 
 	/**
@@ -620,13 +789,77 @@ public final class PropertyResolver
 			return object;
 		}
 
-		final ObjectAndGetSetter getter = getObjectAndGetSetter(expression, object, RETURN_NULL);
-		if (getter == null)
+		return getPath(expression).getValue(object);
+	}
+
+	/**
+	 * Looks up the values of the given expressions on the given object. The segments of a shared
+	 * prefix of the expressions, like 'customer.address' in 'customer.address.city' and
+	 * 'customer.address.zip', are evaluated only once. The trie of the expressions is cached, so
+	 * the same expressions are not compiled again on the next call. Use
+	 * {@link #compileAll(String...)} to evaluate the same expressions on many objects with the
+	 * inline caches of the compiled expressions.
+	 *
+	 * @param object
+	 *            The object which is evaluated.
+	 * @param expressions
+	 *            The expressions
+	 * @return the values in the order of the expressions, where a value is null if an object on
+	 *         the way of its expression evaluates to null
+	 */
+	public static Object[] getValues(final Object object, final String... expressions)
+	{
+		return tries.get(new Expressions(expressions)).getValues(object);
+	}
+
+	/**
+	 * Checks if expressions are evaluated by generated hidden classes.
+	 *
+	 * @return true, if bytecode accessors are enabled
+	 * @see #setBytecodeAccessorsEnabled(boolean)
+	 */
+	public static boolean isBytecodeAccessorsEnabled()
+	{
+		return bytecodeAccessorsEnabled;
+	}
+
+	/**
+	 * Resolves the given expressions on the given class before they are evaluated, so the first
+	 * evaluations do not have to introspect the classes. The segments are resolved on the declared
+	 * types of the properties. Expressions that cannot be resolved are logged and skipped.
+	 *
+	 * @param clz
+	 *            the class of the objects the expressions are evaluated on
+	 * @param expressions
+	 *            the expressions
+	 * @return the number of expressions that were resolved
+	 */
+	public static int prewarm(final Class<?> clz, final String... expressions)
+	{
+		int resolved = 0;
+		for (final String expression : expressions)
 		{
-			return null;
+			if (expression == null || expression.isEmpty())
+			{
+				continue;
+			}
+			try
+			{
+				final PropertyPath path = getPath(expression);
+				path.getObjectAndGetSetter(null, RESOLVE_CLASS, clz);
+				if (bytecodeAccessorsEnabled)
+				{
+					HiddenClassAccessors.get(clz, path);
+				}
+				resolved++;
+			}
+			catch (final RuntimeException e)
+			{
+				log.log(Level.WARNING,
+					"Cannot prewarm the expression '" + expression + "' of " + clz.getName(), e);
+			}
 		}
-
-		return getter.getValue();
+		return resolved;
 	}
 
 	/**
@@ -727,6 +960,56 @@ public final class PropertyResolver
 		}
 	}
 
+	/**
+	 * Sets the manifest that records every class and expression segment that is resolved from now
+	 * on. The recorded manifest can be written to a file and replayed at the next start with
+	 * {@link AccessorManifest#replay(ClassLoader)}.
+	 *
+	 * @param manifest
+	 *            the manifest or null to stop recording
+	 */
+	public static void setAccessorManifest(final AccessorManifest manifest)
+	{
+		accessorManifest = manifest;
+	}
+
+	/**
+	 * Registers the given lookup for the bytecode accessors of the root classes in the package of
+	 * its lookup class. A hidden class can only be defined with a lookup with full privilege access
+	 * in the package of the root class, which this library cannot create for classes of other
+	 * modules, for instance of an application that is loaded by another class loader. Such an
+	 * application calls this method with {@code MethodHandles.lookup()} from a class of every
+	 * package whose expressions should be compiled. The expressions of root classes without such a
+	 * lookup are evaluated with the resolved {@link GetAndSet} objects.
+	 *
+	 * @param lookup
+	 *            the lookup with full privilege access
+	 * @throws IllegalArgumentException
+	 *             if the lookup has no full privilege access
+	 * @see #setBytecodeAccessorsEnabled(boolean)
+	 */
+	public static void registerLookup(final MethodHandles.Lookup lookup)
+	{
+		HiddenClassAccessors.register(Objects.requireNonNull(lookup));
+	}
+
+	/**
+	 * Enables or disables the bytecode accessors. If enabled, an expression that consists only of
+	 * getters is evaluated on a root class by a generated hidden class that calls the getters and
+	 * setters directly, including the null checks and the creation of null values on setting a
+	 * value. The hidden class is defined in the package of the root class and is unloaded together
+	 * with it. Expressions or root classes that cannot be compiled, for instance with map keys or
+	 * list indexes, are still evaluated with the resolved {@link GetAndSet} objects. Disabled by
+	 * default.
+	 *
+	 * @param enabled
+	 *            true to enable the bytecode accessors
+	 */
+	public static void setBytecodeAccessorsEnabled(final boolean enabled)
+	{
+		bytecodeAccessorsEnabled = enabled;
+	}
+
 	/**
 	 * Sets the {@link ClassCache} for the given application.
 	 *
@@ -752,6 +1035,17 @@ public final class PropertyResolver
 		}
 	}
 
+	/**
+	 * Sets the metrics that are notified about the lookups in the class cache.
+	 *
+	 * @param resolverMetrics
+	 *            the metrics or null for the default, which does nothing
+	 */
+	public static void setMetrics(final ResolverMetrics resolverMetrics)
+	{
+		metrics = resolverMetrics != null ? resolverMetrics : NO_METRICS;
+	}
+
 	/**
 	 * Set the value on the object with the given expression. If the expression can't be evaluated
 	 * then a RuntimeException will be thrown. If a null object is encountered then it will try to
@@ -783,31 +1077,114 @@ public final class PropertyResolver
 					+ expression + " Value: " + value);
 		}
 
-		final ObjectAndGetSetter setter = getObjectAndGetSetter(expression, object,
-			CREATE_NEW_VALUE);
-		if (setter == null)
+		getPath(expression).setValue(object, value);
+	}
+
+	/**
+	 * The key of a running resolution of an expression segment for a class.
+	 */
+	private static final class ResolutionKey
+	{
+		private final Class<?> clz;
+
+		private final String expression;
+
+		ResolutionKey(final Class<?> clz, final String expression)
 		{
-			throw new RuntimeException("Null object returned for expression: " + expression
-				+ " for setting value: " + value + " on: " + object);
+			this.clz = clz;
+			this.expression = expression;
+		}
+
+		@Override
+		public boolean equals(final Object obj)
+		{
+			if (this == obj)
+			{
+				return true;
+			}
+			if (!(obj instanceof ResolutionKey))
+			{
+				return false;
+			}
+			final ResolutionKey other = (ResolutionKey)obj;
+			return clz == other.clz && expression.equals(other.expression);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Objects.hash(clz, expression);
 		}
-		setter.setValue(value);
 	}
 
-	private static class DefaultClassCache implements ClassCache
+	/**
+	 * The key of an expression tuple in {@link #tries}, where a null expression equals the empty
+	 * expression. The key of a lookup only wraps the given array, the cached key holds a copy.
+	 */
+	private static final class Expressions
 	{
-		private final ConcurrentHashMap<Class<?>, Map<String, GetAndSet>> map = new ConcurrentHashMap<>(
-			16);
+		final String[] expressions;
+
+		private final int hash;
+
+		Expressions(final String[] expressions)
+		{
+			this.expressions = expressions;
+			int result = 1;
+			for (final String expression : expressions)
+			{
+				result = 31 * result + (expression != null ? expression.hashCode() : 0);
+			}
+			this.hash = result;
+		}
 
 		@Override
-		public Map<String, GetAndSet> get(Class<?> clz)
+		public boolean equals(final Object obj)
+		{
+			if (this == obj)
+			{
+				return true;
+			}
+			if (!(obj instanceof Expressions other) || hash != other.hash
+				|| expressions.length != other.expressions.length)
+			{
+				return false;
+			}
+			for (int i = 0; i < expressions.length; i++)
+			{
+				if (!Objects.requireNonNullElse(expressions[i], "")
+					.equals(Objects.requireNonNullElse(other.expressions[i], "")))
+				{
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return hash;
+		}
+	}
+
+	/**
+	 * The classes of the expressions on the root classes that were resolved with a class cache.
+	 * The class cache is only referenced weakly, a replaced class cache is not kept reachable.
+	 */
+	private static final class PropertyClasses extends ClassLocal<Map<String, Object>>
+	{
+		final WeakReference<ClassCache> classCache;
+
+		PropertyClasses(final ClassCache classCache)
 		{
-			return map.get(clz);
+			this.classCache = new WeakReference<>(classCache);
 		}
 
 		@Override
-		public void put(Class<?> clz, Map<String, GetAndSet> values)
+		protected Map<String, Object> computeValue(final Class<?> type)
 		{
-			map.put(clz, values);
+			return new ConcurrentHashMap<>(8);
 		}
 	}
 }
@@ -0,0 +1,70 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+/**
+ * The interface {@link ResolverMetrics} is notified about the lookups of the
+ * {@link PropertyResolver} in its class cache. An implementation is set with
+ * {@link PropertyResolver#setMetrics(ResolverMetrics)}, the default does nothing. The methods are
+ * called on the hot path and should only update counters, like {@link DefaultResolverMetrics}. <br>
+ * The inline caches in front of the class cache, like the resolved segments of a compiled
+ * {@link PropertyPath} or the generated bytecode accessors, are not instrumented, so that a warm
+ * evaluation does not pay for the metrics. Their evaluations are neither hits nor misses.
+ */
+public interface ResolverMetrics
+{
+
+	/**
+	 * Called if the {@link io.github.astrapi69.model.api.GetAndSet} of an expression segment is
+	 * found in the class cache.
+	 *
+	 * @param clz
+	 *            the class
+	 * @param expression
+	 *            the expression segment
+	 */
+	default void hit(final Class<?> clz, final String expression)
+	{
+	}
+
+	/**
+	 * Called if the {@link io.github.astrapi69.model.api.GetAndSet} of an expression segment is
+	 * not in the class cache and has to be resolved.
+	 *
+	 * @param clz
+	 *            the class
+	 * @param expression
+	 *            the expression segment
+	 */
+	default void miss(final Class<?> clz, final String expression)
+	{
+	}
+
+	/**
+	 * Called after an expression segment was introspected and its
+	 * {@link io.github.astrapi69.model.api.GetAndSet} was added to the class cache.
+	 *
+	 * @param clz
+	 *            the class
+	 * @param expression
+	 *            the expression segment
+	 * @param nanos
+	 *            the time of the introspection in nanoseconds
+	 */
+	default void introspected(final Class<?> clz, final String expression, final long nanos)
+	{
+	}
+}
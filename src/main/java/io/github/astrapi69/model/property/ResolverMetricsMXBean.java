@@ -0,0 +1,78 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import java.util.Map;
+
+/**
+ * The management interface of the {@link DefaultResolverMetrics}, registered with
+ * {@link DefaultResolverMetrics#registerMBean()}.
+ */
+public interface ResolverMetricsMXBean
+{
+
+	/**
+	 * Resets all counters. The cached classes and entries are not counters, they are the current
+	 * content of the class cache.
+	 */
+	void clear();
+
+	/**
+	 * @return the number of classes that have entries in the current class cache
+	 */
+	int getCachedClasses();
+
+	/**
+	 * @return the number of entries in the current class cache
+	 */
+	long getCachedEntries();
+
+	/**
+	 * @return the number of entries in the current class cache by class name
+	 */
+	Map<String, Long> getCachedEntriesPerClass();
+
+	/**
+	 * @return the ratio of the hits to all lookups, 0 if nothing was looked up
+	 */
+	double getHitRatio();
+
+	/**
+	 * @return the number of lookups that found the entry in the class cache, evaluations that are
+	 *         served by an inline cache are not counted
+	 */
+	long getHits();
+
+	/**
+	 * @return the number of introspections
+	 */
+	long getIntrospections();
+
+	/**
+	 * @return the time spent introspecting in nanoseconds
+	 */
+	long getIntrospectionNanos();
+
+	/**
+	 * @return the number of lookups that did not find the entry in the class cache
+	 */
+	long getMisses();
+
+	/**
+	 * @return the slowest introspections, the slowest first, as class name#expression: nanoseconds
+	 */
+	String[] getSlowestExpressions();
+}
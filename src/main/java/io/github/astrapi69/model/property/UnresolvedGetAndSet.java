@@ -0,0 +1,68 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+/**
+ * The class {@link UnresolvedGetAndSet} is cached for an expression segment that cannot be resolved
+ * for a class, so a failed lookup is not repeated and does not need an exception to be detected.
+ * Every access throws a {@link RuntimeException} with the message of the failed lookup.
+ */
+final class UnresolvedGetAndSet extends AbstractGetAndSet
+{
+	private final String message;
+
+	UnresolvedGetAndSet(final String message)
+	{
+		this.message = message;
+	}
+
+	/**
+	 * Creates the exception that describes why the lookup failed
+	 *
+	 * @return the exception
+	 */
+	RuntimeException failure()
+	{
+		return new RuntimeException(message);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object getValue(final Object object)
+	{
+		throw failure();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object newValue(final Object object)
+	{
+		throw failure();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setValue(final Object object, final Object value)
+	{
+		throw failure();
+	}
+}
@@ -0,0 +1,191 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.ClassUtils;
+
+import io.github.astrapi69.model.api.ValueConverter;
+import io.github.astrapi69.model.util.Objects;
+
+/**
+ * The class {@link ValueConverters} holds the {@link ValueConverter}s that convert the values that
+ * are written to a property into the type of the property. <br>
+ * The converter for a value class and a property type is chosen once and cached by the accessor of
+ * the property, so the write path does not dispatch on the type again. The registered converters
+ * are asked first, then a String is converted into an enum constant and otherwise the conversions
+ * of {@link Objects#convertValue(Object, Class)} between numbers, booleans, characters and strings
+ * apply. A value of any other class is written unchanged.
+ */
+public final class ValueConverters
+{
+
+	/** The conversions of {@link Objects#convertValue(Object, Class)} by target class. */
+	private static final Map<Class<?>, ValueConverter<Object, Object>> BUILT_IN = Map.ofEntries(
+		Map.entry(Integer.class, value -> (int)Objects.longValue(value)),
+		Map.entry(Long.class, Objects::longValue),
+		Map.entry(Short.class, value -> (short)Objects.longValue(value)),
+		Map.entry(Byte.class, value -> (byte)Objects.longValue(value)),
+		Map.entry(Character.class, value -> (char)Objects.longValue(value)),
+		Map.entry(Double.class, Objects::doubleValue),
+		Map.entry(Float.class, value -> (float)Objects.doubleValue(value)),
+		Map.entry(Boolean.class, Objects::booleanValue),
+		Map.entry(BigInteger.class, Objects::bigIntValue),
+		Map.entry(BigDecimal.class, Objects::bigDecValue),
+		Map.entry(String.class, Objects::stringValue));
+
+	/** The registered converters by target class and by value class. */
+	private static final Map<Class<?>, Map<Class<?>, ValueConverter<Object, Object>>> converters = new ConcurrentHashMap<>();
+
+	/** The version of the registered converters, which invalidates the cached conversions. */
+	private static volatile int version;
+
+	private ValueConverters()
+	{
+	}
+
+	/**
+	 * Converts the given value into the given type
+	 *
+	 * @param <T>
+	 *            the generic type
+	 * @param value
+	 *            the value
+	 * @param targetClass
+	 *            the type to convert into
+	 * @return the converted value or null if the value is null
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T convert(final Object value, final Class<T> targetClass)
+	{
+		if (value == null)
+		{
+			return null;
+		}
+		final ValueConverter<Object, Object> converter = plan(value.getClass(), targetClass);
+		return (T)(converter != null ? converter.convert(value) : value);
+	}
+
+	/**
+	 * Registers the given converter for values of the given class, or of its subclasses, that are
+	 * written to properties of the given type. Primitive types are registered as their wrappers.
+	 *
+	 * @param <S>
+	 *            the type of the values
+	 * @param <T>
+	 *            the type of the properties
+	 * @param sourceClass
+	 *            the class of the values
+	 * @param targetClass
+	 *            the type of the properties
+	 * @param converter
+	 *            the converter
+	 */
+	@SuppressWarnings("unchecked")
+	public static synchronized <S, T> void register(final Class<S> sourceClass,
+		final Class<T> targetClass, final ValueConverter<? super S, ? extends T> converter)
+	{
+		converters.computeIfAbsent(ClassUtils.primitiveToWrapper(targetClass),
+			key -> new ConcurrentHashMap<>())
+			.put(ClassUtils.primitiveToWrapper(sourceClass),
+				(ValueConverter<Object, Object>)converter);
+		version++;
+	}
+
+	/**
+	 * Removes the converter for values of the given class that are written to properties of the
+	 * given type.
+	 *
+	 * @param sourceClass
+	 *            the class of the values
+	 * @param targetClass
+	 *            the type of the properties
+	 */
+	public static synchronized void unregister(final Class<?> sourceClass,
+		final Class<?> targetClass)
+	{
+		final Map<Class<?>, ValueConverter<Object, Object>> targetConverters = converters
+			.get(ClassUtils.primitiveToWrapper(targetClass));
+		if (targetConverters != null)
+		{
+			targetConverters.remove(ClassUtils.primitiveToWrapper(sourceClass));
+			version++;
+		}
+	}
+
+	/**
+	 * @return the version of the registered converters
+	 */
+	static int version()
+	{
+		return version;
+	}
+
+	/**
+	 * Chooses the converter for values of the given class that are written to properties of the
+	 * given type.
+	 *
+	 * @param sourceClass
+	 *            the class of the values
+	 * @param targetClass
+	 *            the type of the properties
+	 * @return the converter or null if the values are written unchanged
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	static ValueConverter<Object, Object> plan(final Class<?> sourceClass,
+		final Class<?> targetClass)
+	{
+		final Class<?> target = ClassUtils.primitiveToWrapper(targetClass);
+		if (target.isAssignableFrom(sourceClass))
+		{
+			return null;
+		}
+		final Map<Class<?>, ValueConverter<Object, Object>> targetConverters = converters
+			.get(target);
+		if (targetConverters != null)
+		{
+			for (Class<?> c = sourceClass; c != null; c = c.getSuperclass())
+			{
+				final ValueConverter<Object, Object> converter = targetConverters.get(c);
+				if (converter != null)
+				{
+					return converter;
+				}
+			}
+			for (final Class<?> c : ClassUtils.getAllInterfaces(sourceClass))
+			{
+				final ValueConverter<Object, Object> converter = targetConverters.get(c);
+				if (converter != null)
+				{
+					return converter;
+				}
+			}
+		}
+		if (target.isEnum() && CharSequence.class.isAssignableFrom(sourceClass))
+		{
+			return value -> Enum.valueOf((Class<? extends Enum>)target, value.toString().trim());
+		}
+		if (target.isArray() && sourceClass.isArray())
+		{
+			return value -> Objects.convertValue(value, target);
+		}
+		return BUILT_IN.get(target);
+	}
+}
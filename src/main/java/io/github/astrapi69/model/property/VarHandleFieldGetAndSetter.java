@@ -0,0 +1,303 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+
+import io.github.astrapi69.model.api.AccessStrategy;
+
+/**
+ * The class {@link VarHandleFieldGetAndSetter} accesses a field over a {@link VarHandle} that is
+ * created once for the field. The get and set access modes of the handle are adapted once to the
+ * exact types of every accessor method and invoked with <code>invokeExact</code>, so a call does
+ * not adapt the types again. The primitive getters and setters do not box the value, and fall back
+ * to the reflective accessors of the field if the field type cannot be converted to the primitive
+ * type.
+ */
+public class VarHandleFieldGetAndSetter extends FieldGetAndSetter
+{
+	private final MethodHandle getHandle;
+	private final MethodHandle setHandle;
+	private final MethodHandle getIntHandle;
+	private final MethodHandle getLongHandle;
+	private final MethodHandle getDoubleHandle;
+	private final MethodHandle setIntHandle;
+	private final MethodHandle setLongHandle;
+	private final MethodHandle setDoubleHandle;
+
+	/**
+	 * Construct.
+	 *
+	 * @param field
+	 *            the field
+	 * @throws IllegalAccessException
+	 *             is thrown if no access to the field is given
+	 */
+	public VarHandleFieldGetAndSetter(final Field field) throws IllegalAccessException
+	{
+		super(field);
+		final VarHandle handle = GetAndSetFactory.unreflectVarHandle(field);
+		final MethodHandle get = handle.toMethodHandle(VarHandle.AccessMode.GET);
+		final MethodHandle set = handle.toMethodHandle(VarHandle.AccessMode.SET);
+		this.getHandle = get.asType(GetAndSetFactory.GETTER_TYPE);
+		this.setHandle = set.asType(GetAndSetFactory.SETTER_TYPE);
+		final Class<?> type = field.getType();
+		this.getIntHandle = widens(type, int.class)
+			? get.asType(MethodType.methodType(int.class, Object.class))
+			: null;
+		this.getLongHandle = widens(type, long.class)
+			? get.asType(MethodType.methodType(long.class, Object.class))
+			: null;
+		this.getDoubleHandle = widens(type, double.class)
+			? get.asType(MethodType.methodType(double.class, Object.class))
+			: null;
+		this.setIntHandle = widens(int.class, type)
+			? set.asType(MethodType.methodType(void.class, Object.class, int.class))
+			: null;
+		this.setLongHandle = widens(long.class, type)
+			? set.asType(MethodType.methodType(void.class, Object.class, long.class))
+			: null;
+		this.setDoubleHandle = widens(double.class, type)
+			? set.asType(MethodType.methodType(void.class, Object.class, double.class))
+			: null;
+	}
+
+	/**
+	 * Checks if a value of the given primitive type can be converted to the other type without
+	 * loss, like {@link Field#getLong(Object)} does for an <code>int</code> field.
+	 *
+	 * @param from
+	 *            the type of the value
+	 * @param to
+	 *            the type to convert to
+	 * @return true if the value can be widened to the type
+	 */
+	private static boolean widens(final Class<?> from, final Class<?> to)
+	{
+		if (from == to)
+		{
+			return from.isPrimitive();
+		}
+		if (!from.isPrimitive() || !to.isPrimitive() || from == boolean.class
+			|| to == boolean.class || to == char.class)
+		{
+			return false;
+		}
+		return rank(from) < rank(to);
+	}
+
+	private static int rank(final Class<?> type)
+	{
+		if (type == byte.class)
+		{
+			return 1;
+		}
+		if (type == short.class || type == char.class)
+		{
+			return 2;
+		}
+		if (type == int.class)
+		{
+			return 3;
+		}
+		if (type == long.class)
+		{
+			return 4;
+		}
+		return type == float.class ? 5 : 6;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public AccessStrategy getAccessStrategy()
+	{
+		return AccessStrategy.VAR_HANDLE;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object getValue(final Object object)
+	{
+		try
+		{
+			return (Object)getHandle.invokeExact(object);
+		}
+		catch (final Throwable ex)
+		{
+			throw getException(object, ex);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getInt(final Object object)
+	{
+		if (getIntHandle == null)
+		{
+			return super.getInt(object);
+		}
+		try
+		{
+			return (int)getIntHandle.invokeExact(object);
+		}
+		catch (final Throwable ex)
+		{
+			throw getException(object, ex);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getLong(final Object object)
+	{
+		if (getLongHandle == null)
+		{
+			return super.getLong(object);
+		}
+		try
+		{
+			return (long)getLongHandle.invokeExact(object);
+		}
+		catch (final Throwable ex)
+		{
+			throw getException(object, ex);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getDouble(final Object object)
+	{
+		if (getDoubleHandle == null)
+		{
+			return super.getDouble(object);
+		}
+		try
+		{
+			return (double)getDoubleHandle.invokeExact(object);
+		}
+		catch (final Throwable ex)
+		{
+			throw getException(object, ex);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setValue(final Object object, final Object value)
+	{
+		final Object converted = convert(value, getField().getType());
+		try
+		{
+			setHandle.invokeExact(object, converted);
+		}
+		catch (final Throwable ex)
+		{
+			throw setException(object, value, ex);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setInt(final Object object, final int value)
+	{
+		if (setIntHandle == null)
+		{
+			super.setInt(object, value);
+			return;
+		}
+		try
+		{
+			setIntHandle.invokeExact(object, value);
+		}
+		catch (final Throwable ex)
+		{
+			throw setException(object, value, ex);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setLong(final Object object, final long value)
+	{
+		if (setLongHandle == null)
+		{
+			super.setLong(object, value);
+			return;
+		}
+		try
+		{
+			setLongHandle.invokeExact(object, value);
+		}
+		catch (final Throwable ex)
+		{
+			throw setException(object, value, ex);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setDouble(final Object object, final double value)
+	{
+		if (setDoubleHandle == null)
+		{
+			super.setDouble(object, value);
+			return;
+		}
+		try
+		{
+			setDoubleHandle.invokeExact(object, value);
+		}
+		catch (final Throwable ex)
+		{
+			throw setException(object, value, ex);
+		}
+	}
+
+	private RuntimeException getException(final Object object, final Throwable cause)
+	{
+		return new RuntimeException(
+			"Error getting field value of field " + getField() + " from object " + object, cause);
+	}
+
+	private RuntimeException setException(final Object object, final Object value,
+		final Throwable cause)
+	{
+		return new RuntimeException("Error setting field value of field " + getField()
+			+ " on object " + object + ", value " + value, cause);
+	}
+}
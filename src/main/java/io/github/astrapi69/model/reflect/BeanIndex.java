@@ -0,0 +1,423 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.reflect;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The class {@link BeanIndex} holds the introspection of a class. All public methods, the public
+ * fields and the declared fields and methods of the class hierarchy are scanned once, so looking
+ * up a getter, setter, method or field is a hash lookup that does not need to catch any exception.
+ * <br>
+ * Property names are looked up like the getter name is built from them, so a property is found
+ * with its decapitalized and with its capitalized name.
+ */
+public final class BeanIndex
+{
+
+	private static final String GET = "get";
+	private static final String IS = "is";
+	private static final String SET = "set";
+
+	/**
+	 * The index of every class, computed on the first lookup. A {@link ClassLocal} may compute a
+	 * value more than once if threads race, so it only holds the lazy holder that scans the class
+	 * exactly once.
+	 */
+	private static final ClassLocal<LazyIndex> INDEXES = new ClassLocal<>()
+	{
+		@Override
+		protected LazyIndex computeValue(final Class<?> type)
+		{
+			return new LazyIndex(type);
+		}
+	};
+
+	private final Class<?> type;
+
+	/** The public methods by their name. */
+	private final Map<String, Method[]> methods = new HashMap<>();
+
+	/** The public methods without parameters by their name. */
+	private final Map<String, Method> noArgMethods = new HashMap<>();
+
+	/** The getters by their property name. */
+	private final Map<String, Method> getters = new HashMap<>();
+
+	/** The indexed getters like getProperty(int) by their property name. */
+	private final Map<String, Method> indexedGetters = new HashMap<>();
+
+	/** The public fields and the declared fields of the class hierarchy by their name. */
+	private final Map<String, Field> fields = new HashMap<>();
+
+	/** The declared methods of the class hierarchy by their name, the subclass ones first. */
+	private final Map<String, Method[]> declaredMethods = new HashMap<>();
+
+	/** The declared methods of the class hierarchy, the subclass ones first. */
+	private final List<Method> allDeclaredMethods;
+
+	private BeanIndex(final Class<?> type)
+	{
+		this.type = type;
+		final Map<String, List<Method>> byName = new HashMap<>();
+		for (final Method method : type.getMethods())
+		{
+			byName.computeIfAbsent(method.getName(), name -> new ArrayList<>(1)).add(method);
+			if (method.getParameterCount() == 0)
+			{
+				noArgMethods.merge(method.getName(), method, BeanIndex::mostSpecific);
+			}
+		}
+		byName.forEach((name, list) -> methods.put(name, list.toArray(new Method[0])));
+		noArgMethods.forEach((name, method) -> {
+			if (name.startsWith(IS) && name.length() > IS.length())
+			{
+				putProperty(getters, name.substring(IS.length()), method);
+			}
+		});
+		noArgMethods.forEach((name, method) -> {
+			if (name.startsWith(GET) && name.length() > GET.length())
+			{
+				putProperty(getters, name.substring(GET.length()), method);
+			}
+		});
+		methods.forEach((name, candidates) -> {
+			if (name.startsWith(GET) && name.length() > GET.length())
+			{
+				final Method method = find(candidates, int.class);
+				if (method != null)
+				{
+					putProperty(indexedGetters, name.substring(GET.length()), method);
+				}
+			}
+		});
+
+		for (final Field field : type.getFields())
+		{
+			fields.putIfAbsent(field.getName(), field);
+		}
+		final List<Method> hierarchyMethods = new ArrayList<>();
+		final Map<String, List<Method>> declaredByName = new HashMap<>();
+		Class<?> current = type;
+		while (current != null)
+		{
+			if (current != Object.class)
+			{
+				for (final Field field : current.getDeclaredFields())
+				{
+					fields.putIfAbsent(field.getName(), field);
+				}
+			}
+			for (final Method method : current.getDeclaredMethods())
+			{
+				hierarchyMethods.add(method);
+				declaredByName.computeIfAbsent(method.getName(), name -> new ArrayList<>(1))
+					.add(method);
+			}
+			current = current.getSuperclass();
+		}
+		declaredByName
+			.forEach((name, list) -> declaredMethods.put(name, list.toArray(new Method[0])));
+		this.allDeclaredMethods = Collections.unmodifiableList(hierarchyMethods);
+	}
+
+	/**
+	 * Gets the {@link BeanIndex} of the given class. The index is created once for every class.
+	 *
+	 * @param type
+	 *            the class
+	 * @return the {@link BeanIndex} of the class
+	 */
+	public static BeanIndex of(final Class<?> type)
+	{
+		return INDEXES.get(type).get();
+	}
+
+	private static Method find(final Method[] candidates, final Class<?>... parameterTypes)
+	{
+		Method result = null;
+		if (candidates != null)
+		{
+			for (final Method method : candidates)
+			{
+				if (method.getParameterCount() == parameterTypes.length
+					&& Arrays.equals(method.getParameterTypes(), parameterTypes))
+				{
+					result = result == null ? method : mostSpecific(result, method);
+				}
+			}
+		}
+		return result;
+	}
+
+	private static Method mostSpecific(final Method method, final Method other)
+	{
+		if (method.getReturnType() != other.getReturnType()
+			&& method.getReturnType().isAssignableFrom(other.getReturnType()))
+		{
+			return other;
+		}
+		return method;
+	}
+
+	/**
+	 * Puts the given method with every property name that is capitalized to the given name.
+	 */
+	private static void putProperty(final Map<String, Method> map, final String name,
+		final Method method)
+	{
+		if (capitalize(name).equals(name))
+		{
+			map.put(name, method);
+		}
+		final String decapitalized = Character.toLowerCase(name.charAt(0)) + name.substring(1);
+		if (!decapitalized.equals(name) && capitalize(decapitalized).equals(name))
+		{
+			map.put(decapitalized, method);
+		}
+	}
+
+	private static String capitalize(final String name)
+	{
+		return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+	}
+
+	/**
+	 * Gets the class of this index.
+	 *
+	 * @return the class
+	 */
+	public Class<?> getType()
+	{
+		return type;
+	}
+
+	/**
+	 * Gets the public method with the given name and without parameters. If there is more than one
+	 * the one with the most specific return type is returned like {@link Class#getMethod(String,
+	 * Class...)} does.
+	 *
+	 * @param name
+	 *            the method name
+	 * @return the method or null if not found
+	 */
+	public Method getMethod(final String name)
+	{
+		return noArgMethods.get(name);
+	}
+
+	/**
+	 * Gets the public method with the given name and parameter types.
+	 *
+	 * @param name
+	 *            the method name
+	 * @param parameterTypes
+	 *            the parameter types
+	 * @return the method or null if not found
+	 */
+	public Method getMethod(final String name, final Class<?>... parameterTypes)
+	{
+		if (parameterTypes.length == 0)
+		{
+			return getMethod(name);
+		}
+		return find(methods.get(name), parameterTypes);
+	}
+
+	/**
+	 * Gets all public methods with the given name.
+	 *
+	 * @param name
+	 *            the method name
+	 * @return the methods, empty if there is none
+	 */
+	public List<Method> getMethods(final String name)
+	{
+		final Method[] candidates = methods.get(name);
+		return candidates == null ? Collections.emptyList() : Arrays.asList(candidates.clone());
+	}
+
+	/**
+	 * Gets the getter of the given property. A <code>get</code> method is preferred over an
+	 * <code>is</code> method.
+	 *
+	 * @param property
+	 *            the property name
+	 * @return the getter or null if not found
+	 */
+	public Method getGetter(final String property)
+	{
+		return getters.get(property);
+	}
+
+	/**
+	 * Gets the setter of the given property. A setter with the return type of the getter as
+	 * parameter is preferred over one with a parameter the return type is assignable to.
+	 *
+	 * @param property
+	 *            the property name
+	 * @return the setter or null if not found
+	 */
+	public Method getSetter(final String property)
+	{
+		if (property.isEmpty())
+		{
+			return null;
+		}
+		final Method[] candidates = methods.get(SET + capitalize(property));
+		if (candidates == null)
+		{
+			return null;
+		}
+		final Method getter = getGetter(property);
+		if (getter != null)
+		{
+			final Method setter = find(candidates, getter.getReturnType());
+			if (setter != null)
+			{
+				return setter;
+			}
+		}
+		for (final Method candidate : candidates)
+		{
+			if (candidate.getParameterCount() == 1 && (getter == null
+				|| candidate.getParameterTypes()[0].isAssignableFrom(getter.getReturnType())))
+			{
+				return candidate;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the indexed getter like <code>getProperty(int)</code> of the given property.
+	 *
+	 * @param property
+	 *            the property name
+	 * @return the indexed getter or null if not found
+	 */
+	public Method getIndexedGetter(final String property)
+	{
+		return indexedGetters.get(property);
+	}
+
+	/**
+	 * Gets the indexed setter like <code>setProperty(int, value)</code> of the given property. The
+	 * value parameter has to be the return type of the indexed getter.
+	 *
+	 * @param property
+	 *            the property name
+	 * @return the indexed setter or null if not found
+	 */
+	public Method getIndexedSetter(final String property)
+	{
+		final Method getter = getIndexedGetter(property);
+		if (getter == null)
+		{
+			return null;
+		}
+		return find(methods.get(SET + capitalize(property)), int.class, getter.getReturnType());
+	}
+
+	/**
+	 * Gets the field with the given name. Public fields, also the ones of interfaces, are
+	 * preferred over the declared fields of the class hierarchy.
+	 *
+	 * @param name
+	 *            the field name
+	 * @return the field or null if not found
+	 */
+	public Field getField(final String name)
+	{
+		return fields.get(name);
+	}
+
+	/**
+	 * Gets the declared method with the given name and parameter types of the class or the first
+	 * superclass that declares it.
+	 *
+	 * @param name
+	 *            the method name
+	 * @param parameterTypes
+	 *            the parameter types
+	 * @return the method or null if not found
+	 */
+	public Method getDeclaredMethod(final String name, final Class<?>... parameterTypes)
+	{
+		final Method[] candidates = declaredMethods.get(name);
+		if (candidates != null)
+		{
+			for (final Method method : candidates)
+			{
+				if (method.getParameterCount() == parameterTypes.length
+					&& Arrays.equals(method.getParameterTypes(), parameterTypes))
+				{
+					return method;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the declared methods of the class hierarchy, the ones of the class first.
+	 *
+	 * @return the unmodifiable list of the declared methods
+	 */
+	public List<Method> getDeclaredMethods()
+	{
+		return allDeclaredMethods;
+	}
+
+	/**
+	 * Holds the {@link BeanIndex} of a class and creates it on the first call.
+	 */
+	private static final class LazyIndex
+	{
+		private final Class<?> type;
+
+		private volatile BeanIndex index;
+
+		LazyIndex(final Class<?> type)
+		{
+			this.type = type;
+		}
+
+		BeanIndex get()
+		{
+			BeanIndex result = index;
+			if (result == null)
+			{
+				synchronized (this)
+				{
+					result = index;
+					if (result == null)
+					{
+						index = result = new BeanIndex(type);
+					}
+				}
+			}
+			return result;
+		}
+	}
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.reflect;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The class {@link ClassLocal} associates a lazily computed value with a class like a
+ * {@link ClassValue}, without keeping the class loader of this library from being unloaded.
+ * <br>
+ * A {@link ClassValue} stores its values in the class they are computed for, and the entry is
+ * only removed once the {@link ClassValue} itself is unreachable. The values of this library
+ * reference the classes of this library and so the static fields that hold the {@link ClassValue}.
+ * If such a value is attached to a class of a parent class loader, for instance {@link String} or
+ * {@link java.util.ArrayList} while this library is deployed in a web application, the class
+ * loader of the web application stays reachable from that class after a redeploy. Therefore the
+ * values of the classes of the parent class loaders are held in a map of this instance, which is
+ * unloaded together with this library. The values of all other classes, of the class loader of
+ * this library, its descendants and unrelated class loaders, are attached with a
+ * {@link ClassValue}. A value references its class, so it must not be held by a map with weak
+ * keys, but a value in the class itself does not keep the class reachable. A class of an unrelated
+ * class loader keeps this library reachable as long as the class is not unloaded. Like a
+ * {@link ClassValue}, the value of a class may be computed more than once if threads race, but only
+ * one of them is kept.
+ *
+ * @param <T>
+ *            the type of the values
+ */
+public abstract class ClassLocal<T>
+{
+
+	/** The class loader of this library. */
+	private static final ClassLoader LIBRARY_LOADER = ClassLocal.class.getClassLoader();
+
+	/** The parent class loaders of the class loader of this library, without the boot loader. */
+	private static final ClassLoader[] ANCESTOR_LOADERS = ancestorLoaders();
+
+	/** The values of the classes that are not of a parent class loader. */
+	private final ClassValue<T> attached = new ClassValue<>()
+	{
+		@Override
+		protected T computeValue(final Class<?> type)
+		{
+			return ClassLocal.this.computeValue(type);
+		}
+	};
+
+	/**
+	 * The values of the classes of the parent class loaders, which are not unloaded before this
+	 * library.
+	 */
+	private final Map<Class<?>, T> ancestors = new ConcurrentHashMap<>();
+
+	/**
+	 * Computes the value of the given class, called on the first lookup of the class.
+	 *
+	 * @param type
+	 *            the class
+	 * @return the value of the class
+	 */
+	protected abstract T computeValue(Class<?> type);
+
+	/**
+	 * Gets the value of the given class and computes it on the first lookup.
+	 *
+	 * @param type
+	 *            the class
+	 * @return the value of the class
+	 */
+	public T get(final Class<?> type)
+	{
+		if (isAncestor(type.getClassLoader()))
+		{
+			final T value = ancestors.get(type);
+			if (value != null)
+			{
+				return value;
+			}
+			// computed outside of the map like a ClassValue, so the computation can look up
+			// other classes
+			final T computed = computeValue(type);
+			final T previous = ancestors.putIfAbsent(type, computed);
+			return previous != null ? previous : computed;
+		}
+		return attached.get(type);
+	}
+
+	/**
+	 * Removes the value of the given class, so it is computed again on the next lookup.
+	 *
+	 * @param type
+	 *            the class
+	 */
+	public void remove(final Class<?> type)
+	{
+		attached.remove(type);
+		ancestors.remove(type);
+	}
+
+	/**
+	 * Checks if the given class loader is a parent of the class loader of this library.
+	 *
+	 * @param loader
+	 *            the class loader of a class
+	 * @return true if the classes of the class loader outlive this library
+	 */
+	static boolean isAncestor(final ClassLoader loader)
+	{
+		if (loader == null)
+		{
+			return true;
+		}
+		for (final ClassLoader ancestor : ANCESTOR_LOADERS)
+		{
+			if (ancestor == loader)
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static ClassLoader[] ancestorLoaders()
+	{
+		final List<ClassLoader> loaders = new ArrayList<>();
+		ClassLoader current = LIBRARY_LOADER != null ? LIBRARY_LOADER.getParent() : null;
+		while (current != null)
+		{
+			loaders.add(current);
+			current = current.getParent();
+		}
+		return loaders.toArray(new ClassLoader[0]);
+	}
+}
@@ -90,25 +90,19 @@ public class DefaultMethodResolver implements IMethodResolver
 	@Override
 	public Method getMethod(Class<?> owner, Serializable id)
 	{
-		Class<?> candidate = owner;
-		while (candidate != null)
+		for (Method method : BeanIndex.of(owner).getDeclaredMethods())
 		{
-			for (Method method : candidate.getDeclaredMethods())
+			if (id.equals(getId(method)))
 			{
-				if (id.equals(getId(method)))
+				try
 				{
-					try
-					{
-						method.setAccessible(true);
-					}
-					catch (SecurityException accessNotAllowed)
-					{
-					}
-					return method;
+					method.setAccessible(true);
 				}
+				catch (SecurityException accessNotAllowed)
+				{
+				}
+				return method;
 			}
-
-			candidate = candidate.getSuperclass();
 		}
 		throw new IllegalArgumentException(
 			String.format("unknown method %s#%s", owner.getName(), id));
@@ -148,26 +142,12 @@ public class DefaultMethodResolver implements IMethodResolver
 		System.arraycopy(getterParameters, 0, setterParameters, 0, getterParameters.length);
 		setterParameters[getterParameters.length] = getter.getReturnType();
 
-		Class<?> owner = getter.getDeclaringClass();
-		Method setter;
-		while (true)
+		Method setter = BeanIndex.of(getter.getDeclaringClass()).getDeclaredMethod(name,
+			setterParameters);
+		if (setter == null)
 		{
-			try
-			{
-				setter = owner.getDeclaredMethod(name, setterParameters);
-				break;
-			}
-			catch (Exception e)
-			{
-				if (owner == Object.class)
-				{
-					throw new RuntimeException(
-						String.format("no setter for %s#%s", getter.getDeclaringClass(), name));
-				}
-
-				// getter might be overriden and setter is declared in superclass only
-				owner = owner.getSuperclass();
-			}
+			throw new RuntimeException(
+				String.format("no setter for %s#%s", getter.getDeclaringClass(), name));
 		}
 
 		try
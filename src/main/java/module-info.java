@@ -15,8 +15,9 @@ module model.data
 {
 	requires lombok;
 	requires java.base;
-	requires java.desktop;
 	requires java.logging;
+	requires static java.management;
+	requires static jdk.jfr;
 	requires org.apache.commons.lang3;
 	requires org.danekja.jdk.serializable.functional;
 
@@ -25,4 +26,6 @@ module model.data
 	exports io.github.astrapi69.model.property;
 	exports io.github.astrapi69.model.reflect;
 	exports io.github.astrapi69.model.util;
+
+	uses io.github.astrapi69.model.api.GetAndSetProvider;
 }
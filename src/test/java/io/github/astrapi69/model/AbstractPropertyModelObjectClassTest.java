@@ -24,6 +24,7 @@ import java.io.Serializable;
 import org.testng.annotations.Test;
 
 import io.github.astrapi69.model.api.IModel;
+import io.github.astrapi69.model.api.IObjectClassAwareModel;
 
 /**
  * <p>
@@ -79,6 +80,18 @@ public class AbstractPropertyModelObjectClassTest
 		assertEquals(Integer.class, somePropertyModel.getObjectClass());
 	}
 
+	/**
+	 * Asserting that the type of a nested property expression is inferred from the class of an
+	 * IObjectClassAwareModel target that has no object.
+	 */
+	@Test
+	public void testNestedExpressionOnEmptyTarget()
+	{
+		PropertyModel<Integer> somePropertyModel = new PropertyModel<>(new EmptyCustomBeanModel(),
+			"customType.someProperty");
+		assertEquals(Integer.class, somePropertyModel.getObjectClass());
+	}
+
 	/**
 	 *
 	 */
@@ -88,6 +101,27 @@ public class AbstractPropertyModelObjectClassTest
 		assertPropertyModelTargetTypeIsInteger(new SerializableModel<>(new CustomType()));
 	}
 
+	private static class EmptyCustomBeanModel
+		implements
+			IModel<CustomBean>,
+			IObjectClassAwareModel<CustomBean>
+	{
+		@Serial
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public CustomBean getObject()
+		{
+			return null;
+		}
+
+		@Override
+		public Class<CustomBean> getObjectClass()
+		{
+			return CustomBean.class;
+		}
+	}
+
 	private static class CustomBean implements Serializable
 	{
 		@Serial
@@ -0,0 +1,157 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.github.astrapi69.model.api.IModel;
+import io.github.astrapi69.model.api.IObjectClassAwareModel;
+import io.github.astrapi69.model.lambda.Address;
+import io.github.astrapi69.model.lambda.Person;
+import io.github.astrapi69.model.property.ClassValueClassCache;
+import io.github.astrapi69.model.property.DefaultResolverMetrics;
+import io.github.astrapi69.model.property.PropertyResolver;
+
+/**
+ * The unit test class for the class {@link PropertyColumnAccessor}
+ */
+public class PropertyColumnAccessorTest
+{
+
+	private DefaultResolverMetrics metrics;
+
+	@BeforeMethod
+	public void setUp()
+	{
+		PropertyResolver.setClassCache(null, new ClassValueClassCache());
+		metrics = new DefaultResolverMetrics(1);
+		PropertyResolver.setMetrics(metrics);
+	}
+
+	@AfterMethod
+	public void tearDown()
+	{
+		PropertyResolver.setMetrics(null);
+	}
+
+	private static Person person(final String street)
+	{
+		final Person person = new Person();
+		person.setAddress(new Address());
+		person.getAddress().setStreet(street);
+		return person;
+	}
+
+	@Test
+	public void testOneResolutionPerColumn()
+	{
+		final PropertyColumnAccessor<String> column = PropertyColumnAccessor.of("address.street");
+		final List<IModel<String>> cells = new ArrayList<>();
+		for (int i = 0; i < 100; i++)
+		{
+			cells.add(column.bind(person("Street " + i)));
+		}
+		assertEquals("Street 0", cells.get(0).getObject());
+		final long lookups = metrics.getHits() + metrics.getMisses();
+		for (int i = 0; i < cells.size(); i++)
+		{
+			assertEquals("Street " + i, cells.get(i).getObject());
+			cells.get(i).setObject("Road " + i);
+			assertEquals("Road " + i, cells.get(i).getObject());
+		}
+		assertEquals(lookups, metrics.getHits() + metrics.getMisses());
+	}
+
+	@Test
+	public void testAlternatingRowClasses()
+	{
+		final PropertyColumnAccessor<String> column = PropertyColumnAccessor.of("address.street");
+		final Person person = person("Main Street");
+		final Person employee = new Person()
+		{
+			private static final long serialVersionUID = 1L;
+		};
+		employee.setAddress(new Address());
+		employee.getAddress().setStreet("Side Street");
+		assertEquals("Main Street", column.getValue(person));
+		assertEquals("Side Street", column.getValue(employee));
+		final long lookups = metrics.getHits() + metrics.getMisses();
+		for (int i = 0; i < 10; i++)
+		{
+			assertEquals("Main Street", column.getValue(person));
+			assertEquals("Side Street", column.getValue(employee));
+		}
+		assertEquals(lookups, metrics.getHits() + metrics.getMisses());
+	}
+
+	@Test
+	public void testNullValues()
+	{
+		final PropertyColumnAccessor<String> column = PropertyColumnAccessor.of("address.street");
+		final Person person = new Person();
+		assertNull(column.getValue(null));
+		assertNull(column.getValue(person));
+		column.bind(person).setObject("Main Street");
+		assertEquals("Main Street", person.getAddress().getStreet());
+	}
+
+	@Test
+	public void testRowModel()
+	{
+		final IModel<Person> row = BaseModel.of(person("Main Street"));
+		final IModel<String> cell = PropertyColumnAccessor.<String> of("address.street").bind(row);
+		assertEquals("Main Street", cell.getObject());
+		row.setObject(person("Side Street"));
+		assertEquals("Side Street", cell.getObject());
+		assertTrue(cell instanceof IObjectClassAwareModel);
+		assertEquals(String.class, ((IObjectClassAwareModel<?>)cell).getObjectClass());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testSerialization() throws Exception
+	{
+		final PropertyColumnAccessor<String> column = PropertyColumnAccessor.of("address.street");
+		final IModel<String> cell = column.bind(person("Main Street"));
+		assertEquals("Main Street", cell.getObject());
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes))
+		{
+			out.writeObject(cell);
+		}
+		try (ObjectInputStream in = new ObjectInputStream(
+			new ByteArrayInputStream(bytes.toByteArray())))
+		{
+			final IModel<String> copy = (IModel<String>)in.readObject();
+			assertEquals("Main Street", copy.getObject());
+			copy.setObject("Side Street");
+			assertEquals("Side Street", copy.getObject());
+		}
+	}
+}
@@ -0,0 +1,134 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.github.astrapi69.model.api.IModel;
+import io.github.astrapi69.model.lambda.Address;
+import io.github.astrapi69.model.lambda.Person;
+import io.github.astrapi69.model.property.ClassValueClassCache;
+import io.github.astrapi69.model.property.DefaultResolverMetrics;
+import io.github.astrapi69.model.property.PropertyResolver;
+
+/**
+ * Tests the inline cache of the accessor in the class {@link AbstractPropertyModel}
+ */
+public class PropertyModelInlineCacheTest
+{
+
+	public static class Customer extends Person
+	{
+		private static final long serialVersionUID = 1L;
+	}
+
+	private DefaultResolverMetrics metrics;
+
+	@BeforeMethod
+	public void setUp()
+	{
+		PropertyResolver.setClassCache(null, new ClassValueClassCache());
+		metrics = new DefaultResolverMetrics(1);
+		PropertyResolver.setMetrics(metrics);
+	}
+
+	@AfterMethod
+	public void tearDown()
+	{
+		PropertyResolver.setMetrics(null);
+	}
+
+	private static Person person(final String street)
+	{
+		final Person person = new Person();
+		person.setAddress(new Address());
+		person.getAddress().setStreet(street);
+		return person;
+	}
+
+	@Test
+	public void testNoLookupOnceResolved()
+	{
+		final IModel<Person> target = BaseModel.of(person("Main Street"));
+		final PropertyModel<String> model = new PropertyModel<>(target, "address.street");
+		assertEquals("Main Street", model.getObject());
+		final long lookups = metrics.getHits() + metrics.getMisses();
+		model.setObject("Side Street");
+		target.setObject(person("High Street"));
+		assertEquals("High Street", model.getObject());
+		assertEquals(lookups, metrics.getHits() + metrics.getMisses());
+	}
+
+	@Test
+	public void testTargetClassChanges()
+	{
+		final IModel<Person> target = BaseModel.of(person("Main Street"));
+		final PropertyModel<String> model = new PropertyModel<>(target, "address.street");
+		assertEquals("Main Street", model.getObject());
+		final Customer customer = new Customer();
+		target.setObject(customer);
+		assertNull(model.getObject());
+		model.setObject("Side Street");
+		assertEquals("Side Street", customer.getAddress().getStreet());
+		target.setObject(null);
+		assertNull(model.getObject());
+	}
+
+	@Test
+	public void testKeyedExpression()
+	{
+		final Map<String, String> map = new HashMap<>();
+		map.put("key", "value");
+		final PropertyModel<String> model = new PropertyModel<>(map, "key");
+		assertEquals("value", model.getObject());
+		model.setObject("other");
+		assertEquals("other", map.get("key"));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testSerialization() throws Exception
+	{
+		final PropertyModel<String> model = new PropertyModel<>(person("Main Street"),
+			"address.street");
+		assertEquals("Main Street", model.getObject());
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes))
+		{
+			out.writeObject(model);
+		}
+		try (ObjectInputStream in = new ObjectInputStream(
+			new ByteArrayInputStream(bytes.toByteArray())))
+		{
+			final PropertyModel<String> copy = (PropertyModel<String>)in.readObject();
+			assertEquals("Main Street", copy.getObject());
+			copy.setObject("Side Street");
+			assertEquals("Side Street", copy.getObject());
+		}
+	}
+}
@@ -16,6 +16,7 @@
 package io.github.astrapi69.model;
 
 import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
 
 import org.testng.annotations.Test;
 
@@ -40,6 +41,19 @@ public class PropertyModelTest
 		model.setObject("foo");
 	}
 
+	@Test
+	public void testNestedPropertyReflection()
+	{
+		final Employee employee = Employee.builder().person(Person.builder().name("bar").build())
+			.build();
+		final PropertyModel<String> model = new PropertyModel<>(employee, "person.name");
+		assertEquals("getName", model.getPropertyGetter().getName());
+		assertEquals("setName", model.getPropertySetter().getName());
+		assertEquals("name", model.getPropertyField().getName());
+		assertEquals(String.class, model.getObjectClass());
+		assertNull(new PropertyModel<>(employee, "person.unknown").getPropertyGetter());
+	}
+
 	@Test
 	public void testSetInnerProperty()
 	{
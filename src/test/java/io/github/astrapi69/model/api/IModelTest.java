@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.api;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+import io.github.astrapi69.model.BaseModel;
+import io.github.astrapi69.model.LoadableDetachableModel;
+
+/**
+ * The unit test class for the default methods of the interface {@link IModel}
+ */
+public class IModelTest
+{
+
+	private static final AtomicInteger LOADS = new AtomicInteger();
+
+	private static LoadableDetachableModel<String> counting(final String value)
+	{
+		return new LoadableDetachableModel<String>()
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected String load()
+			{
+				LOADS.incrementAndGet();
+				return value;
+			}
+		};
+	}
+
+	@Test
+	public void testMemoizeEvaluatesOncePerAttachCycle()
+	{
+		LOADS.set(0);
+		final AtomicInteger mapped = new AtomicInteger();
+		final LoadableDetachableModel<String> source = counting("foo");
+		final IModel<Integer> model = source.map(value -> {
+			mapped.incrementAndGet();
+			return value.length();
+		}).filter(length -> length > 1).orElse(0).memoize();
+		for (int i = 0; i < 5; i++)
+		{
+			assertEquals(Integer.valueOf(3), model.getObject());
+		}
+		assertEquals(1, LOADS.get());
+		assertEquals(1, mapped.get());
+		model.detach();
+		assertTrue(!source.isAttached());
+		assertEquals(Integer.valueOf(3), model.getObject());
+		assertEquals(2, LOADS.get());
+		assertEquals(2, mapped.get());
+	}
+
+	@Test
+	public void testMemoizeSetObject()
+	{
+		final IModel<String> source = BaseModel.of("foo");
+		final IModel<String> model = source.memoize();
+		assertEquals("foo", model.getObject());
+		model.setObject("bar");
+		assertEquals("bar", source.getObject());
+		assertEquals("bar", model.getObject());
+	}
+
+	@Test
+	public void testFusedChain()
+	{
+		final IModel<String> source = BaseModel.of("foo");
+		final IModel<Integer> model = source.map(String::length).filter(length -> length > 3)
+			.map(length -> length * 2).orElse(-1);
+		assertTrue(model instanceof FusedModel);
+		assertEquals(Integer.valueOf(-1), model.getObject());
+		source.setObject("foobar");
+		assertEquals(Integer.valueOf(12), model.getObject());
+		source.setObject(null);
+		assertEquals(Integer.valueOf(-1), model.getObject());
+		assertEquals(Boolean.FALSE, source.isPresent().getObject());
+		assertEquals(Boolean.TRUE, source.orElseGet(() -> "bar").isPresent().getObject());
+		assertEquals("bar", source.orElse(null).orElseGet(() -> "bar").getObject());
+		assertNull(source.map(String::length).getObject());
+	}
+
+	@Test
+	public void testFusedChainDetach()
+	{
+		LOADS.set(0);
+		final LoadableDetachableModel<String> source = counting("foo");
+		final IModel<Integer> model = source.map(String::length).filter(length -> length > 1)
+			.orElse(0);
+		assertEquals(Integer.valueOf(3), model.getObject());
+		assertTrue(source.isAttached());
+		model.detach();
+		assertTrue(!source.isAttached());
+		assertEquals(Integer.valueOf(3), model.getObject());
+		assertEquals(2, LOADS.get());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testFusedChainSerialization() throws Exception
+	{
+		final IModel<Integer> model = BaseModel.of("foo").map(String::length)
+			.filter(length -> length > 1).orElse(0);
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes))
+		{
+			out.writeObject(model);
+		}
+		try (ObjectInputStream in = new ObjectInputStream(
+			new ByteArrayInputStream(bytes.toByteArray())))
+		{
+			final IModel<Integer> copy = (IModel<Integer>)in.readObject();
+			assertEquals(Integer.valueOf(3), copy.getObject());
+		}
+	}
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.jfr;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.github.astrapi69.model.LoadableDetachableModel;
+import io.github.astrapi69.model.PropertyModel;
+import io.github.astrapi69.model.lambda.Person;
+import io.github.astrapi69.model.property.ClassValueClassCache;
+import io.github.astrapi69.model.property.PropertyResolver;
+
+/**
+ * The unit test class for the class {@link ModelEvents}
+ */
+public class ModelEventsTest
+{
+
+	@BeforeMethod
+	public void setUp()
+	{
+		PropertyResolver.setClassCache(null, new ClassValueClassCache());
+	}
+
+	@Test
+	public void testDisabledByDefault()
+	{
+		assertNull(ModelEvents.beginResolution());
+		assertNull(ModelEvents.beginLoad());
+		assertNull(ModelEvents.beginEvaluation());
+		ModelEvents.commitResolution(null, Person.class, "name");
+	}
+
+	@Test
+	public void testRecordedEvents() throws Exception
+	{
+		final Path file = Files.createTempFile("model-events", ".jfr");
+		try (Recording recording = new Recording())
+		{
+			recording.enable(ModelEvents.PREFIX + "PropertyResolution")
+				.withThreshold(Duration.ZERO);
+			recording.enable(ModelEvents.PREFIX + "ModelLoad").withThreshold(Duration.ZERO);
+			recording.enable(ModelEvents.PREFIX + "PropertyModelEvaluation")
+				.withThreshold(Duration.ZERO);
+			recording.start();
+
+			final Person person = new Person();
+			person.setName("Anna");
+			assertEquals("Anna", PropertyModel.of(person, "name").getObject());
+			final LoadableDetachableModel<Person> model = new LoadableDetachableModel<>()
+			{
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected Person load()
+				{
+					return person;
+				}
+			};
+			model.getObject();
+
+			recording.stop();
+			recording.dump(file);
+		}
+		try
+		{
+			final List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+				.filter(event -> event.getEventType().getName().startsWith(ModelEvents.PREFIX))
+				.collect(Collectors.toList());
+			final RecordedEvent resolution = find(events, "PropertyResolution");
+			assertEquals(Person.class.getName(), resolution.getClass("type").getName());
+			assertEquals("name", resolution.getString("expression"));
+			final RecordedEvent evaluation = find(events, "PropertyModelEvaluation");
+			assertEquals(Person.class.getName(), evaluation.getClass("type").getName());
+			assertEquals("name", evaluation.getString("expression"));
+			assertTrue(evaluation.getDuration().compareTo(resolution.getDuration()) >= 0);
+			final RecordedEvent load = find(events, "ModelLoad");
+			assertEquals(Person.class.getName(), load.getClass("type").getName());
+			assertTrue(load.getClass("modelClass").getName().startsWith(getClass().getName()));
+		}
+		finally
+		{
+			Files.delete(file);
+		}
+	}
+
+	private static RecordedEvent find(final List<RecordedEvent> events, final String name)
+	{
+		return events.stream()
+			.filter(event -> event.getEventType().getName().equals(ModelEvents.PREFIX + name))
+			.findFirst().orElseThrow(() -> new AssertionError("No event " + name));
+	}
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.github.astrapi69.model.lambda.Address;
+import io.github.astrapi69.model.lambda.Person;
+
+/**
+ * The unit test class for the class {@link AccessorManifest}
+ */
+public class AccessorManifestTest
+{
+
+	private ClassValueClassCache cache;
+
+	@BeforeMethod
+	public void setUp()
+	{
+		cache = new ClassValueClassCache();
+		PropertyResolver.setClassCache(null, cache);
+	}
+
+	@AfterMethod
+	public void tearDown()
+	{
+		PropertyResolver.setAccessorManifest(null);
+		PropertyResolver.setClassCache(null, new ClassValueClassCache());
+	}
+
+	@Test
+	public void testPrewarm()
+	{
+		assertEquals(2, PropertyResolver.prewarm(Person.class, "address.street", "name"));
+		assertNotNull(cache.get(Person.class).get("address"));
+		assertNotNull(cache.get(Person.class).get("name"));
+		assertNotNull(cache.get(Address.class).get("street"));
+		assertEquals(1, PropertyResolver.prewarm(Person.class, "address", "unknown"));
+	}
+
+	@Test
+	public void testRecordWriteAndRead() throws Exception
+	{
+		final AccessorManifest manifest = new AccessorManifest();
+		PropertyResolver.setAccessorManifest(manifest);
+		final Person person = new Person();
+		PropertyResolver.setValue("address.street", person, "Main Street");
+		PropertyResolver.getValue("name", person);
+		PropertyResolver.getValue("address.street", person);
+		PropertyResolver.setAccessorManifest(null);
+		PropertyResolver.getValue("address.number", person);
+		assertEquals(Set.of("address", "name"), manifest.getExpressions(Person.class.getName()));
+		assertEquals(Set.of("street"), manifest.getExpressions(Address.class.getName()));
+
+		final StringWriter writer = new StringWriter();
+		manifest.write(writer);
+		final String[] lines = writer.toString().split("\n");
+		assertEquals(4, lines.length);
+		assertTrue(lines[0].startsWith("#"));
+		assertEquals(Address.class.getName() + "\tstreet", lines[1]);
+		assertEquals(Person.class.getName() + "\taddress", lines[2]);
+		assertEquals(Person.class.getName() + "\tname", lines[3]);
+
+		final AccessorManifest read = AccessorManifest
+			.read(new StringReader(writer + "\n# comment\nmalformed\n"));
+		assertEquals(3, read.size());
+		assertEquals(manifest.getExpressions(Person.class.getName()),
+			read.getExpressions(Person.class.getName()));
+	}
+
+	@Test
+	public void testMapKeysAreWrittenAndReadUnchanged() throws Exception
+	{
+		final Set<String> expressions = Set.of("[ padded key ]", "[tab\tkey]", "[line\nbreak]",
+			"[back\\slash\\t]");
+		final AccessorManifest manifest = new AccessorManifest();
+		for (final String expression : expressions)
+		{
+			manifest.add(Person.class, expression);
+		}
+		final StringWriter writer = new StringWriter();
+		manifest.write(writer);
+		// every pair is written on one line
+		assertEquals(1 + expressions.size(), writer.toString().split("\n").length);
+		final AccessorManifest read = AccessorManifest
+			.read(new StringReader(writer.toString()));
+		assertEquals(expressions, read.getExpressions(Person.class.getName()));
+	}
+
+	@Test
+	public void testReplay()
+	{
+		final AccessorManifest manifest = new AccessorManifest();
+		manifest.add(Person.class, "address");
+		manifest.add(Address.class, "street");
+		manifest.add("io.github.astrapi69.model.property.Missing", "name");
+		assertEquals(2, manifest.replay(getClass().getClassLoader()));
+		assertNotNull(cache.get(Person.class).get("address"));
+		assertNotNull(cache.get(Address.class).get("street"));
+	}
+
+	@Test
+	public void testReplayWithExecutor() throws Exception
+	{
+		final AccessorManifest manifest = new AccessorManifest();
+		manifest.add(Person.class, "address");
+		manifest.add(Person.class, "name");
+		manifest.add(Address.class, "street");
+		final ExecutorService executor = Executors.newFixedThreadPool(2);
+		try
+		{
+			assertEquals(3, manifest.replay(getClass().getClassLoader(), executor)
+				.get(10, TimeUnit.SECONDS).intValue());
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+		assertNotNull(cache.get(Person.class).get("name"));
+		assertNotNull(cache.get(Address.class).get("street"));
+	}
+}
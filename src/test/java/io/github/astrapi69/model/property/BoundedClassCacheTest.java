@@ -0,0 +1,163 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import io.github.astrapi69.model.api.GetAndSet;
+import io.github.astrapi69.model.lambda.Address;
+import io.github.astrapi69.model.lambda.Person;
+
+/**
+ * The unit test class for the class {@link BoundedClassCache}
+ */
+public class BoundedClassCacheTest
+{
+
+	private static void lookup(final Map<String, GetAndSet> map, final String key)
+	{
+		if (map.get(key) == null)
+		{
+			map.put(key, new MapGetSet(key));
+		}
+	}
+
+	@Test
+	public void testMaxEntriesPerClass()
+	{
+		final BoundedClassCache cache = new BoundedClassCache(2, 100);
+		final Map<String, GetAndSet> map = cache.getOrCreate(HashMap.class);
+		lookup(map, "a");
+		lookup(map, "b");
+		lookup(map, "c");
+		assertEquals(2, map.size());
+		assertEquals(1, cache.getEvictionCount());
+		// the least recently used entry was evicted
+		assertNull(map.get("a"));
+		assertNotNull(map.get("c"));
+	}
+
+	@Test
+	public void testFrequentEntryIsNotEvicted()
+	{
+		final BoundedClassCache cache = new BoundedClassCache(2, 100);
+		final Map<String, GetAndSet> map = cache.getOrCreate(HashMap.class);
+		lookup(map, "frequent");
+		for (int i = 0; i < 10; i++)
+		{
+			lookup(map, "frequent");
+		}
+		lookup(map, "b");
+		lookup(map, "frequent");
+		lookup(map, "c");
+		// frequent gets a second chance, b was not used since it was added and is replaced by c
+		assertEquals(1, cache.getEvictionCount());
+		lookup(map, "d");
+		// now the clock hand is at frequent, which is used more often than d, so d is not
+		// admitted
+		assertEquals(1, cache.getRejectionCount());
+		assertTrue(map.containsKey("frequent"));
+		assertTrue(map.containsKey("c"));
+		assertEquals(2, map.size());
+	}
+
+	@Test
+	public void testMaxEntries()
+	{
+		final BoundedClassCache cache = new BoundedClassCache(10, 3);
+		final Map<String, GetAndSet> persons = cache.getOrCreate(Person.class);
+		final Map<String, GetAndSet> addresses = cache.getOrCreate(Address.class);
+		lookup(persons, "a");
+		lookup(persons, "b");
+		lookup(addresses, "c");
+		lookup(addresses, "d");
+		lookup(addresses, "e");
+		assertEquals(3, cache.size());
+		assertEquals(Map.of(Person.class.getName(), 1, Address.class.getName(), 2),
+			cache.getSizes());
+		assertEquals(2, cache.getEvictionCount());
+		assertEquals(3, persons.size() + addresses.size());
+		persons.clear();
+		assertEquals(addresses.size(), cache.size());
+	}
+
+	@Test
+	public void testPropertyResolverWithBoundedCache()
+	{
+		final BoundedClassCache cache = new BoundedClassCache(4, 100);
+		PropertyResolver.setClassCache(null, cache);
+		try
+		{
+			for (int i = 0; i < 20; i++)
+			{
+				assertTrue(PropertyResolver.resolveGetAndSetter("missing" + i,
+					Person.class) instanceof UnresolvedGetAndSet);
+			}
+			assertEquals(4, cache.get(Person.class).size());
+			assertEquals(16, cache.getEvictionCount() + cache.getRejectionCount());
+		}
+		finally
+		{
+			PropertyResolver.setClassCache(null, new ClassValueClassCache());
+		}
+	}
+
+	@Test
+	public void testReplacedCacheIsCollected() throws Exception
+	{
+		final WeakReference<BoundedClassCache> reference = useAndReplaceCache();
+		for (int i = 0; i < 50 && reference.get() != null; i++)
+		{
+			System.gc();
+			Thread.sleep(20);
+		}
+		assertNull("The replaced cache is still reachable from the cached classes",
+			reference.get());
+	}
+
+	private WeakReference<BoundedClassCache> useAndReplaceCache()
+	{
+		final BoundedClassCache cache = new BoundedClassCache(4, 100);
+		PropertyResolver.setClassCache(null, cache);
+		try
+		{
+			final Person person = new Person();
+			PropertyResolver.setValue("address.street", person, "Main Street");
+			assertEquals("Main Street", PropertyResolver.getValue("address.street", person));
+			assertEquals(2, cache.size());
+		}
+		finally
+		{
+			PropertyResolver.setClassCache(null, new ClassValueClassCache());
+		}
+		return new WeakReference<>(cache);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testInvalidBounds()
+	{
+		new BoundedClassCache(0, 10);
+	}
+}
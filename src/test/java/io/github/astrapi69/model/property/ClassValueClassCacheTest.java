@@ -0,0 +1,281 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertSame;
+import static org.testng.AssertJUnit.fail;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import io.github.astrapi69.model.api.GetAndSet;
+import io.github.astrapi69.model.lambda.Person;
+import io.github.astrapi69.test.object.Employee;
+
+/**
+ * The unit test class for the class {@link ClassValueClassCache}
+ */
+public class ClassValueClassCacheTest
+{
+
+	@Test
+	public void testGetAndPut()
+	{
+		final ClassValueClassCache cache = new ClassValueClassCache();
+		final Map<String, GetAndSet> values = cache.getOrCreate(Person.class);
+		assertSame(values, cache.get(Person.class));
+		final Map<String, GetAndSet> other = new HashMap<>();
+		other.put("0", new ListGetSet(0));
+		cache.put(Person.class, other);
+		assertEquals(other.get("0"), cache.get(Person.class).get("0"));
+	}
+
+	@Test
+	public void testSizes()
+	{
+		final ClassValueClassCache cache = new ClassValueClassCache();
+		cache.getOrCreate(Employee.class);
+		cache.getOrCreate(Person.class).put("0", new ListGetSet(0));
+		cache.getOrCreate(Person.class).put("1", new ListGetSet(1));
+		// classes without entries are not included
+		assertEquals(Map.of(Person.class.getName(), 2), cache.getSizes());
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	public void testRedeployedClassLoaderIsCollected() throws Exception
+	{
+		final WeakReference<ClassLoader> reference = resolveInThrowawayClassLoader();
+		for (int i = 0; i < 50 && reference.get() != null; i++)
+		{
+			System.gc();
+			Thread.sleep(20);
+		}
+		assertNull("The class loader of a resolved class is still reachable", reference.get());
+	}
+
+	@Test
+	public void testUnrelatedClassLoaderIsCollected() throws Exception
+	{
+		// a sibling of the class loader of this library, like the class loader of another web
+		// application that shares the library through a common parent
+		final WeakReference<ClassLoader> reference = resolveInThrowawayClassLoader(
+			new RedeployClassLoader(ClassLoader.getPlatformClassLoader()));
+		for (int i = 0; i < 50 && reference.get() != null; i++)
+		{
+			System.gc();
+			Thread.sleep(20);
+		}
+		assertNull("The unrelated class loader of a resolved class is still reachable",
+			reference.get());
+	}
+
+	private WeakReference<ClassLoader> resolveInThrowawayClassLoader() throws Exception
+	{
+		return resolveInThrowawayClassLoader(new RedeployClassLoader());
+	}
+
+	private WeakReference<ClassLoader> resolveInThrowawayClassLoader(
+		final ClassLoader classLoader) throws Exception
+	{
+		final Class<?> beanClass = classLoader.loadClass(RedeployBean.class.getName());
+		assertEquals(classLoader, beanClass.getClassLoader());
+		final Object bean = beanClass.getDeclaredConstructor().newInstance();
+		assertEquals("redeployed", PropertyResolver.getValue("name", bean));
+		PropertyResolver.setValue("name", bean, "changed");
+		assertEquals("changed", PropertyResolver.compile("name").getValue(bean));
+		assertEquals(3, PropertyResolver.getValue("count", bean));
+		final Object beans = Array.newInstance(beanClass, 2);
+		Array.set(beans, 0, bean);
+		assertEquals("changed", PropertyResolver.getValue("[0].name", beans));
+		return new WeakReference<>(classLoader);
+	}
+
+	@Test
+	public void testRedeployedLibraryIsCollected() throws Exception
+	{
+		final WeakReference<ClassLoader> reference = resolveWithThrowawayLibrary();
+		for (int i = 0; i < 50 && reference.get() != null; i++)
+		{
+			System.gc();
+			Thread.sleep(20);
+		}
+		assertNull("The class loader of the library is still reachable", reference.get());
+	}
+
+	/**
+	 * Loads this library in its own class loader, like a web application that ships it, and
+	 * resolves properties of JDK classes and of classes of the parent class loader with it.
+	 */
+	private WeakReference<ClassLoader> resolveWithThrowawayLibrary() throws Exception
+	{
+		final ClassLoader classLoader = new LibraryClassLoader();
+		final Class<?> resolver = classLoader.loadClass(PropertyResolver.class.getName());
+		assertEquals(classLoader, resolver.getClassLoader());
+		final Method getValue = resolver.getMethod("getValue", String.class, Object.class);
+		final Method setValue = resolver.getMethod("setValue", String.class, Object.class,
+			Object.class);
+		final Method getPropertyClass = resolver.getMethod("getPropertyClass", String.class,
+			Class.class);
+		final List<String> list = new ArrayList<>(List.of("first", "second"));
+		assertEquals(2, getValue.invoke(null, "size", list));
+		assertEquals(Boolean.FALSE, getValue.invoke(null, "empty", list));
+		assertEquals("second", getValue.invoke(null, "[1]", list));
+		assertEquals(5, getValue.invoke(null, "bytes.length", "model"));
+		try
+		{
+			getValue.invoke(null, "missing", "model");
+			fail("String has no property missing");
+		}
+		catch (final InvocationTargetException e)
+		{
+			// the failed lookup is cached for String as well
+		}
+		final Employee employee = new Employee();
+		setValue.invoke(null, "person.name", employee, "Anna");
+		assertEquals("Anna", employee.getPerson().getName());
+		assertEquals(String.class, getPropertyClass.invoke(null, "person.name", Employee.class));
+		return new WeakReference<>(classLoader);
+	}
+
+	public static class RedeployBean
+	{
+		private int count = 3;
+
+		private String name = "redeployed";
+
+		public static MethodHandles.Lookup lookup()
+		{
+			return MethodHandles.lookup();
+		}
+
+		public String getName()
+		{
+			return name;
+		}
+
+		public void setName(final String name)
+		{
+			this.name = name;
+		}
+	}
+
+	/**
+	 * A class loader that defines the classes of this library itself instead of delegating to its
+	 * parent, like the class loader of a web application that ships the library does.
+	 */
+	static final class LibraryClassLoader extends ClassLoader
+	{
+		private static final String LIBRARY_PACKAGE = "io.github.astrapi69.model.";
+
+		LibraryClassLoader()
+		{
+			super(ClassValueClassCacheTest.class.getClassLoader());
+		}
+
+		@Override
+		protected Class<?> loadClass(final String name, final boolean resolve)
+			throws ClassNotFoundException
+		{
+			if (!name.startsWith(LIBRARY_PACKAGE))
+			{
+				return super.loadClass(name, resolve);
+			}
+			synchronized (getClassLoadingLock(name))
+			{
+				Class<?> loaded = findLoadedClass(name);
+				if (loaded == null)
+				{
+					final String resource = name.replace('.', '/') + ".class";
+					try (InputStream in = ClassValueClassCacheTest.class.getClassLoader()
+						.getResourceAsStream(resource))
+					{
+						if (in == null)
+						{
+							throw new ClassNotFoundException(name);
+						}
+						final byte[] bytes = in.readAllBytes();
+						loaded = defineClass(name, bytes, 0, bytes.length);
+					}
+					catch (final IOException e)
+					{
+						throw new ClassNotFoundException(name, e);
+					}
+				}
+				return loaded;
+			}
+		}
+	}
+
+	/**
+	 * A class loader that defines the {@link RedeployBean} itself, like the class loader of a web
+	 * application does.
+	 */
+	static final class RedeployClassLoader extends ClassLoader
+	{
+		RedeployClassLoader()
+		{
+			this(ClassValueClassCacheTest.class.getClassLoader());
+		}
+
+		RedeployClassLoader(final ClassLoader parent)
+		{
+			super(parent);
+		}
+
+		@Override
+		protected Class<?> loadClass(final String name, final boolean resolve)
+			throws ClassNotFoundException
+		{
+			if (!name.equals(RedeployBean.class.getName()))
+			{
+				return super.loadClass(name, resolve);
+			}
+			synchronized (getClassLoadingLock(name))
+			{
+				Class<?> loaded = findLoadedClass(name);
+				if (loaded == null)
+				{
+					final String resource = name.replace('.', '/') + ".class";
+					try (InputStream in = ClassValueClassCacheTest.class.getClassLoader()
+						.getResourceAsStream(resource))
+					{
+						final byte[] bytes = in.readAllBytes();
+						loaded = defineClass(name, bytes, 0, bytes.length);
+					}
+					catch (final IOException e)
+					{
+						throw new ClassNotFoundException(name, e);
+					}
+				}
+				return loaded;
+			}
+		}
+	}
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.github.astrapi69.model.lambda.Address;
+import io.github.astrapi69.model.lambda.Person;
+
+/**
+ * The unit test class for the class {@link DefaultResolverMetrics}
+ */
+public class DefaultResolverMetricsTest
+{
+
+	private DefaultResolverMetrics metrics;
+
+	@BeforeMethod
+	public void setUp()
+	{
+		PropertyResolver.setClassCache(null, new ClassValueClassCache());
+		metrics = new DefaultResolverMetrics(1);
+		PropertyResolver.setMetrics(metrics);
+	}
+
+	@AfterMethod
+	public void tearDown()
+	{
+		PropertyResolver.setMetrics(null);
+		PropertyResolver.setClassCache(null, new ClassValueClassCache());
+	}
+
+	@Test
+	public void testHitsMissesAndIntrospections()
+	{
+		final Person person = new Person();
+		PropertyResolver.setValue("address.street", person, "Main Street");
+		assertEquals(2, metrics.getMisses());
+		assertEquals(0, metrics.getHits());
+		PropertyResolver.getValue("address.street", person);
+		PropertyResolver.getValue("name", person);
+		assertEquals(2, metrics.getHits());
+		assertEquals(3, metrics.getMisses());
+		assertEquals(0.4, metrics.getHitRatio(), 0.0001);
+		assertEquals(3, metrics.getIntrospections());
+		assertTrue(metrics.getIntrospectionNanos() > 0);
+		assertEquals(2, metrics.getCachedClasses());
+		assertEquals(3, metrics.getCachedEntries());
+		assertEquals(Map.of(Person.class.getName(), 2L, Address.class.getName(), 1L),
+			metrics.getCachedEntriesPerClass());
+		final String[] slowest = metrics.getSlowestExpressions();
+		assertEquals(1, slowest.length);
+
+		metrics.clear();
+		assertEquals(0, metrics.getHits());
+		assertEquals(0, metrics.getMisses());
+		assertEquals(0, metrics.getSlowestExpressions().length);
+		// the entries are still cached
+		assertEquals(3, metrics.getCachedEntries());
+	}
+
+	@Test
+	public void testCachedEntriesAreReadFromTheClassCache()
+	{
+		PropertyResolver.setClassCache(null, new BoundedClassCache(1, 100));
+		final Person person = new Person();
+		PropertyResolver.setValue("address.street", person, "Main Street");
+		PropertyResolver.getValue("name", person);
+		PropertyResolver.getValue("name", person);
+		// one of the entries of Person was evicted to keep the bound per class
+		assertEquals(Map.of(Person.class.getName(), 1L, Address.class.getName(), 1L),
+			metrics.getCachedEntriesPerClass());
+		assertEquals(2, metrics.getCachedEntries());
+		assertEquals(3, metrics.getIntrospections());
+
+		PropertyResolver.setClassCache(null, new ClassValueClassCache());
+		assertEquals(0, metrics.getCachedClasses());
+		assertEquals(0, metrics.getCachedEntries());
+	}
+
+	@Test
+	public void testSlowestExpressions()
+	{
+		final DefaultResolverMetrics slowest = new DefaultResolverMetrics(2);
+		slowest.introspected(Person.class, "name", 5);
+		slowest.introspected(Person.class, "address", 30);
+		slowest.introspected(Address.class, "street", 10);
+		slowest.introspected(Address.class, "number", 1);
+		final String[] expressions = slowest.getSlowestExpressions();
+		assertEquals(2, expressions.length);
+		assertEquals(Person.class.getName() + "#address: 30", expressions[0]);
+		assertEquals(Address.class.getName() + "#street: 10", expressions[1]);
+	}
+
+	@Test
+	public void testMBean() throws Exception
+	{
+		final ObjectName name = metrics.registerMBean();
+		try
+		{
+			PropertyResolver.getValue("name", new Person());
+			final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			assertEquals(1L, server.getAttribute(name, "Misses"));
+			server.invoke(name, "clear", null, null);
+			assertEquals(0L, server.getAttribute(name, "Misses"));
+		}
+		finally
+		{
+			DefaultResolverMetrics.unregisterMBean();
+		}
+	}
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotSame;
+import static org.testng.AssertJUnit.assertSame;
+
+import org.testng.annotations.Test;
+
+/**
+ * The unit test class for the class {@link ExpressionCache}
+ */
+public class ExpressionCacheTest
+{
+
+	private static ExpressionCache<String, PropertyPath> newCache(final int maxSize)
+	{
+		return new ExpressionCache<>(maxSize)
+		{
+			@Override
+			protected PropertyPath compile(final String expression)
+			{
+				return new PropertyPath(expression, false);
+			}
+
+			@Override
+			protected String keyOf(final PropertyPath path)
+			{
+				return path.getExpression();
+			}
+		};
+	}
+
+	@Test
+	public void testGet()
+	{
+		final ExpressionCache<String, PropertyPath> cache = newCache(4);
+		final PropertyPath path = cache.get("address.street");
+		assertEquals("address.street", path.getExpression());
+		assertSame(path, cache.get("address.street"));
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void testEvictsIncrementally()
+	{
+		final ExpressionCache<String, PropertyPath> cache = newCache(4);
+		for (int i = 0; i < 100; i++)
+		{
+			cache.get("property" + i);
+			// the cache is never cleared, it only drops one expression per new one
+			assertEquals(Math.min(i + 1, 4), cache.size());
+		}
+	}
+
+	@Test
+	public void testUsedExpressionIsNotEvicted()
+	{
+		final ExpressionCache<String, PropertyPath> cache = newCache(4);
+		final PropertyPath used = cache.get("address.street");
+		final PropertyPath unused = cache.get("property0");
+		for (int i = 1; i < 100; i++)
+		{
+			assertSame(used, cache.get("address.street"));
+			cache.get("property" + i);
+		}
+		assertSame(used, cache.get("address.street"));
+		// the unused expression was evicted and is compiled again
+		assertNotSame(unused, cache.get("property0"));
+	}
+
+}
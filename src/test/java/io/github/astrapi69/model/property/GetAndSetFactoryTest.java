@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import io.github.astrapi69.model.api.AccessStrategy;
+import io.github.astrapi69.model.api.GetAndSet;
+import io.github.astrapi69.model.lambda.Address;
+import io.github.astrapi69.model.lambda.Person;
+
+/**
+ * The unit test class for the class {@link GetAndSetFactory}
+ */
+public class GetAndSetFactoryTest
+{
+
+	@Test
+	public void testMethodHandleAccess()
+	{
+		final GetAndSet getAndSet = PropertyResolver.getGetAndSetter("name", Person.class);
+		assertEquals(AccessStrategy.METHOD_HANDLE, getAndSet.getAccessStrategy());
+		final Person person = new Person();
+		getAndSet.setValue(person, "Anna");
+		assertEquals("Anna", person.getName());
+		assertEquals("Anna", getAndSet.getValue(person));
+
+		final GetAndSet number = PropertyResolver.getGetAndSetter("number", Address.class);
+		assertEquals(AccessStrategy.METHOD_HANDLE, number.getAccessStrategy());
+		final Address address = new Address();
+		number.setValue(address, 42);
+		assertEquals(42, number.getValue(address));
+	}
+
+	@Test
+	public void testDirectAccess()
+	{
+		assertEquals(AccessStrategy.DIRECT,
+			PropertyResolver.getGetAndSetter("0", ArrayList.class).getAccessStrategy());
+	}
+
+	@Test
+	public void testReflectionFallback() throws Exception
+	{
+		// the method is declared in a non public class of a package that is not open
+		final List<String> list = Collections.unmodifiableList(new ArrayList<>());
+		final Method method = list.getClass().getMethod("size");
+		final GetAndSet getAndSet = GetAndSetFactory.forMethod(method, null, null);
+		assertEquals(AccessStrategy.REFLECTION, getAndSet.getAccessStrategy());
+		assertEquals(method, getAndSet.getGetter());
+	}
+
+	@Test(expectedExceptions = RuntimeException.class)
+	public void testSetValueWithoutSetter() throws Exception
+	{
+		final Method method = Person.class.getMethod("getName");
+		GetAndSetFactory.forMethod(method, null, null).setValue(new Person(), "Anna");
+	}
+}
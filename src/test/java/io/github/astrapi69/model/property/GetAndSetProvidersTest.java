@@ -0,0 +1,355 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.github.astrapi69.model.api.AccessStrategy;
+import io.github.astrapi69.model.api.GetAndSet;
+import io.github.astrapi69.model.api.GetAndSetProvider;
+import io.github.astrapi69.model.api.ModelBean;
+
+/**
+ * The unit test class for the class {@link GetAndSetProviders}. The provider of {@link Account} is
+ * written like the annotation processor of the module model-data-processor generates it and is
+ * registered in the test resources.
+ */
+public class GetAndSetProvidersTest
+{
+
+	private ClassValueClassCache cache;
+
+	@BeforeMethod
+	public void setUp()
+	{
+		cache = new ClassValueClassCache();
+		PropertyResolver.setClassCache(null, cache);
+	}
+
+	@AfterMethod
+	public void tearDown()
+	{
+		PropertyResolver.setClassCache(null, new ClassValueClassCache());
+	}
+
+	@Test
+	public void testGeneratedGetAndSetIsUsedBeforeReflection()
+	{
+		final Account account = new Account();
+		account.setName("savings");
+		assertEquals("savings", PropertyResolver.getValue("name", account));
+		final GetAndSet getAndSet = cache.get(Account.class).get("name");
+		assertTrue(getAndSet instanceof GeneratedGetAndSet);
+		assertEquals(AccessStrategy.DIRECT, getAndSet.getAccessStrategy());
+		assertEquals(String.class, getAndSet.getTargetClass());
+		assertEquals("getName", getAndSet.getGetter().getName());
+		assertEquals("setName", getAndSet.getSetter().getName());
+		assertEquals("name", getAndSet.getField().getName());
+	}
+
+	@Test
+	public void testSetValue()
+	{
+		final Account account = new Account();
+		PropertyResolver.setValue("name", account, "checking");
+		assertEquals("checking", account.getName());
+		PropertyResolver.setValue("number", account, 7);
+		assertEquals(7, account.getNumber());
+		// the property without a setter is set on its field
+		PropertyResolver.setValue("id", account, 11L);
+		assertEquals(11L, PropertyResolver.getValue("id", account));
+	}
+
+	@Test
+	public void testNullValueOfPrimitiveProperty()
+	{
+		final Account account = new Account();
+		try
+		{
+			PropertyResolver.setValue("number", account, null);
+			fail("null cannot be set on a primitive property");
+		}
+		catch (final RuntimeException e)
+		{
+			assertTrue(e.getMessage().startsWith("Error calling method: "));
+			assertTrue(e.getCause() instanceof IllegalArgumentException);
+		}
+	}
+
+	@Test
+	public void testNullValuesAreCreated()
+	{
+		final Account account = new Account();
+		PropertyResolver.setValue("parent.name", account, "parent");
+		assertNotNull(account.getParent());
+		assertEquals("parent", account.getParent().getName());
+	}
+
+	@Test
+	public void testSubclassesAndUnprovidedProperties()
+	{
+		final SubAccount account = new SubAccount();
+		account.setName("sub");
+		account.setOwner("owner");
+		assertEquals("sub", PropertyResolver.getValue("name", account));
+		assertTrue(cache.get(SubAccount.class).get("name") instanceof GeneratedGetAndSet);
+		assertEquals("owner", PropertyResolver.getValue("owner", account));
+		assertEquals(AccessStrategy.METHOD_HANDLE,
+			cache.get(SubAccount.class).get("owner").getAccessStrategy());
+		assertNull(GetAndSetProviders.getGetAndSet(SubAccount.class, "owner"));
+	}
+
+	@Test
+	public void testSetterDeclaredOnlyInSubclassIsUsed()
+	{
+		final SubAccount account = new SubAccount();
+		PropertyResolver.setValue("id", account, 5L);
+		assertEquals(5L, account.getId());
+		assertTrue(account.idSet);
+		final GetAndSet getAndSet = cache.get(SubAccount.class).get("id");
+		assertFalse(getAndSet instanceof GeneratedGetAndSet);
+		assertEquals("setId", getAndSet.getSetter().getName());
+	}
+
+	@Test
+	public void testCovariantGetterOfSubclassIsUsed()
+	{
+		final SubAccount account = new SubAccount();
+		PropertyResolver.setValue("parent.owner", account, "parent owner");
+		assertEquals("parent owner", account.getParent().getOwner());
+		assertEquals(SubAccount.class,
+			PropertyResolver.getPropertyClass("parent", SubAccount.class));
+		assertFalse(cache.get(SubAccount.class).get("parent") instanceof GeneratedGetAndSet);
+		// the annotated class itself still uses its provider
+		assertTrue(GetAndSetProviders.getGetAndSet(Account.class,
+			"parent") instanceof GeneratedGetAndSet);
+	}
+
+	@Test
+	public void testProvidersAreLoadedOncePerClassLoader()
+	{
+		assertNotNull(GetAndSetProviders.getGetAndSet(Account.class, "name"));
+		final int instances = AccountGetAndSetProvider.instances.get();
+		// another annotated class of the same class loader uses the loaded providers
+		assertNull(GetAndSetProviders.getGetAndSet(Unprovided.class, "name"));
+		assertEquals(instances, AccountGetAndSetProvider.instances.get());
+	}
+
+	@ModelBean
+	public static class Unprovided
+	{
+		public String getName()
+		{
+			return null;
+		}
+	}
+
+	@ModelBean
+	public static class Account
+	{
+		long id;
+
+		private String name;
+
+		private int number;
+
+		private Account parent;
+
+		public long getId()
+		{
+			return id;
+		}
+
+		public String getName()
+		{
+			return name;
+		}
+
+		public int getNumber()
+		{
+			return number;
+		}
+
+		public Account getParent()
+		{
+			return parent;
+		}
+
+		public void setName(final String name)
+		{
+			this.name = name;
+		}
+
+		public void setNumber(final int number)
+		{
+			this.number = number;
+		}
+
+		public void setParent(final Account parent)
+		{
+			this.parent = parent;
+		}
+	}
+
+	public static class SubAccount extends Account
+	{
+		private boolean idSet;
+
+		private String owner;
+
+		public String getOwner()
+		{
+			return owner;
+		}
+
+		@Override
+		public SubAccount getParent()
+		{
+			return (SubAccount)super.getParent();
+		}
+
+		public void setId(final long id)
+		{
+			super.id = id;
+			idSet = true;
+		}
+
+		public void setOwner(final String owner)
+		{
+			this.owner = owner;
+		}
+	}
+
+	/**
+	 * The provider of {@link Account} as the annotation processor generates it.
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public static final class AccountGetAndSetProvider implements GetAndSetProvider
+	{
+		private static final GetAndSet ID = new GeneratedGetAndSet(Account.class, "id", long.class)
+		{
+			@Override
+			public Object getValue(final Object object)
+			{
+				return ((Account)object).getId();
+			}
+
+			@Override
+			public void setValue(final Object object, final Object value)
+			{
+				setField(object, value);
+			}
+		};
+
+		private static final GetAndSet NAME = new GeneratedGetAndSet(Account.class, "name",
+			String.class)
+		{
+			@Override
+			public Object getValue(final Object object)
+			{
+				return ((Account)object).getName();
+			}
+
+			@Override
+			public void setValue(final Object object, final Object value)
+			{
+				((Account)object).setName((String)value);
+			}
+		};
+
+		private static final GetAndSet NUMBER = new GeneratedGetAndSet(Account.class, "number",
+			int.class)
+		{
+			@Override
+			public Object getValue(final Object object)
+			{
+				return ((Account)object).getNumber();
+			}
+
+			@Override
+			public void setValue(final Object object, final Object value)
+			{
+				if (value == null)
+				{
+					throw nullValue(object);
+				}
+				((Account)object).setNumber((Integer)convert(value, int.class));
+			}
+		};
+
+		private static final GetAndSet PARENT = new GeneratedGetAndSet(Account.class, "parent",
+			Account.class)
+		{
+			@Override
+			public Object getValue(final Object object)
+			{
+				return ((Account)object).getParent();
+			}
+
+			@Override
+			public void setValue(final Object object, final Object value)
+			{
+				((Account)object).setParent((Account)value);
+			}
+		};
+
+		static final AtomicInteger instances = new AtomicInteger();
+
+		public AccountGetAndSetProvider()
+		{
+			instances.incrementAndGet();
+		}
+
+		@Override
+		public Class<?> getType()
+		{
+			return Account.class;
+		}
+
+		@Override
+		public GetAndSet getGetAndSet(final String property)
+		{
+			switch (property)
+			{
+				case "Id" :
+				case "id" :
+					return ID;
+				case "Name" :
+				case "name" :
+					return NAME;
+				case "Number" :
+				case "number" :
+					return NUMBER;
+				case "Parent" :
+				case "parent" :
+					return PARENT;
+				default :
+					return null;
+			}
+		}
+	}
+}
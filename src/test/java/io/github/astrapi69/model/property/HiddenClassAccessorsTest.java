@@ -0,0 +1,205 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.github.astrapi69.model.api.GetAndSet;
+import io.github.astrapi69.model.lambda.Address;
+import io.github.astrapi69.model.lambda.Person;
+
+/**
+ * The unit test class for the class {@link HiddenClassAccessors}
+ */
+public class HiddenClassAccessorsTest
+{
+
+	@BeforeMethod
+	public void setUp()
+	{
+		PropertyResolver.setBytecodeAccessorsEnabled(true);
+	}
+
+	@AfterMethod
+	public void tearDown()
+	{
+		PropertyResolver.setBytecodeAccessorsEnabled(false);
+	}
+
+	@Test
+	public void testNestedExpressionIsCompiledToHiddenClass()
+	{
+		final CompiledPropertyAccessor accessor = HiddenClassAccessors.get(Person.class,
+			PropertyResolver.compile("address.street"));
+		assertNotNull(accessor);
+		assertTrue(accessor.getClass().isHidden());
+		assertEquals(Person.class.getClassLoader(), accessor.getClass().getClassLoader());
+		assertEquals(Person.class.getPackageName(), accessor.getClass().getPackageName());
+	}
+
+	@Test
+	public void testClassFileHasCurrentVersion()
+	{
+		final GetAndSet[] chain = PropertyResolver.compile("address.street")
+			.resolveChain(Person.class);
+		final byte[] classFile = new AccessorClassWriter(Person.class, chain)
+			.toByteArray(Person.class.getName() + "$$PropertyAccessor");
+		// the major version of Java 17, which is only accepted with stack map frames
+		assertEquals(61, (classFile[6] & 0xff) << 8 | classFile[7] & 0xff);
+	}
+
+	@Test
+	public void testGetValue()
+	{
+		final Person person = new Person();
+		assertNull(PropertyResolver.getValue("address.street", person));
+		person.setAddress(new Address());
+		person.getAddress().setStreet("Main Street");
+		assertEquals("Main Street", PropertyResolver.getValue("address.street", person));
+		assertEquals("Main Street", PropertyResolver.compile("address.street").getValue(person));
+	}
+
+	@Test
+	public void testSetValueCreatesNullValues()
+	{
+		final Person person = new Person();
+		PropertyResolver.setValue("address.street", person, "Main Street");
+		assertNotNull(person.getAddress());
+		assertEquals("Main Street", person.getAddress().getStreet());
+		PropertyResolver.setValue("address.street", person, null);
+		assertNull(person.getAddress().getStreet());
+		final CompiledPropertyAccessor accessor = HiddenClassAccessors.get(Person.class,
+			PropertyResolver.compile("address.street"));
+		final Person other = new Person();
+		assertTrue(accessor.setValue(other, "Side Street"));
+		assertEquals("Side Street", accessor.getValue(other));
+	}
+
+	@Test
+	public void testPrimitiveValues()
+	{
+		final Counter counter = new Counter();
+		PropertyResolver.setValue("count", counter, 3);
+		assertEquals(3, counter.getCount());
+		assertEquals(3, PropertyResolver.getValue("count", counter));
+		// a short needs a widening conversion, which is left to the resolver
+		assertFalse(HiddenClassAccessors.get(Counter.class, PropertyResolver.compile("count"))
+			.setValue(counter, (short)5));
+		PropertyResolver.setValue("count", counter, (short)5);
+		assertEquals(5, counter.getCount());
+		PropertyResolver.setValue("total", counter, 7L);
+		assertEquals(7L, PropertyResolver.getValue("total", counter));
+	}
+
+	@Test
+	public void testKeyedExpressionIsNotCompiled()
+	{
+		final Map<String, Person> people = new HashMap<>();
+		final Person person = new Person();
+		person.setName("Anna");
+		people.put("anna", person);
+		assertNull(HiddenClassAccessors.get(HashMap.class, PropertyResolver.compile("anna.name")));
+		assertEquals("Anna", PropertyResolver.getValue("anna.name", people));
+	}
+
+	@Test
+	public void testAccessorIsUnloadedWithRootClass() throws Exception
+	{
+		final WeakReference<ClassLoader> reference = compileInThrowawayClassLoader();
+		for (int i = 0; i < 50 && reference.get() != null; i++)
+		{
+			System.gc();
+			Thread.sleep(20);
+		}
+		assertNull("The class loader of a compiled root class is still reachable",
+			reference.get());
+	}
+
+	@Test
+	public void testRootClassOfOtherModuleWithoutLookupIsNotCompiled() throws Exception
+	{
+		final ClassLoader classLoader = new ClassValueClassCacheTest.RedeployClassLoader();
+		final Class<?> beanClass = classLoader
+			.loadClass(ClassValueClassCacheTest.RedeployBean.class.getName());
+		final Object bean = beanClass.getDeclaredConstructor().newInstance();
+		assertNull(HiddenClassAccessors.get(beanClass, PropertyResolver.compile("name")));
+		assertEquals("redeployed", PropertyResolver.getValue("name", bean));
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testRegisterLookupWithoutFullPrivilegeAccess()
+	{
+		PropertyResolver.registerLookup(MethodHandles.publicLookup());
+	}
+
+	private WeakReference<ClassLoader> compileInThrowawayClassLoader() throws Exception
+	{
+		final ClassLoader classLoader = new ClassValueClassCacheTest.RedeployClassLoader();
+		final Class<?> beanClass = classLoader
+			.loadClass(ClassValueClassCacheTest.RedeployBean.class.getName());
+		final Object bean = beanClass.getDeclaredConstructor().newInstance();
+		PropertyResolver
+			.registerLookup((MethodHandles.Lookup)beanClass.getMethod("lookup").invoke(null));
+		final CompiledPropertyAccessor accessor = HiddenClassAccessors.get(beanClass,
+			PropertyResolver.compile("name"));
+		assertNotNull(accessor);
+		assertEquals(classLoader, accessor.getClass().getClassLoader());
+		assertEquals("redeployed", PropertyResolver.getValue("name", bean));
+		PropertyResolver.setValue("name", bean, "changed");
+		assertEquals("changed", accessor.getValue(bean));
+		return new WeakReference<>(classLoader);
+	}
+
+	public static class Counter
+	{
+		private int count;
+
+		private long total;
+
+		public int getCount()
+		{
+			return count;
+		}
+
+		public void setCount(final int count)
+		{
+			this.count = count;
+		}
+
+		public long getTotal()
+		{
+			return total;
+		}
+
+		public void setTotal(final long total)
+		{
+			this.total = total;
+		}
+	}
+}
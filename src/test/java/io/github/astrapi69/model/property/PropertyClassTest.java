@@ -0,0 +1,154 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import io.github.astrapi69.model.lambda.Address;
+import io.github.astrapi69.model.lambda.Person;
+
+/**
+ * The unit test class for the method {@link PropertyResolver#getPropertyClass(String, Class)}
+ */
+public class PropertyClassTest
+{
+
+	public static class Box<T>
+	{
+		private T content;
+
+		public T getContent()
+		{
+			return content;
+		}
+	}
+
+	public static class AddressBox extends Box<Address>
+	{
+	}
+
+	public static class Names extends ArrayList<String>
+	{
+		private static final long serialVersionUID = 1L;
+	}
+
+	public static class Registry
+	{
+		public AddressBox box;
+
+		public Box<Person> personBox;
+
+		public Map<String, Person> people;
+
+		public List<Address> addresses;
+
+		public Names names;
+
+		public Person[] persons;
+
+		@SuppressWarnings("rawtypes")
+		public List raw;
+
+		public List<Map<String, Integer>> counters;
+	}
+
+	@Test
+	public void testDeclaredTypes()
+	{
+		assertEquals(Person.class, PropertyResolver.getPropertyClass("personBox.content",
+			Registry.class));
+		assertEquals(String.class, PropertyResolver.getPropertyClass("personBox.content.name",
+			Registry.class));
+		assertEquals(Address.class, PropertyResolver.getPropertyClass("box.content",
+			Registry.class));
+		assertEquals(String.class, PropertyResolver.getPropertyClass("persons[0].name",
+			Registry.class));
+		assertEquals(Person[].class, PropertyResolver.getPropertyClass("persons",
+			Registry.class));
+	}
+
+	@Test
+	public void testElementTypes()
+	{
+		assertEquals(Person.class, PropertyResolver.getPropertyClass("people.anna",
+			Registry.class));
+		assertEquals(Address.class, PropertyResolver.getPropertyClass("people[anna].address",
+			Registry.class));
+		assertEquals(Address.class, PropertyResolver.getPropertyClass("addresses.0",
+			Registry.class));
+		assertEquals(String.class, PropertyResolver.getPropertyClass("addresses[1].street",
+			Registry.class));
+		assertEquals(String.class, PropertyResolver.getPropertyClass("names.0", Registry.class));
+		assertEquals(Integer.class, PropertyResolver.getPropertyClass("counters.0.clicks",
+			Registry.class));
+	}
+
+	@Test
+	public void testUnknownElementType()
+	{
+		assertNull(PropertyResolver.getPropertyClass("raw.0", Registry.class));
+	}
+
+	@Test
+	public void testCached()
+	{
+		final Class<?> first = PropertyResolver.getPropertyClass("addresses.0", Registry.class);
+		PropertyResolver.setClassCache(null, new ClassValueClassCache());
+		assertSame(first, PropertyResolver.getPropertyClass("addresses.0", Registry.class));
+	}
+
+	@Test
+	public void testClassesAreDroppedWithTheClassCache()
+	{
+		final DefaultResolverMetrics metrics = new DefaultResolverMetrics();
+		PropertyResolver.setMetrics(metrics);
+		try
+		{
+			PropertyResolver.setClassCache(null, new ClassValueClassCache());
+			assertEquals(Address.class, PropertyResolver.getPropertyClass("box.content",
+				Registry.class));
+			final long lookups = metrics.getHits() + metrics.getMisses();
+			assertEquals(Address.class, PropertyResolver.getPropertyClass("box.content",
+				Registry.class));
+			assertEquals(lookups, metrics.getHits() + metrics.getMisses());
+
+			// a new class cache resolves the class again
+			PropertyResolver.setClassCache(null, new ClassValueClassCache());
+			assertEquals(Address.class, PropertyResolver.getPropertyClass("box.content",
+				Registry.class));
+			assertEquals(lookups + 2, metrics.getHits() + metrics.getMisses());
+		}
+		finally
+		{
+			PropertyResolver.setMetrics(null);
+			PropertyResolver.setClassCache(null, new ClassValueClassCache());
+		}
+	}
+
+	@Test(expectedExceptions = RuntimeException.class)
+	public void testUnresolvable()
+	{
+		PropertyResolver.getPropertyClass("unknown", Registry.class);
+	}
+}
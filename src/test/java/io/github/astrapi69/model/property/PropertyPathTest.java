@@ -0,0 +1,198 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import io.github.astrapi69.model.PropertyModel;
+import io.github.astrapi69.model.lambda.Address;
+import io.github.astrapi69.model.lambda.Person;
+
+/**
+ * The unit test class for the class {@link PropertyPath}
+ */
+public class PropertyPathTest
+{
+
+	@Test
+	public void testGetValue()
+	{
+		final PropertyPath path = PropertyResolver.compile("address.street");
+		final Person person = new Person();
+		assertNull(path.getValue(person));
+		person.setAddress(new Address());
+		person.getAddress().setStreet("Main Street");
+		assertEquals("Main Street", path.getValue(person));
+		// the same path evaluated on another object
+		final Person other = new Person();
+		other.setAddress(new Address());
+		other.getAddress().setStreet("Side Street");
+		assertEquals("Side Street", path.getValue(other));
+		assertNull(path.getValue(null));
+	}
+
+	@Test
+	public void testSetValue()
+	{
+		final PropertyPath path = PropertyResolver.compile("address.number");
+		final Person person = new Person();
+		path.setValue(person, 42);
+		assertNotNull(person.getAddress());
+		assertEquals(42, person.getAddress().getNumber());
+		assertEquals(42, path.getValue(person));
+	}
+
+	@Test
+	public void testEmptyExpression()
+	{
+		final PropertyPath path = PropertyResolver.compile("");
+		final Person person = new Person();
+		assertTrue(path.isEmpty());
+		assertEquals(person, path.getValue(person));
+	}
+
+	@Test(expectedExceptions = RuntimeException.class)
+	public void testSetValueWithEmptyExpression()
+	{
+		PropertyResolver.compile(null).setValue(new Person(), "foo");
+	}
+
+	@Test
+	public void testListAndMapSegments()
+	{
+		final List<Person> persons = new ArrayList<>();
+		final Person person = new Person();
+		person.setName("Anna");
+		persons.add(person);
+		final Map<String, Object> map = new HashMap<>();
+		map.put("persons", persons);
+		assertEquals("Anna", PropertyResolver.compile("persons.0.name").getValue(map));
+		assertEquals("Anna", PropertyResolver.compile("[persons][0].name").getValue(map));
+		PropertyResolver.compile("persons[1]").setValue(map, new Person());
+		assertEquals(2, persons.size());
+	}
+
+	@Test
+	public void testKeysAndIndexesAreNotCached()
+	{
+		final ClassValueClassCache cache = new ClassValueClassCache();
+		PropertyResolver.setClassCache(null, cache);
+		try
+		{
+			final Map<String, Object> map = new HashMap<>();
+			final List<String> list = new ArrayList<>();
+			final String[] array = new String[100];
+			map.put("list", list);
+			map.put("array", array);
+			for (int i = 0; i < 100; i++)
+			{
+				map.put("key" + i, "value" + i);
+				list.add("item" + i);
+				array[i] = "element" + i;
+			}
+			for (int i = 0; i < 100; i++)
+			{
+				assertEquals("value" + i, PropertyResolver.getValue("key" + i, map));
+				assertEquals("value" + i, PropertyResolver.getValue("[key" + i + "]", map));
+				assertEquals("item" + i, PropertyResolver.getValue("list." + i, map));
+				assertEquals("element" + i, PropertyResolver.getValue("array[" + i + "]", map));
+			}
+			assertTrue(cache.get(HashMap.class).isEmpty());
+			assertTrue(cache.get(ArrayList.class).isEmpty());
+			assertTrue(cache.get(String[].class).isEmpty());
+			// bean properties of maps and lists are still resolved and cached
+			assertEquals(Boolean.FALSE, PropertyResolver.getValue("empty", map));
+			assertEquals(100, PropertyResolver.getValue("list.size()", map));
+			assertEquals(1, cache.get(HashMap.class).size());
+			assertEquals(1, cache.get(ArrayList.class).size());
+		}
+		finally
+		{
+			PropertyResolver.setClassCache(null, new ClassValueClassCache());
+		}
+	}
+
+	@Test
+	public void testSerialization() throws Exception
+	{
+		final PropertyPath path = PropertyResolver.compile("address.street");
+		final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(baos))
+		{
+			oos.writeObject(path);
+		}
+		final PropertyPath deserialized;
+		try (ObjectInputStream ois = new ObjectInputStream(
+			new ByteArrayInputStream(baos.toByteArray())))
+		{
+			deserialized = (PropertyPath)ois.readObject();
+		}
+		assertEquals("address.street", deserialized.getExpression());
+		final Person person = new Person();
+		deserialized.setValue(person, "Main Street");
+		assertEquals("Main Street", person.getAddress().getStreet());
+	}
+
+	@Test
+	public void testAccessorCreatesNullValues()
+	{
+		final CountingPerson person = new CountingPerson();
+		final CompiledPropertyAccessor accessor = PropertyResolver.compile("address.street")
+			.getAccessor(CountingPerson.class);
+		assertTrue(accessor.setValue(person, "Main Street"));
+		// the getter of the intermediate value is called once, not again by the resolver
+		assertEquals(1, person.addressReads);
+		assertEquals("Main Street", person.getAddress().getStreet());
+	}
+
+	@Test
+	public void testPropertyModelWithPath()
+	{
+		final PropertyPath path = PropertyResolver.compile("name");
+		final Person person = new Person();
+		final PropertyModel<String> model = PropertyModel.ofPath(person, path);
+		model.setObject("Bob");
+		assertEquals("Bob", person.getName());
+		assertEquals("Bob", model.getObject());
+		assertEquals("name", model.getPropertyExpression());
+	}
+
+	public static class CountingPerson extends Person
+	{
+		int addressReads;
+
+		@Override
+		public Address getAddress()
+		{
+			addressReads++;
+			return super.getAddress();
+		}
+	}
+}
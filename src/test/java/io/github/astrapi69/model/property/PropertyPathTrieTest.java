@@ -0,0 +1,137 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertSame;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+/**
+ * The unit test class for the class {@link PropertyPathTrie}
+ */
+public class PropertyPathTrieTest
+{
+
+	public static class Address
+	{
+		public String city = "Berlin";
+
+		public String zip = "10115";
+	}
+
+	public static class Customer
+	{
+		int addressCalls;
+
+		private Address address = new Address();
+
+		public Map<String, String> attributes = Map.of("segment", "retail");
+
+		public List<String> orders = List.of("first", "second");
+
+		public String name = "Anna";
+
+		public Address getAddress()
+		{
+			addressCalls++;
+			return address;
+		}
+
+		public String getEntries(final int index)
+		{
+			return "entry" + index;
+		}
+	}
+
+	public static class Row
+	{
+		public Customer customer = new Customer();
+
+		public Customer missing;
+	}
+
+	@Test
+	public void testSharedPrefix()
+	{
+		final Row row = new Row();
+		final PropertyPathTrie trie = PropertyResolver.compileAll("customer.name",
+			"customer.address.city", "customer.address.zip", "customer.address");
+		final Object[] values = trie.getValues(row);
+		assertEquals(Arrays.asList("Anna", "Berlin", "10115", row.customer.getAddress()),
+			Arrays.asList(values));
+		// one call for the trie and one for the expected values
+		assertEquals(2, row.customer.addressCalls);
+		assertEquals(
+			Arrays.asList("customer.name", "customer.address.city", "customer.address.zip",
+				"customer.address"),
+			Arrays.asList(trie.getExpressions()));
+	}
+
+	@Test
+	public void testSameAsGetValue()
+	{
+		final Row row = new Row();
+		final String[] expressions = { "customer.attributes.segment", "customer.orders[1]",
+				"customer.orders.0", "customer.attributes[segment]", "", "customer.name",
+				"customer.name", "missing.name", "missing.address.city", "customer.entries.3" };
+		final Object[] values = PropertyResolver.getValues(row, expressions);
+		assertEquals(expressions.length, values.length);
+		for (int i = 0; i < expressions.length; i++)
+		{
+			assertEquals(expressions[i], PropertyResolver.getValue(expressions[i], row),
+				values[i]);
+		}
+		assertSame(row, values[4]);
+		assertNull(values[7]);
+		assertEquals("entry3", values[9]);
+	}
+
+	@Test
+	public void testGetValuesWithReusedArray()
+	{
+		final Row row = new Row();
+		final String[] expressions = { "customer.name", null };
+		final Object[] values = PropertyResolver.getValues(row, expressions);
+		assertEquals(PropertyResolver.getValue("customer.name", row), values[0]);
+		assertSame(row, values[1]);
+		// the cached trie does not see the changes of the array that it was compiled from
+		expressions[1] = "customer.entries.3";
+		assertEquals("entry3", PropertyResolver.getValues(row, expressions)[1]);
+		assertSame(row, PropertyResolver.getValues(row, "customer.name", "")[1]);
+	}
+
+	@Test
+	public void testNullObject()
+	{
+		final Object[] values = PropertyResolver.compileAll("customer.name", "customer")
+			.getValues(null);
+		assertEquals(2, values.length);
+		assertNull(values[0]);
+		assertNull(values[1]);
+	}
+
+	@Test(expectedExceptions = RuntimeException.class)
+	public void testUnresolvable()
+	{
+		PropertyResolver.getValues(new Row(), "customer.name", "customer.unknown");
+	}
+}
@@ -0,0 +1,187 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import io.github.astrapi69.model.lambda.Address;
+import io.github.astrapi69.model.lambda.Person;
+
+/**
+ * The unit test class for the allocations of the read path of the class {@link PropertyResolver}
+ */
+public class PropertyResolverAllocationTest
+{
+
+	private static final int ITERATIONS = 100_000;
+
+	private static long allocatedBytes(final com.sun.management.ThreadMXBean threadMXBean)
+	{
+		return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	private static com.sun.management.ThreadMXBean threadMXBean()
+	{
+		if (!(ManagementFactory
+			.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean)
+			|| !threadMXBean.isThreadAllocatedMemorySupported())
+		{
+			throw new SkipException("Thread allocation measurement is not supported");
+		}
+		threadMXBean.setThreadAllocatedMemoryEnabled(true);
+		return threadMXBean;
+	}
+
+	private static Object readAll(final Object object, final String expression)
+	{
+		Object value = null;
+		for (int i = 0; i < ITERATIONS; i++)
+		{
+			value = PropertyResolver.getValue(expression, object);
+		}
+		return value;
+	}
+
+	private static void assertWarmedGetValueDoesNotAllocate(final Object object,
+		final String expression, final Object expected)
+	{
+		final com.sun.management.ThreadMXBean threadMXBean = threadMXBean();
+		// warm up the caches
+		assertEquals(expected, readAll(object, expression));
+
+		final long overhead = -allocatedBytes(threadMXBean) + allocatedBytes(threadMXBean);
+		final long before = allocatedBytes(threadMXBean);
+		final Object value = readAll(object, expression);
+		final long allocated = allocatedBytes(threadMXBean) - before - overhead;
+
+		assertEquals(expected, value);
+		// not even one byte per evaluation, so nothing is allocated per evaluation
+		assertTrue("getValue of " + expression + " allocated " + allocated + " bytes in "
+			+ ITERATIONS + " evaluations", allocated < ITERATIONS);
+	}
+
+	@Test
+	public void testGetValueOfWarmedNestedExpressionDoesNotAllocate()
+	{
+		final Person person = new Person();
+		person.setAddress(new Address());
+		person.getAddress().setStreet("Main Street");
+		assertWarmedGetValueDoesNotAllocate(person, "address.street", "Main Street");
+	}
+
+	@Test
+	public void testGetValueOfWarmedMapKeyDoesNotAllocate()
+	{
+		final Map<String, String> labels = new HashMap<>();
+		labels.put("title", "Customers");
+		assertWarmedGetValueDoesNotAllocate(labels, "title", "Customers");
+	}
+
+	@Test
+	public void testGetValueOfWarmedListIndexDoesNotAllocate()
+	{
+		final List<String> tags = new ArrayList<>();
+		tags.add("new");
+		tags.add("premium");
+		assertWarmedGetValueDoesNotAllocate(tags, "[1]", "premium");
+	}
+
+	@Test
+	public void testGetValueOfWarmedArrayIndexDoesNotAllocate()
+	{
+		final String[] tags = { "new", "premium" };
+		assertWarmedGetValueDoesNotAllocate(tags, "[1]", "premium");
+	}
+
+	@Test
+	public void testCompiledGetValueOfWarmedNestedExpressionDoesNotAllocate()
+	{
+		final com.sun.management.ThreadMXBean threadMXBean = threadMXBean();
+		final Person person = new Person();
+		person.setAddress(new Address());
+		person.getAddress().setStreet("Main Street");
+		final PropertyPath path = PropertyResolver.compile("address.street");
+		for (int i = 0; i < ITERATIONS; i++)
+		{
+			path.getValue(person);
+		}
+
+		final long overhead = -allocatedBytes(threadMXBean) + allocatedBytes(threadMXBean);
+		final long before = allocatedBytes(threadMXBean);
+		Object value = null;
+		for (int i = 0; i < ITERATIONS; i++)
+		{
+			value = path.getValue(person);
+		}
+		final long allocated = allocatedBytes(threadMXBean) - before - overhead;
+
+		assertEquals("Main Street", value);
+		assertTrue("getValue allocated " + allocated + " bytes in " + ITERATIONS + " evaluations",
+			allocated < ITERATIONS);
+	}
+
+	@Test
+	public void testSetValueOfAlternatingValueClassesDoesNotAllocate()
+	{
+		final com.sun.management.ThreadMXBean threadMXBean = threadMXBean();
+		final Holder holder = new Holder();
+		final PropertyPath path = PropertyResolver.compile("value");
+		final Object[] values = { "text", Boolean.TRUE };
+		for (int i = 0; i < ITERATIONS; i++)
+		{
+			path.setValue(holder, values[i & 1]);
+		}
+
+		final long overhead = -allocatedBytes(threadMXBean) + allocatedBytes(threadMXBean);
+		final long before = allocatedBytes(threadMXBean);
+		for (int i = 0; i < ITERATIONS; i++)
+		{
+			path.setValue(holder, values[i & 1]);
+		}
+		final long allocated = allocatedBytes(threadMXBean) - before - overhead;
+
+		assertEquals(Boolean.TRUE, holder.getValue());
+		// the conversions of both value classes are kept, so they are not planned again
+		assertTrue("setValue allocated " + allocated + " bytes in " + ITERATIONS + " evaluations",
+			allocated < ITERATIONS);
+	}
+
+	public static class Holder
+	{
+		private Object value;
+
+		public Object getValue()
+		{
+			return value;
+		}
+
+		public void setValue(final Object value)
+		{
+			this.value = value;
+		}
+	}
+
+}
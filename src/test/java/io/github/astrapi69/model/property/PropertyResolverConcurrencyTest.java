@@ -0,0 +1,133 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import io.github.astrapi69.model.api.ClassCache;
+import io.github.astrapi69.model.api.GetAndSet;
+import io.github.astrapi69.model.lambda.Address;
+import io.github.astrapi69.model.lambda.Person;
+
+/**
+ * The unit test class for the concurrent resolution of the class {@link PropertyResolver}
+ */
+public class PropertyResolverConcurrencyTest
+{
+
+	private static final int THREADS = 32;
+
+	@AfterMethod
+	public void tearDown()
+	{
+		PropertyResolver.setClassCache(null, new ClassValueClassCache());
+	}
+
+	@Test
+	public void testSegmentIsResolvedOnceUnderContention() throws Exception
+	{
+		final CountingClassCache cache = new CountingClassCache();
+		PropertyResolver.setClassCache(null, cache);
+		final CountDownLatch start = new CountDownLatch(1);
+		final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try
+		{
+			final List<Future<GetAndSet>> results = new ArrayList<>();
+			for (int i = 0; i < THREADS; i++)
+			{
+				final Callable<GetAndSet> task = () -> {
+					start.await();
+					final Person person = new Person();
+					person.setAddress(new Address());
+					PropertyResolver.setValue("address.street", person, "Main Street");
+					assertEquals("Main Street", PropertyResolver.getValue("address.street", person));
+					return PropertyResolver.getGetAndSetter("street", Address.class);
+				};
+				results.add(executor.submit(task));
+			}
+			start.countDown();
+			final GetAndSet first = results.get(0).get(10, TimeUnit.SECONDS);
+			for (final Future<GetAndSet> result : results)
+			{
+				assertSame(first, result.get(10, TimeUnit.SECONDS));
+			}
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+		assertEquals(1, cache.resolutions("address"));
+		assertEquals(1, cache.resolutions("street"));
+	}
+
+	/**
+	 * A {@link ClassCache} that counts how often an expression is resolved and put into the cache.
+	 */
+	private static final class CountingClassCache implements ClassCache
+	{
+		private final Map<Class<?>, Map<String, GetAndSet>> classes = new ConcurrentHashMap<>();
+
+		private final Map<String, AtomicInteger> puts = new ConcurrentHashMap<>();
+
+		@Override
+		public Map<String, GetAndSet> get(final Class<?> clz)
+		{
+			return classes.get(clz);
+		}
+
+		@Override
+		public Map<String, GetAndSet> getOrCreate(final Class<?> clz)
+		{
+			return classes.computeIfAbsent(clz, key -> new ConcurrentHashMap<>()
+			{
+				@Override
+				public GetAndSet put(final String expression, final GetAndSet value)
+				{
+					puts.computeIfAbsent(expression, k -> new AtomicInteger()).incrementAndGet();
+					return super.put(expression, value);
+				}
+			});
+		}
+
+		@Override
+		public void put(final Class<?> clz, final Map<String, GetAndSet> values)
+		{
+			classes.put(clz, values);
+		}
+
+		int resolutions(final String expression)
+		{
+			final AtomicInteger count = puts.get(expression);
+			return count == null ? 0 : count.get();
+		}
+	}
+}
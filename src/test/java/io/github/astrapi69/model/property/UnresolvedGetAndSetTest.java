@@ -0,0 +1,92 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotSame;
+import static org.testng.AssertJUnit.assertSame;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import io.github.astrapi69.model.api.GetAndSet;
+import io.github.astrapi69.model.lambda.Person;
+
+/**
+ * The unit test class for the class {@link UnresolvedGetAndSet}
+ */
+public class UnresolvedGetAndSetTest
+{
+
+	@Test
+	public void testFailedLookupIsCached()
+	{
+		final GetAndSet first = PropertyResolver.resolveGetAndSetter("unknown", Person.class);
+		assertTrue(first instanceof UnresolvedGetAndSet);
+		assertSame(first, PropertyResolver.resolveGetAndSetter("unknown", Person.class));
+	}
+
+	@Test(expectedExceptions = RuntimeException.class)
+	public void testGetGetAndSetterThrows()
+	{
+		PropertyResolver.getGetAndSetter("unknown", Person.class);
+	}
+
+	@Test
+	public void testIndexedProperty()
+	{
+		final Catalog catalog = new Catalog();
+		catalog.items.add("first");
+		catalog.items.add("second");
+		assertEquals("second", PropertyResolver.getValue("entries.1", catalog));
+		// the second evaluation uses the cached negative lookup of the segment
+		assertEquals("first", PropertyResolver.getValue("entries.0", catalog));
+		PropertyResolver.setValue("entries.0", catalog, "changed");
+		assertEquals("changed", catalog.items.get(0));
+		assertTrue(PropertyResolver.resolveGetAndSetter("entries",
+			Catalog.class) instanceof UnresolvedGetAndSet);
+	}
+
+	@Test
+	public void testBracketKeyDoesNotReplaceSegment()
+	{
+		final Catalog catalog = new Catalog();
+		catalog.items.add("first");
+		assertEquals(catalog.items, PropertyResolver.getValue("[items]", catalog));
+		final GetAndSet getAndSet = PropertyResolver.resolveGetAndSetter("items", Catalog.class);
+		assertEquals(Catalog.class.getDeclaredFields()[0], getAndSet.getField());
+		// the bracket expression is cached under its own key
+		assertNotSame(getAndSet, PropertyResolver.resolveGetAndSetter("[items]", Catalog.class));
+	}
+
+	public static class Catalog
+	{
+		private final List<String> items = new ArrayList<>();
+
+		public String getEntries(final int index)
+		{
+			return items.get(index);
+		}
+
+		public void setEntries(final int index, final String value)
+		{
+			items.set(index, value);
+		}
+	}
+}
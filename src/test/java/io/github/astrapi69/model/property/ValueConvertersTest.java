@@ -0,0 +1,159 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertSame;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.testng.annotations.Test;
+
+/**
+ * The unit test class for the class {@link ValueConverters}
+ */
+public class ValueConvertersTest
+{
+
+	public enum Level
+	{
+		LOW, HIGH
+	}
+
+	public static class Account
+	{
+		private int age;
+
+		private BigDecimal balance;
+
+		private LocalDate birthday;
+
+		private Level level;
+
+		private long visits;
+
+		private int[] scores = new int[2];
+
+		public int getAge()
+		{
+			return age;
+		}
+
+		public BigDecimal getBalance()
+		{
+			return balance;
+		}
+
+		public LocalDate getBirthday()
+		{
+			return birthday;
+		}
+
+		public Level getLevel()
+		{
+			return level;
+		}
+
+		public int[] getScores()
+		{
+			return scores;
+		}
+
+		public void setAge(final int age)
+		{
+			this.age = age;
+		}
+
+		public void setBalance(final BigDecimal balance)
+		{
+			this.balance = balance;
+		}
+
+		public void setBirthday(final LocalDate birthday)
+		{
+			this.birthday = birthday;
+		}
+
+		public void setLevel(final Level level)
+		{
+			this.level = level;
+		}
+	}
+
+	@Test
+	public void testBuiltInConversions()
+	{
+		final Account account = new Account();
+		PropertyResolver.setValue("age", account, "42");
+		assertEquals(42, account.getAge());
+		PropertyResolver.setValue("age", account, 43L);
+		assertEquals(43, account.getAge());
+		PropertyResolver.setValue("visits", account, " 7 ");
+		assertEquals(7L, account.visits);
+		PropertyResolver.setValue("balance", account, "12.50");
+		assertEquals(new BigDecimal("12.50"), account.getBalance());
+		PropertyResolver.setValue("level", account, "HIGH");
+		assertSame(Level.HIGH, account.getLevel());
+		PropertyResolver.setValue("scores[1]", account, "5");
+		assertEquals(5, account.getScores()[1]);
+		PropertyResolver.setValue("balance", account, null);
+		assertNull(account.getBalance());
+	}
+
+	@Test
+	public void testRegisteredConverter()
+	{
+		final Account account = new Account();
+		ValueConverters.register(String.class, LocalDate.class, LocalDate::parse);
+		try
+		{
+			PropertyResolver.setValue("birthday", account, "2024-02-29");
+			assertEquals(LocalDate.of(2024, 2, 29), account.getBirthday());
+			assertEquals(LocalDate.of(2000, 1, 1),
+				ValueConverters.convert(new StringBuilder("2000-01-01").toString(),
+					LocalDate.class));
+		}
+		finally
+		{
+			ValueConverters.unregister(String.class, LocalDate.class);
+		}
+	}
+
+	@Test(expectedExceptions = RuntimeException.class)
+	public void testUnregisteredConverter()
+	{
+		ValueConverters.register(String.class, LocalDate.class, LocalDate::parse);
+		ValueConverters.unregister(String.class, LocalDate.class);
+		PropertyResolver.setValue("birthday", new Account(), "2024-02-29");
+	}
+
+	@Test(expectedExceptions = RuntimeException.class)
+	public void testInvalidValue()
+	{
+		PropertyResolver.setValue("age", new Account(), "forty-two");
+	}
+
+	@Test
+	public void testPlan()
+	{
+		assertNull(ValueConverters.plan(Integer.class, int.class));
+		assertNull(ValueConverters.plan(String.class, CharSequence.class));
+		assertEquals(12, ValueConverters.plan(String.class, Integer.class).convert("12"));
+		assertNull(ValueConverters.plan(String.class, Account.class));
+	}
+}
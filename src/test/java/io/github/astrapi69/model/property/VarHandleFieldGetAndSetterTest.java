@@ -0,0 +1,133 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.property;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+
+import org.testng.annotations.Test;
+
+import io.github.astrapi69.model.api.AccessStrategy;
+import io.github.astrapi69.model.api.GetAndSet;
+import io.github.astrapi69.model.lambda.Address;
+
+/**
+ * The unit test class for the class {@link VarHandleFieldGetAndSetter}
+ */
+public class VarHandleFieldGetAndSetterTest
+{
+
+	@Test
+	public void testGetAndSetValue()
+	{
+		final GetAndSet getAndSet = PropertyResolver.getGetAndSetter("count", Counter.class);
+		assertEquals(AccessStrategy.VAR_HANDLE, getAndSet.getAccessStrategy());
+		final Counter counter = new Counter();
+		getAndSet.setValue(counter, 5);
+		assertEquals(5, counter.count);
+		assertEquals(5, getAndSet.getValue(counter));
+	}
+
+	@Test
+	public void testPrimitiveAccess() throws Exception
+	{
+		final Counter counter = new Counter();
+		final FieldGetAndSetter count = GetAndSetFactory
+			.forField(Counter.class.getDeclaredField("count"));
+		final FieldGetAndSetter total = GetAndSetFactory
+			.forField(Counter.class.getDeclaredField("total"));
+		final FieldGetAndSetter average = GetAndSetFactory
+			.forField(Counter.class.getDeclaredField("average"));
+		count.setInt(counter, 3);
+		total.setLong(counter, 7L);
+		average.setDouble(counter, 2.5d);
+		assertEquals(3, count.getInt(counter));
+		assertEquals(3L, count.getLong(counter));
+		assertEquals(7L, total.getLong(counter));
+		assertEquals(2.5d, average.getDouble(counter), 0.0d);
+	}
+
+	@Test
+	public void testPrimitiveAccessOnIncompatibleField() throws Exception
+	{
+		final Holder holder = new Holder();
+		final FieldGetAndSetter average = GetAndSetFactory
+			.forField(Counter.class.getDeclaredField("average"));
+		final FieldGetAndSetter address = GetAndSetFactory
+			.forField(Holder.class.getDeclaredField("address"));
+		assertEquals(AccessStrategy.VAR_HANDLE, address.getAccessStrategy());
+		try
+		{
+			average.getInt(new Counter());
+			fail("double field read as int");
+		}
+		catch (final RuntimeException e)
+		{
+			assertTrue(e.getCause() instanceof IllegalArgumentException);
+		}
+		try
+		{
+			address.getLong(holder);
+			fail("object field read as long");
+		}
+		catch (final RuntimeException e)
+		{
+			assertTrue(e.getCause() instanceof IllegalArgumentException);
+		}
+	}
+
+	@Test
+	public void testReflectionFallback() throws Exception
+	{
+		final FieldGetAndSetter getAndSet = GetAndSetFactory
+			.forField(Counter.class.getDeclaredField("NAME"));
+		assertEquals(AccessStrategy.REFLECTION, getAndSet.getAccessStrategy());
+		assertEquals("counter", getAndSet.getValue(new Counter()));
+	}
+
+	@Test(expectedExceptions = RuntimeException.class)
+	public void testSetNullOnPrimitive()
+	{
+		PropertyResolver.getGetAndSetter("count", Counter.class).setValue(new Counter(), null);
+	}
+
+	@Test
+	public void testNewValue() throws Exception
+	{
+		final Holder holder = new Holder();
+		final Object value = GetAndSetFactory.forField(Holder.class.getDeclaredField("address"))
+			.newValue(holder);
+		assertTrue(value instanceof Address);
+		assertEquals(value, holder.address);
+	}
+
+	static class Counter
+	{
+		static final String NAME = "counter";
+
+		private int count;
+
+		private long total;
+
+		private double average;
+	}
+
+	static class Holder
+	{
+		private Address address;
+	}
+}
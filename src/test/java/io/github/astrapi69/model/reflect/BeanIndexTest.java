@@ -0,0 +1,159 @@
+/**
+ * Copyright (C) 2015 Asterios Raptis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.astrapi69.model.reflect;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertSame;
+
+import org.testng.annotations.Test;
+
+/**
+ * The unit test class for the class {@link BeanIndex}
+ */
+public class BeanIndexTest
+{
+
+	@Test
+	public void testOf()
+	{
+		assertSame(BeanIndex.of(Bean.class), BeanIndex.of(Bean.class));
+		assertEquals(Bean.class, BeanIndex.of(Bean.class).getType());
+	}
+
+	@Test
+	public void testGetters() throws Exception
+	{
+		final BeanIndex index = BeanIndex.of(Bean.class);
+		assertEquals(Bean.class.getMethod("getName"), index.getGetter("name"));
+		assertEquals(Bean.class.getMethod("getName"), index.getGetter("Name"));
+		assertEquals(Bean.class.getMethod("isActive"), index.getGetter("active"));
+		assertEquals(Bean.class.getMethod("getURL"), index.getGetter("URL"));
+		assertEquals(Bean.class.getMethod("getURL"), index.getGetter("uRL"));
+		assertNull(index.getGetter("unknown"));
+		assertNull(index.getGetter("lower"));
+		// the covariant override wins over the bridge method
+		assertEquals(String.class, index.getGetter("value").getReturnType());
+	}
+
+	@Test
+	public void testSetters() throws Exception
+	{
+		final BeanIndex index = BeanIndex.of(Bean.class);
+		assertEquals(Bean.class.getMethod("setName", String.class), index.getSetter("name"));
+		assertEquals(Bean.class.getMethod("setActive", boolean.class), index.getSetter("active"));
+		assertNull(index.getSetter("URL"));
+	}
+
+	@Test
+	public void testIndexedProperty() throws Exception
+	{
+		final BeanIndex index = BeanIndex.of(Bean.class);
+		assertEquals(Bean.class.getMethod("getItem", int.class), index.getIndexedGetter("item"));
+		assertEquals(Bean.class.getMethod("setItem", int.class, String.class),
+			index.getIndexedSetter("item"));
+		assertNull(index.getIndexedGetter("name"));
+	}
+
+	@Test
+	public void testMethodsAndFields() throws Exception
+	{
+		final BeanIndex index = BeanIndex.of(Bean.class);
+		assertEquals(Bean.class.getMethod("toString"), index.getMethod("toString"));
+		assertEquals(Bean.class.getMethod("setName", String.class),
+			index.getMethod("setName", String.class));
+		assertEquals(2, index.getMethods("setItem").size() + index.getMethods("getItem").size());
+		assertEquals(Bean.class.getDeclaredField("name"), index.getField("name"));
+		assertEquals(Base.class.getDeclaredField("id"), index.getField("id"));
+		assertEquals(Base.class.getDeclaredMethod("setId", int.class),
+			index.getDeclaredMethod("setId", int.class));
+		assertNull(index.getField("unknown"));
+	}
+
+	public static class Base
+	{
+		private int id;
+
+		public Object getValue()
+		{
+			return null;
+		}
+
+		void setId(final int id)
+		{
+			this.id = id;
+		}
+	}
+
+	public static class Bean extends Base
+	{
+		private boolean active;
+
+		private String name;
+
+		public String getItem(final int index)
+		{
+			return name;
+		}
+
+		public String getlower()
+		{
+			return name;
+		}
+
+		public String getName()
+		{
+			return name;
+		}
+
+		public String getURL()
+		{
+			return name;
+		}
+
+		@Override
+		public String getValue()
+		{
+			return name;
+		}
+
+		public boolean isActive()
+		{
+			return active;
+		}
+
+		public void setActive(final boolean active)
+		{
+			this.active = active;
+		}
+
+		public void setItem(final int index, final String value)
+		{
+			this.name = value;
+		}
+
+		public void setName(final String name)
+		{
+			this.name = name;
+		}
+
+		@Override
+		public String toString()
+		{
+			return name;
+		}
+	}
+}